@@ -0,0 +1,51 @@
+package uk.gov.ons.ctp.integration.rhsvc;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+
+/** Loads the JSON fixtures of the unit tests for use by the benchmarks. */
+public final class BenchmarkFixtures {
+  private static final String FIXTURES = "/uk/gov/ons/ctp/integration/rhsvc/";
+
+  private static final ObjectMapper MAPPER =
+      new CustomObjectMapper().configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+
+  private BenchmarkFixtures() {}
+
+  /**
+   * Load the objects of a fixture.
+   *
+   * @param <T> - the type of the objects.
+   * @param fixture - the path of the fixture below the rhsvc test resources.
+   * @param type - the array type of the objects.
+   * @return the objects.
+   */
+  public static <T> List<T> load(String fixture, Class<T[]> type) {
+    try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(FIXTURES + fixture)) {
+      if (in == null) {
+        throw new IllegalArgumentException("No fixture " + fixture);
+      }
+      return Arrays.asList(MAPPER.readValue(in, type));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Load the first object of a fixture.
+   *
+   * @param <T> - the type of the object.
+   * @param fixture - the path of the fixture below the rhsvc test resources.
+   * @param type - the array type of the objects.
+   * @return the object.
+   */
+  public static <T> T loadFirst(String fixture, Class<T[]> type) {
+    return load(fixture, type).get(0);
+  }
+}
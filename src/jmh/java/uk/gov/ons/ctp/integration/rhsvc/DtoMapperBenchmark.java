@@ -0,0 +1,103 @@
+package uk.gov.ons.ctp.integration.rhsvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
+import uk.gov.ons.ctp.common.event.model.SurveyFulfilment;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.DtoMapperConfig.Implementation;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CollectionExerciseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.ProductDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyLiteDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
+
+/** The mappings to the DTOs of the claim, survey and case search responses. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMapperBenchmark {
+  private static final int CASE_SEARCH_RESULTS = 50;
+
+  @Param({"DIRECT", "ORIKA"})
+  private Implementation implementation;
+
+  private DtoMapper mapper;
+  private CaseUpdate caseUpdate;
+  private List<CaseUpdate> caseSearchResults;
+  private UacUpdate uacUpdate;
+  private CollectionExerciseUpdate collectionExercise;
+  private SurveyUpdate surveyUpdate;
+  private SurveyFulfilment fulfilment;
+
+  @Setup
+  public void setup() {
+    mapper =
+        implementation == Implementation.ORIKA
+            ? new OrikaDtoMapper(new RHSvcBeanMapper())
+            : new DirectDtoMapper();
+    caseUpdate =
+        BenchmarkFixtures.loadFirst("RHSvcBeanMapperTest.CaseUpdate.json", CaseUpdate[].class);
+    caseSearchResults = new ArrayList<>();
+    for (int i = 0; i < CASE_SEARCH_RESULTS; i++) {
+      caseSearchResults.add(caseUpdate);
+    }
+    uacUpdate =
+        BenchmarkFixtures.loadFirst("RHSvcBeanMapperTest.UacUpdate.json", UacUpdate[].class);
+    collectionExercise =
+        BenchmarkFixtures.loadFirst(
+            "RHSvcBeanMapperTest.CollectionExerciseUpdate.json", CollectionExerciseUpdate[].class);
+    surveyUpdate =
+        BenchmarkFixtures.loadFirst("RHSvcBeanMapperTest.SurveyUpdate.json", SurveyUpdate[].class);
+    fulfilment =
+        BenchmarkFixtures.loadFirst(
+            "RHSvcBeanMapperTest.SurveyFulfilment.json", SurveyFulfilment[].class);
+  }
+
+  @Benchmark
+  public CaseDTO caseUpdate() {
+    return mapper.toCaseDTO(caseUpdate);
+  }
+
+  @Benchmark
+  public List<CaseDTO> caseSearchResults() {
+    return mapper.toCaseDTOs(caseSearchResults);
+  }
+
+  @Benchmark
+  public UACContextDTO uacUpdate() {
+    return mapper.toUACContextDTO(uacUpdate);
+  }
+
+  @Benchmark
+  public CollectionExerciseDTO collectionExercise() {
+    return mapper.toCollectionExerciseDTO(collectionExercise);
+  }
+
+  @Benchmark
+  public SurveyLiteDTO surveyUpdate() {
+    return mapper.toSurveyLiteDTO(surveyUpdate);
+  }
+
+  @Benchmark
+  public ProductDTO surveyFulfilment() {
+    return mapper.toProductDTO(fulfilment);
+  }
+}
@@ -0,0 +1,53 @@
+package uk.gov.ons.ctp.integration.rhsvc.event.impl;
+
+import com.google.cloud.spring.pubsub.support.converter.JacksonPubSubMessageConverter;
+import com.google.pubsub.v1.PubsubMessage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.ons.ctp.common.event.model.CaseEvent;
+import uk.gov.ons.ctp.common.event.model.UacEvent;
+import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+import uk.gov.ons.ctp.integration.rhsvc.BenchmarkFixtures;
+
+/** Deserialisation of inbound Pub/Sub messages, with the converter the service uses. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDeserialisationBenchmark {
+  private JacksonPubSubMessageConverter converter;
+  private PubsubMessage caseMessage;
+  private PubsubMessage uacMessage;
+
+  @Setup
+  public void setup() {
+    converter = new JacksonPubSubMessageConverter(new CustomObjectMapper());
+    CaseEvent caseEvent =
+        BenchmarkFixtures.loadFirst("event/impl/PackageFixture.CaseEvent.json", CaseEvent[].class);
+    UacEvent uacEvent =
+        BenchmarkFixtures.loadFirst("event/impl/PackageFixture.UacEvent.json", UacEvent[].class);
+    caseMessage = converter.toPubSubMessage(caseEvent, null);
+    uacMessage = converter.toPubSubMessage(uacEvent, null);
+  }
+
+  @Benchmark
+  public CaseEvent caseEvent() {
+    return converter.fromPubSubMessage(caseMessage, CaseEvent.class);
+  }
+
+  @Benchmark
+  public UacEvent uacEvent() {
+    return converter.fromPubSubMessage(uacMessage, UacEvent.class);
+  }
+}
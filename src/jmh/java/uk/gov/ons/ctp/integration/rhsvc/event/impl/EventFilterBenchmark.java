@@ -0,0 +1,94 @@
+package uk.gov.ons.ctp.integration.rhsvc.event.impl;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.CollectionExerciseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
+
+/**
+ * Filtering of inbound case and UAC events against surveys and collection exercises held in memory,
+ * as they are once the reference data caches are warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventFilterBenchmark {
+  private static final String SURVEY_ID = "3883af91-0052-4497-9805-3238544fcf8a";
+  private static final String COLLEX_ID = "4883af91-0052-4497-9805-3238544fcf8a";
+  private static final String CASE_ID = "5883af91-0052-4497-9805-3238544fcf8a";
+  private static final String MESSAGE_ID = "c45de4dc-3c3b-11e9-b210-d663bd873d93";
+
+  private EventFilter eventFilter;
+
+  @Setup
+  public void setup() {
+    AppConfig appConfig = new AppConfig();
+    appConfig.setSurveys(Set.of("social", "test"));
+
+    SurveyUpdate survey = new SurveyUpdate();
+    survey.setSurveyId(SURVEY_ID);
+    survey.setSampleDefinitionUrl("test/social.json");
+    CollectionExerciseUpdate collectionExercise = new CollectionExerciseUpdate();
+    collectionExercise.setCollectionExerciseId(COLLEX_ID);
+    collectionExercise.setSurveyId(SURVEY_ID);
+
+    eventFilter =
+        new EventFilter(
+            appConfig,
+            new InMemorySurveyRepository(Map.of(SURVEY_ID, survey)),
+            new InMemoryCollectionExerciseRepository(Map.of(COLLEX_ID, collectionExercise)));
+  }
+
+  @Benchmark
+  public boolean validEvent() throws CTPException {
+    return eventFilter.isValidEvent(SURVEY_ID, COLLEX_ID, CASE_ID, MESSAGE_ID);
+  }
+
+  private static class InMemorySurveyRepository extends SurveyRepository {
+    private final Map<String, SurveyUpdate> surveys;
+
+    InMemorySurveyRepository(Map<String, SurveyUpdate> surveys) {
+      super(null, null, null, null, null);
+      this.surveys = surveys;
+    }
+
+    @Override
+    public Optional<SurveyUpdate> readSurvey(String surveyId) {
+      return Optional.ofNullable(surveys.get(surveyId));
+    }
+  }
+
+  private static class InMemoryCollectionExerciseRepository extends CollectionExerciseRepository {
+    private final Map<String, CollectionExerciseUpdate> collectionExercises;
+
+    InMemoryCollectionExerciseRepository(
+        Map<String, CollectionExerciseUpdate> collectionExercises) {
+      super(null, null, null, null, null);
+      this.collectionExercises = collectionExercises;
+    }
+
+    @Override
+    public Optional<CollectionExerciseUpdate> readCollectionExercise(String collectionExerciseId) {
+      return Optional.ofNullable(collectionExercises.get(collectionExerciseId));
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.yaml.snakeyaml.Yaml;
+import uk.gov.ons.ctp.common.domain.Language;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.integration.eqlaunch.crypto.KeyStore;
+import uk.gov.ons.ctp.integration.eqlaunch.service.EqLaunchService;
+import uk.gov.ons.ctp.integration.rhsvc.BenchmarkFixtures;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.EqConfig;
+import uk.gov.ons.ctp.integration.rhsvc.representation.EqLaunchRequestDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.LaunchDataDTO;
+
+/** Creation of the signed and encrypted EQ launch token, with the keys of application.yml. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LaunchTokenBenchmark {
+  private EqLaunchServiceImpl eqLaunchService;
+  private LaunchDataDTO launchData;
+  private EqLaunchRequestDTO eqLaunchRequest;
+
+  @Setup
+  public void setup() throws CTPException {
+    EqConfig eqConfig = new EqConfig();
+    eqConfig.setResponseIdSalt("CENSUS");
+    AppConfig appConfig = new AppConfig();
+    appConfig.setEq(eqConfig);
+
+    eqLaunchService = new EqLaunchServiceImpl();
+    ReflectionTestUtils.setField(eqLaunchService, "appConfig", appConfig);
+    ReflectionTestUtils.setField(
+        eqLaunchService, "eqLaunchService", new EqLaunchService(new KeyStore(keystore())));
+
+    launchData =
+        LaunchDataDTO.builder()
+            .uacUpdate(
+                BenchmarkFixtures.loadFirst(
+                    "service/impl/UniqueAccessCodeServiceImplTest.UacUpdate.linkedHousehold.json",
+                    UacUpdate[].class))
+            .caseUpdate(
+                BenchmarkFixtures.loadFirst(
+                    "service/impl/UniqueAccessCodeServiceImplTest.CaseUpdate.household.json",
+                    CaseUpdate[].class))
+            .collectionExerciseUpdate(
+                BenchmarkFixtures.loadFirst(
+                    "service/impl/UniqueAccessCodeServiceImplTest.CollectionExerciseUpdate.json",
+                    CollectionExerciseUpdate[].class))
+            .surveyUpdate(
+                BenchmarkFixtures.loadFirst(
+                    "service/impl/PackageFixture.SurveyUpdate.json", SurveyUpdate[].class))
+            .build();
+    eqLaunchRequest =
+        EqLaunchRequestDTO.builder()
+            .languageCode(Language.ENGLISH)
+            .accountServiceUrl("/accountServiceUrl")
+            .accountServiceLogoutUrl("/accountServiceLogoutUrl")
+            .build();
+  }
+
+  @Benchmark
+  public String createLaunchToken() throws CTPException {
+    return eqLaunchService.createLaunchToken(launchData, eqLaunchRequest);
+  }
+
+  private static String keystore() {
+    try (InputStream in = LaunchTokenBenchmark.class.getResourceAsStream("/application.yml")) {
+      Map<String, Object> application = new Yaml().load(in);
+      return (String) application.get("keystore");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.ons.ctp.common.domain.DeliveryChannel;
+import uk.gov.ons.ctp.common.domain.Product;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.BenchmarkFixtures;
+import uk.gov.ons.ctp.integration.rhsvc.representation.PrintFulfilmentRequestDTO;
+
+/** Building the products of a postal fulfilment request from the fulfilments of its survey. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListBenchmark {
+  private CaseServiceImpl caseService;
+  private PrintFulfilmentRequestDTO request;
+  private SurveyUpdate surveyUpdate;
+
+  @Setup
+  public void setup() {
+    caseService = new CaseServiceImpl();
+    surveyUpdate =
+        BenchmarkFixtures.loadFirst(
+            "service/impl/PackageFixture.SurveyUpdate.json", SurveyUpdate[].class);
+    request =
+        PrintFulfilmentRequestDTO.builder()
+            .caseId(UUID.randomUUID())
+            .fulfilmentCodes(List.of("REPLACEMENT_UAC", "DUMMY_FULFILMENT"))
+            .build();
+  }
+
+  @Benchmark
+  public List<Product> createProductList() throws CTPException {
+    return caseService.createProductList(DeliveryChannel.POST, request, surveyUpdate);
+  }
+}
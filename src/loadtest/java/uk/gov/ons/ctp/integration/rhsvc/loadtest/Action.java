@@ -0,0 +1,20 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+/** The actions of a respondent, each made with one request to the service. */
+public enum Action {
+  CLAIM("GET /uacs/{uacHash}"),
+  LAUNCH("GET /uacs/{uacHash}/launch"),
+  SURVEY_READ("GET /surveys[/{surveyId}]"),
+  FULFILMENT("POST /cases/{caseId}/fulfilment/post"),
+  WEBFORM("POST /webform");
+
+  private final String endpoint;
+
+  Action(String endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+}
@@ -0,0 +1,96 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import lombok.Data;
+
+/** The latencies and outcomes of the requests made to one endpoint. */
+public class EndpointStats {
+  /** The status recorded for a request which got no response. */
+  public static final int NO_RESPONSE = -1;
+
+  private long[] latencies = new long[1024];
+  private int count;
+  private int clientErrors;
+  private int serverErrors;
+  private int noResponses;
+
+  /**
+   * Record one request.
+   *
+   * @param latencyNanos - the time from sending the request until its response was read.
+   * @param status - the HTTP status of the response, or NO_RESPONSE.
+   */
+  public synchronized void record(long latencyNanos, int status) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+    latencies[count++] = latencyNanos;
+    if (status == NO_RESPONSE) {
+      noResponses++;
+    } else if (status >= 500) {
+      serverErrors++;
+    } else if (status >= 400) {
+      clientErrors++;
+    }
+  }
+
+  /**
+   * Summarise the requests recorded.
+   *
+   * @param endpoint - the endpoint the requests were made to.
+   * @param elapsed - the time over which the requests were made.
+   * @return the summary.
+   */
+  public synchronized Summary summarise(String endpoint, Duration elapsed) {
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    Summary summary = new Summary();
+    summary.setEndpoint(endpoint);
+    summary.setRequests(count);
+    summary.setThroughput(count / (elapsed.toNanos() / 1e9));
+    summary.setP50Millis(percentile(sorted, 0.50));
+    summary.setP90Millis(percentile(sorted, 0.90));
+    summary.setP95Millis(percentile(sorted, 0.95));
+    summary.setP99Millis(percentile(sorted, 0.99));
+    summary.setMaxMillis(count == 0 ? 0 : millis(sorted[count - 1]));
+    summary.setClientErrorRate(ratio(clientErrors));
+    summary.setErrorRate(ratio(serverErrors + noResponses));
+    return summary;
+  }
+
+  static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return millis(sorted[Math.max(index, 0)]);
+  }
+
+  private double ratio(int errors) {
+    return count == 0 ? 0 : (double) errors / count;
+  }
+
+  static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+
+  /** Throughput, latency percentiles and error rates of one endpoint. */
+  @Data
+  public static class Summary {
+    private String endpoint;
+    private int requests;
+    private double throughput;
+    private double p50Millis;
+    private double p90Millis;
+    private double p95Millis;
+    private double p99Millis;
+    private double maxMillis;
+
+    /** Proportion of responses with a 4xx status, eg for unknown UACs. */
+    private double clientErrorRate;
+
+    /** Proportion of responses with a 5xx status, or of requests without a response. */
+    private double errorRate;
+  }
+}
@@ -0,0 +1,113 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import lombok.AllArgsConstructor;
+import uk.gov.ons.ctp.integration.rhsvc.loadtest.LoadTestProperties.Ingestion;
+
+/**
+ * Generates the inbound events of a sample load, as Response Management would publish them: the
+ * survey and collection exercise, then an event creating each case, an event for the UAC of each
+ * case, and the configured number of updates to each case.
+ *
+ * <p>The events are then disordered as Pub/Sub may deliver them. A share of the case and UAC
+ * events are delivered late, after up to the configured number of the events which follow them,
+ * and a share of all of the events are delivered a second time, with the same message id, after up
+ * to that number of events. The survey and collection exercise are always delivered first, as
+ * case and UAC events for an unknown survey are discarded.
+ */
+public class InboundEventGenerator {
+  private final RespondentData data;
+  private final Ingestion settings;
+
+  public InboundEventGenerator(RespondentData data, Ingestion settings) {
+    this.data = data;
+    this.settings = settings;
+  }
+
+  /**
+   * Generate the events in the order in which they are to be delivered.
+   *
+   * @param seed - seed for the disorder, so that the same settings give the same deliveries.
+   * @return the deliveries.
+   */
+  public List<SyntheticEvent> generate(long seed) {
+    Random random = new Random(seed);
+    List<Delivery> deliveries = new ArrayList<>();
+    deliveries.add(delivery(0, InboundEventType.SURVEY_UPDATE, data.surveyEvent()));
+    deliveries.add(
+        delivery(1, InboundEventType.COLLECTION_EXERCISE_UPDATE, data.collectionExerciseEvent()));
+
+    for (Generated generated : published()) {
+      double position = deliveries.size();
+      boolean late = random.nextDouble() < settings.getOutOfOrderRatio();
+      if (late) {
+        position += later(random) + 0.5;
+      }
+      deliveries.add(
+          new Delivery(
+              position, new SyntheticEvent(generated.type, generated.event, false, late)));
+      if (random.nextDouble() < settings.getDuplicateRatio()) {
+        deliveries.add(
+            new Delivery(
+                position + later(random) + 0.25,
+                new SyntheticEvent(generated.type, generated.event, true, late)));
+      }
+    }
+
+    deliveries.sort(Comparator.comparingDouble(d -> d.position));
+    List<SyntheticEvent> events = new ArrayList<>(deliveries.size());
+    deliveries.forEach(d -> events.add(d.event));
+    return events;
+  }
+
+  /** The case and UAC events, in the order in which they are published. */
+  private List<Generated> published() {
+    List<Generated> published = new ArrayList<>();
+    int updates = settings.getUpdatesPerCase();
+    if (settings.getOrdering() == Ingestion.Ordering.INTERLEAVED) {
+      for (int i = 0; i < data.size(); i++) {
+        published.add(new Generated(InboundEventType.CASE_UPDATE, data.caseEvent(i, 0)));
+        published.add(new Generated(InboundEventType.UAC_UPDATE, data.uacEvent(i)));
+        for (int version = 1; version <= updates; version++) {
+          published.add(new Generated(InboundEventType.CASE_UPDATE, data.caseEvent(i, version)));
+        }
+      }
+    } else {
+      for (int i = 0; i < data.size(); i++) {
+        published.add(new Generated(InboundEventType.CASE_UPDATE, data.caseEvent(i, 0)));
+      }
+      for (int i = 0; i < data.size(); i++) {
+        published.add(new Generated(InboundEventType.UAC_UPDATE, data.uacEvent(i)));
+      }
+      for (int version = 1; version <= updates; version++) {
+        for (int i = 0; i < data.size(); i++) {
+          published.add(new Generated(InboundEventType.CASE_UPDATE, data.caseEvent(i, version)));
+        }
+      }
+    }
+    return published;
+  }
+
+  private Delivery delivery(double position, InboundEventType type, Object event) {
+    return new Delivery(position, new SyntheticEvent(type, event, false, false));
+  }
+
+  private int later(Random random) {
+    return 1 + random.nextInt(Math.max(settings.getOutOfOrderDistance(), 1));
+  }
+
+  @AllArgsConstructor
+  private static class Generated {
+    private final InboundEventType type;
+    private final Object event;
+  }
+
+  @AllArgsConstructor
+  private static class Delivery {
+    private final double position;
+    private final SyntheticEvent event;
+  }
+}
@@ -0,0 +1,70 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * Sends case and UAC update events for the synthetic respondents through the inbound channels
+ * while the traffic is driven, as Pub/Sub would deliver them, so that the REST requests compete
+ * with event processing for Firestore and the caches.
+ */
+@Slf4j
+public class InboundEventLoad implements Runnable {
+  private final RespondentData data;
+  private final MessageChannel caseChannel;
+  private final MessageChannel uacChannel;
+  private final double rate;
+  private final Random random;
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private volatile boolean running = true;
+
+  public InboundEventLoad(
+      RespondentData data,
+      MessageChannel caseChannel,
+      MessageChannel uacChannel,
+      double rate,
+      long seed) {
+    this.data = data;
+    this.caseChannel = caseChannel;
+    this.uacChannel = uacChannel;
+    this.rate = rate;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void run() {
+    RateLimiter pacing = RateLimiter.create(rate);
+    while (running) {
+      pacing.acquire();
+      int i = random.nextInt(data.size());
+      try {
+        if (random.nextBoolean()) {
+          caseChannel.send(new GenericMessage<>(data.caseEvent(i)));
+        } else {
+          uacChannel.send(new GenericMessage<>(data.uacEvent(i)));
+        }
+        sent.incrementAndGet();
+      } catch (RuntimeException e) {
+        log.debug("Inbound event failed", e);
+        failed.incrementAndGet();
+      }
+    }
+  }
+
+  public void stop() {
+    running = false;
+  }
+
+  public long getSent() {
+    return sent.get();
+  }
+
+  public long getFailed() {
+    return failed.get();
+  }
+}
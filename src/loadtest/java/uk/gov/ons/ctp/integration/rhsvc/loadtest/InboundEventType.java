@@ -0,0 +1,20 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+/** The kinds of inbound event, each received through its own channel. */
+public enum InboundEventType {
+  SURVEY_UPDATE("acceptSurveyUpdateEvent"),
+  COLLECTION_EXERCISE_UPDATE("acceptCollectionExerciseEvent"),
+  CASE_UPDATE("acceptCaseEvent"),
+  UAC_UPDATE("acceptUACEvent");
+
+  private final String channel;
+
+  InboundEventType(String channel) {
+    this.channel = channel;
+  }
+
+  /** The name of the channel bean of InboundEventIntegrationConfig which receives the events. */
+  public String getChannel() {
+    return channel;
+  }
+}
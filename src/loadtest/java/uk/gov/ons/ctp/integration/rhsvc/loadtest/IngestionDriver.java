@@ -0,0 +1,122 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * Delivers inbound events through the channels of InboundEventIntegrationConfig, as the Pub/Sub
+ * inbound adapters would, from several senders at once. Each channel calls its receiver on the
+ * sending thread, so an event has been processed when its send returns.
+ *
+ * <p>Events are delivered on an open schedule: the nth event is due n / target rate seconds after
+ * the start, whether or not the events before it have been processed. The lag of an event is the
+ * time from when it was due until it was processed, so it includes any time spent waiting because
+ * the receivers fell behind the target rate.
+ */
+@Slf4j
+public class IngestionDriver {
+  private final Map<InboundEventType, MessageChannel> channels;
+  private final int senders;
+  private final double targetRate;
+
+  /**
+   * Create the driver.
+   *
+   * @param channels - the channel receiving each kind of event.
+   * @param senders - the number of events delivered at once.
+   * @param targetRate - events per second, or 0 to deliver each as soon as a sender is free.
+   */
+  public IngestionDriver(
+      Map<InboundEventType, MessageChannel> channels, int senders, double targetRate) {
+    this.channels = channels;
+    this.senders = senders;
+    this.targetRate = targetRate;
+  }
+
+  /**
+   * Deliver events, in order, and wait until all of them have been processed.
+   *
+   * @param events - the events to deliver.
+   * @return the statistics of each kind of event, and the time taken.
+   * @throws InterruptedException - if interrupted while waiting for the senders.
+   */
+  public Result run(List<SyntheticEvent> events) throws InterruptedException {
+    Map<InboundEventType, IngestionStats> stats = new EnumMap<>(InboundEventType.class);
+    for (InboundEventType type : InboundEventType.values()) {
+      stats.put(type, new IngestionStats());
+    }
+    AtomicInteger next = new AtomicInteger();
+    AtomicLong finishedAt = new AtomicLong();
+    long start = System.nanoTime();
+
+    ExecutorService pool = Executors.newFixedThreadPool(senders);
+    for (int s = 0; s < senders; s++) {
+      pool.execute(
+          () -> {
+            int index;
+            while ((index = next.getAndIncrement()) < events.size()) {
+              long due =
+                  targetRate > 0 ? start + (long) (index * 1e9 / targetRate) : System.nanoTime();
+              if (!waitUntil(due)) {
+                return;
+              }
+              SyntheticEvent event = events.get(index);
+              boolean failed = !deliver(event);
+              long processed = System.nanoTime();
+              finishedAt.accumulateAndGet(processed, Math::max);
+              stats.get(event.getType()).record(processed - due, event.isDuplicate(), failed);
+            }
+          });
+    }
+    pool.shutdown();
+    pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    return new Result(stats, Duration.ofNanos(Math.max(finishedAt.get() - start, 1)));
+  }
+
+  private boolean deliver(SyntheticEvent event) {
+    try {
+      channels.get(event.getType()).send(new GenericMessage<>(event.getEvent()));
+      return true;
+    } catch (RuntimeException e) {
+      log.debug("Inbound event failed", e);
+      return false;
+    }
+  }
+
+  private boolean waitUntil(long due) {
+    long wait = due - System.nanoTime();
+    if (wait > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The statistics of one run. */
+  @Value
+  public static class Result {
+    Map<InboundEventType, IngestionStats> stats;
+
+    /** The time from the start until the last event was processed. */
+    Duration elapsed;
+
+    public int getEvents() {
+      return stats.values().stream().mapToInt(IngestionStats::getCount).sum();
+    }
+  }
+}
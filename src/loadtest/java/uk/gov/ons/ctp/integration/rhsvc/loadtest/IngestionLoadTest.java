@@ -0,0 +1,162 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.messaging.MessageChannel;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.loadtest.IngestionStats.Summary;
+import uk.gov.ons.ctp.integration.rhsvc.loadtest.LoadTestProperties.Ingestion;
+import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.InMemoryCloudDataStore;
+import uk.gov.ons.ctp.integration.rhsvc.repository.UacRepository;
+
+/**
+ * Delivers the inbound events of a synthetic sample load through the channels of
+ * InboundEventIntegrationConfig, at a target rate and with duplicate and late deliveries, to
+ * measure the receivers in isolation from Pub/Sub. Reports, to the log and to the ingestion result
+ * file, the events processed per second and their lag, the data store reads and writes made per
+ * event, and how many cases and UACs were left missing or stale by the disordered deliveries.
+ */
+@Slf4j
+public class IngestionLoadTest extends LoadTestBase {
+  private static final int READ_BATCH = 100;
+
+  @Autowired private ApplicationContext context;
+  @Autowired private MeterRegistry registry;
+  @Autowired private CaseRepository caseRepository;
+  @Autowired private UacRepository uacRepository;
+
+  @Test
+  public void shouldReportIngestionThroughput() throws Exception {
+    Ingestion settings = properties.getIngestion();
+    Map<InboundEventType, MessageChannel> channels = new EnumMap<>(InboundEventType.class);
+    for (InboundEventType type : InboundEventType.values()) {
+      channels.put(type, context.getBean(type.getChannel(), MessageChannel.class));
+    }
+
+    if (settings.getWarmUpCases() > 0) {
+      log.info("Warming up", kv("cases", settings.getWarmUpCases()));
+      RespondentData warmUp = new RespondentData(settings.getWarmUpCases());
+      new IngestionDriver(channels, settings.getSenders(), 0)
+          .run(new InboundEventGenerator(warmUp, settings).generate(properties.getSeed()));
+    }
+
+    RespondentData data = new RespondentData(settings.getCases());
+    List<SyntheticEvent> events =
+        new InboundEventGenerator(data, settings).generate(properties.getSeed() + 1);
+    log.info("Running ingestion load test", kv("events", events.size()));
+    double writesBefore = operations("write");
+    double readsBefore = operations("read") + operations("query");
+    IngestionDriver.Result run =
+        new IngestionDriver(channels, settings.getSenders(), settings.getTargetRate()).run(events);
+    double writes = operations("write") - writesBefore;
+    double reads = operations("read") + operations("query") - readsBefore;
+
+    List<Summary> summaries = new ArrayList<>();
+    run.getStats().forEach((type, s) -> summaries.add(s.summarise(type, run.getElapsed())));
+    int delivered = run.getEvents();
+    long late = events.stream().filter(e -> e.isLate() && !e.isDuplicate()).count();
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("settings", settings);
+    result.put("events", summaries);
+    result.put("eventsPerSecond", delivered / (run.getElapsed().toNanos() / 1e9));
+    result.put("lateDeliveries", late);
+    result.put("writes", (long) writes);
+    result.put("writesPerEvent", writes / delivered);
+    result.put("readsPerEvent", reads / delivered);
+    result.putAll(verify(data, settings.getUpdatesPerCase()));
+    report(summaries, result);
+    writeResult(settings.getResultFile(), result);
+    assertTrue(delivered > 0);
+  }
+
+  /**
+   * Count the cases and UACs of the sample which were not stored, and the cases whose stored
+   * version is not the last one published, having been overwritten by a late or duplicate delivery
+   * of an earlier version.
+   */
+  private Map<String, Object> verify(RespondentData data, int lastVersion) throws Exception {
+    int missingCases = 0;
+    int staleCases = 0;
+    int missingUacs = 0;
+    for (int from = 0; from < data.size(); from += READ_BATCH) {
+      List<String> caseIds = new ArrayList<>();
+      List<String> uacHashes = new ArrayList<>();
+      for (int i = from; i < Math.min(from + READ_BATCH, data.size()); i++) {
+        caseIds.add(data.getCaseId(i));
+        uacHashes.add(data.getUacHash(i));
+      }
+      Map<String, CaseUpdate> cases = caseRepository.readCaseUpdates(caseIds);
+      missingCases += caseIds.size() - cases.size();
+      for (CaseUpdate caseUpdate : cases.values()) {
+        Object version = caseUpdate.getSample().get(RespondentData.VERSION_ATTRIBUTE);
+        if (!String.valueOf(lastVersion).equals(version)) {
+          staleCases++;
+        }
+      }
+      missingUacs += uacHashes.size() - uacRepository.readUACs(uacHashes).size();
+    }
+    Map<String, Object> verified = new LinkedHashMap<>();
+    verified.put("missingCases", missingCases);
+    verified.put("staleCases", staleCases);
+    verified.put("missingUacs", missingUacs);
+    return verified;
+  }
+
+  private double operations(String operation) {
+    return registry
+        .get(InMemoryCloudDataStore.OPERATIONS_METRIC)
+        .tag("operation", operation)
+        .functionCounter()
+        .count();
+  }
+
+  private void report(List<Summary> summaries, Map<String, Object> result) {
+    StringBuilder table = new StringBuilder();
+    table.append(
+        String.format(
+            "%n%-28s %8s %6s %8s %9s %8s %8s %8s %8s%n",
+            "event type",
+            "events",
+            "dups",
+            "failures",
+            "events/s",
+            "p50 ms",
+            "p90 ms",
+            "p99 ms",
+            "max ms"));
+    for (Summary s : summaries) {
+      table.append(
+          String.format(
+              "%-28s %8d %6d %8d %9.1f %8.1f %8.1f %8.1f %8.1f%n",
+              s.getEventType(),
+              s.getEvents(),
+              s.getDuplicates(),
+              s.getFailures(),
+              s.getEventsPerSecond(),
+              s.getP50LagMillis(),
+              s.getP90LagMillis(),
+              s.getP99LagMillis(),
+              s.getMaxLagMillis()));
+    }
+    result.forEach(
+        (name, value) -> {
+          if (!name.equals("settings") && !name.equals("events")) {
+            table.append(String.format("%s: %s%n", name, value));
+          }
+        });
+    log.info("Ingestion load test results{}", table);
+  }
+}
@@ -0,0 +1,80 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import lombok.Data;
+
+/** The lag and outcomes of the deliveries of one kind of inbound event. */
+public class IngestionStats {
+  private long[] lags = new long[1024];
+  private int count;
+  private int duplicates;
+  private int failures;
+
+  /**
+   * Record one delivery.
+   *
+   * @param lagNanos - the time from when the event was due to be delivered until it was processed.
+   * @param duplicate - whether the delivery was of an event delivered before.
+   * @param failed - whether processing the event failed.
+   */
+  public synchronized void record(long lagNanos, boolean duplicate, boolean failed) {
+    if (count == lags.length) {
+      lags = Arrays.copyOf(lags, count * 2);
+    }
+    lags[count++] = lagNanos;
+    if (duplicate) {
+      duplicates++;
+    }
+    if (failed) {
+      failures++;
+    }
+  }
+
+  public synchronized int getCount() {
+    return count;
+  }
+
+  /**
+   * Summarise the deliveries recorded.
+   *
+   * @param eventType - the kind of event delivered.
+   * @param elapsed - the time over which the events were delivered.
+   * @return the summary.
+   */
+  public synchronized Summary summarise(InboundEventType eventType, Duration elapsed) {
+    long[] sorted = Arrays.copyOf(lags, count);
+    Arrays.sort(sorted);
+    Summary summary = new Summary();
+    summary.setEventType(eventType);
+    summary.setEvents(count);
+    summary.setDuplicates(duplicates);
+    summary.setFailures(failures);
+    summary.setEventsPerSecond(count / (elapsed.toNanos() / 1e9));
+    summary.setP50LagMillis(EndpointStats.percentile(sorted, 0.50));
+    summary.setP90LagMillis(EndpointStats.percentile(sorted, 0.90));
+    summary.setP99LagMillis(EndpointStats.percentile(sorted, 0.99));
+    summary.setMaxLagMillis(count == 0 ? 0 : EndpointStats.millis(sorted[count - 1]));
+    return summary;
+  }
+
+  /** Throughput and lag of one kind of event. */
+  @Data
+  public static class Summary {
+    private InboundEventType eventType;
+
+    /** Deliveries, including duplicates. */
+    private int events;
+
+    private int duplicates;
+    private int failures;
+    private double eventsPerSecond;
+
+    /** Lag from when each event was due, on the schedule of the target rate, until processed. */
+    private double p50LagMillis;
+
+    private double p90LagMillis;
+    private double p99LagMillis;
+    private double maxLagMillis;
+  }
+}
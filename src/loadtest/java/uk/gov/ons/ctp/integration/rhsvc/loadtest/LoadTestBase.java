@@ -0,0 +1,99 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import static uk.gov.ons.ctp.integration.rhsvc.loadtest.StandIns.standIn;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.cloud.spring.pubsub.core.PubSubTemplate;
+import com.google.cloud.spring.pubsub.integration.inbound.PubSubInboundChannelAdapter;
+import java.io.File;
+import java.io.IOException;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.ons.ctp.common.cloud.FirestoreProvider;
+import uk.gov.ons.ctp.common.event.EventPublisher;
+import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
+import uk.gov.ons.ctp.integration.rhsvc.repository.InMemoryCloudDataStore;
+import uk.gov.service.notify.NotificationClientApi;
+import uk.gov.service.notify.SendEmailResponse;
+
+/**
+ * Boots RH against local stand-ins for Firestore, Pub/Sub, the envoy rate limiter and GOV.UK
+ * Notify, for the load tests. The load tests share the one application context, and are only built
+ * and run by the load-test maven profile, configured by application-load-test.yml or the matching
+ * system properties.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({InMemoryCloudDataStore.PROFILE, "load-test"})
+@Import(LoadTestBase.StandInConfiguration.class)
+@MockBean({PubSubTemplate.class, FirestoreProvider.class})
+@MockBean(name = "caseEventInbound", value = PubSubInboundChannelAdapter.class)
+@MockBean(name = "uacEventInbound", value = PubSubInboundChannelAdapter.class)
+@MockBean(name = "surveyEventInbound", value = PubSubInboundChannelAdapter.class)
+@MockBean(name = "collectionExerciseEventInbound", value = PubSubInboundChannelAdapter.class)
+@Tag("load-test")
+public abstract class LoadTestBase {
+  private static final String SEND_EMAIL_RESPONSE =
+      "{\"content\":{\"body\":\"\",\"from_email\":\"rh@example.com\",\"subject\":\"COMPLAINT\"},"
+          + "\"id\":\"8db6313a-d4e3-47a1-8d0e-ddd30c86e878\","
+          + "\"reference\":\"88e4a66a-1a8d-4b8e-802d-b8a9dd10528d\",\"scheduled_for\":\"\","
+          + "\"template\":{\"id\":\"457d8d8c-bdcb-4875-8f2f-88030643ad13\",\"uri\":\"\","
+          + "\"version\":\"1\"},\"uri\":\"\"}";
+
+  @Autowired protected LoadTestProperties properties;
+
+  /** Stand-ins for the services called while requests are handled. */
+  @TestConfiguration
+  @EnableConfigurationProperties(LoadTestProperties.class)
+  static class StandInConfiguration {
+    @Bean
+    @Primary
+    EventPublisher eventPublisherStandIn(LoadTestProperties properties) {
+      return standIn(EventPublisher.class, properties.getEventPublisherLatency());
+    }
+
+    @Bean
+    @Primary
+    RateLimiterClient rateLimiterClientStandIn(LoadTestProperties properties) {
+      return standIn(RateLimiterClient.class, properties.getRateLimiterLatency());
+    }
+
+    @Bean
+    @Primary
+    NotificationClientApi notificationClientStandIn(LoadTestProperties properties) {
+      return standIn(
+          NotificationClientApi.class,
+          properties.getNotifyLatency(),
+          invocation ->
+              invocation.getMethod().getName().equals("sendEmail")
+                  ? new SendEmailResponse(SEND_EMAIL_RESPONSE)
+                  : null);
+    }
+  }
+
+  /**
+   * Write the results of a load test as JSON.
+   *
+   * @param path - the path of the result file.
+   * @param result - the results.
+   * @throws IOException - if the file cannot be written.
+   */
+  protected void writeResult(String path, Object result) throws IOException {
+    File file = new File(path);
+    file.getAbsoluteFile().getParentFile().mkdirs();
+    new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+        .writerWithDefaultPrettyPrinter()
+        .writeValue(file, result);
+  }
+}
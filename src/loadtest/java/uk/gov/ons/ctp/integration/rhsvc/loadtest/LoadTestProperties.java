@@ -0,0 +1,85 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Settings of the load test, from the load-test block of application-load-test.yml. */
+@Data
+@ConfigurationProperties("load-test")
+public class LoadTestProperties {
+  /** Seed for the traffic, so that runs with the same settings make the same requests. */
+  private long seed = 1;
+
+  private Duration warmUp = Duration.ofSeconds(10);
+  private Duration duration = Duration.ofSeconds(60);
+
+  /** Respondents making requests at once, each waiting for its response before the next. */
+  private int respondents = 50;
+
+  /** Requests per second across all respondents, or 0 for as many as they can make. */
+  private double targetRate;
+
+  /** Cases, each with a UAC, loaded before the run. */
+  private int cases = 10000;
+
+  /** Proportion of claims, launches and fulfilments made with an unknown UAC or case. */
+  private double invalidRatio = 0.1;
+
+  /** Relative weight of each action in the traffic mix. */
+  private Map<Action, Integer> mix = new EnumMap<>(Action.class);
+
+  /** Case and UAC update events per second received while the run is made, or 0 for none. */
+  private double eventRate = 20;
+
+  private Duration eventPublisherLatency = Duration.ofMillis(20);
+  private Duration rateLimiterLatency = Duration.ofMillis(5);
+  private Duration notifyLatency = Duration.ofMillis(150);
+
+  private String resultFile = "target/load-test-result.json";
+
+  /** Settings of the ingestion benchmark, made by IngestionLoadTest. */
+  private Ingestion ingestion = new Ingestion();
+
+  /** Settings of the ingestion benchmark, from the load-test.ingestion block. */
+  @Data
+  public static class Ingestion {
+    /** The orders in which Response Management may publish the case and UAC events of a sample. */
+    public enum Ordering {
+      /** Every case, then every UAC, then each round of case updates, as a bulk sample load. */
+      SAMPLE_LOAD,
+      /** Each case followed by its UAC and its updates. */
+      INTERLEAVED
+    }
+
+    /** Cases in the sample, each with a UAC. */
+    private int cases = 20000;
+
+    /** Cases of a separate sample delivered as fast as possible before the measured run. */
+    private int warmUpCases = 2000;
+
+    /** Update events for each case after the event which creates it. */
+    private int updatesPerCase = 1;
+
+    /** Events per second across all senders, or 0 for as many as they can deliver. */
+    private double targetRate = 1000;
+
+    /** Events delivered at once, as by the concurrent Pub/Sub subscribers of one instance. */
+    private int senders = 8;
+
+    private Ordering ordering = Ordering.SAMPLE_LOAD;
+
+    /** Proportion of events delivered twice, as Pub/Sub redelivers events not acked in time. */
+    private double duplicateRatio = 0.02;
+
+    /** Proportion of case and UAC events delivered after some of the events which follow them. */
+    private double outOfOrderRatio = 0.02;
+
+    /** Most events which a late or duplicate delivery may follow. */
+    private int outOfOrderDistance = 500;
+
+    private String resultFile = "target/ingestion-load-test-result.json";
+  }
+}
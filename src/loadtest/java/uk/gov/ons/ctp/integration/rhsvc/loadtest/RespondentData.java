@@ -0,0 +1,173 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import uk.gov.ons.ctp.common.event.model.CaseEvent;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdateEvent;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdateEvent;
+import uk.gov.ons.ctp.common.event.model.UacEvent;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+
+/**
+ * The survey, collection exercise, cases and UACs of the synthetic respondents. Events are made
+ * from the event fixtures of the unit tests, with the ids of the synthetic data, and a new message
+ * id each time one is made.
+ */
+public class RespondentData {
+  /** The sample attribute holding the version of a case, which rises with each update. */
+  public static final String VERSION_ATTRIBUTE = "loadTestVersion";
+
+  private static final String FIXTURES = "/uk/gov/ons/ctp/integration/rhsvc/event/impl/";
+
+  private final ObjectMapper mapper = new CustomObjectMapper();
+  private final byte[] surveyTemplate = fixture("PackageFixture.SurveyUpdateEvent.json");
+  private final byte[] collectionExerciseTemplate =
+      fixture("PackageFixture.CollectionExerciseUpdateEvent.json");
+  private final byte[] caseTemplate = fixture("PackageFixture.CaseEvent.json");
+  private final byte[] uacTemplate = fixture("PackageFixture.UacEvent.json");
+
+  private final String surveyId;
+  private final String collectionExerciseId = UUID.randomUUID().toString();
+  private final List<String> caseIds = new ArrayList<>();
+  private final List<String> uacHashes = new ArrayList<>();
+
+  /**
+   * Create the ids of the synthetic data.
+   *
+   * @param cases - the number of cases, each of which has one UAC.
+   */
+  public RespondentData(int cases) {
+    this.surveyId = surveyEvent().getPayload().getSurveyUpdate().getSurveyId();
+    for (int i = 0; i < cases; i++) {
+      caseIds.add(UUID.randomUUID().toString());
+      uacHashes.add(hash("uac-" + i + "-" + caseIds.get(i)));
+    }
+  }
+
+  public int size() {
+    return caseIds.size();
+  }
+
+  public String getSurveyId() {
+    return surveyId;
+  }
+
+  public String getCaseId(int i) {
+    return caseIds.get(i);
+  }
+
+  public String getUacHash(int i) {
+    return uacHashes.get(i);
+  }
+
+  /**
+   * A hash which no UAC has, as given by a respondent who mistypes their code.
+   *
+   * @param i - a number which varies the hash.
+   * @return the hash.
+   */
+  public String unknownUacHash(long i) {
+    return hash("unknown-" + i);
+  }
+
+  public SurveyUpdateEvent surveyEvent() {
+    SurveyUpdateEvent event = read(surveyTemplate, SurveyUpdateEvent.class);
+    event.getHeader().setMessageId(UUID.randomUUID());
+    return event;
+  }
+
+  public CollectionExerciseUpdateEvent collectionExerciseEvent() {
+    CollectionExerciseUpdateEvent event =
+        read(collectionExerciseTemplate, CollectionExerciseUpdateEvent.class);
+    event.getHeader().setMessageId(UUID.randomUUID());
+    CollectionExerciseUpdate collectionExercise = event.getPayload().getCollectionExerciseUpdate();
+    collectionExercise.setCollectionExerciseId(collectionExerciseId);
+    collectionExercise.setSurveyId(surveyId);
+    return event;
+  }
+
+  /**
+   * Make an update event for a case.
+   *
+   * @param i - the index of the case.
+   * @return the event.
+   */
+  public CaseEvent caseEvent(int i) {
+    return caseEvent(i, 0);
+  }
+
+  /**
+   * Make an update event for one version of a case.
+   *
+   * @param i - the index of the case.
+   * @param version - the version of the case, held in its sample.
+   * @return the event.
+   */
+  public CaseEvent caseEvent(int i, int version) {
+    CaseEvent event = read(caseTemplate, CaseEvent.class);
+    event.getHeader().setMessageId(UUID.randomUUID());
+    event.getHeader().setDateTime(new Date());
+    CaseUpdate caseUpdate = event.getPayload().getCaseUpdate();
+    caseUpdate.setCaseId(caseIds.get(i));
+    caseUpdate.setSurveyId(surveyId);
+    caseUpdate.setCollectionExerciseId(collectionExerciseId);
+    caseUpdate.setRefusalReceived(null);
+    caseUpdate.getSample().put("uprn", String.valueOf(100000000L + i));
+    caseUpdate.getSample().put(VERSION_ATTRIBUTE, String.valueOf(version));
+    return event;
+  }
+
+  /**
+   * Make an update event for the UAC of a case.
+   *
+   * @param i - the index of the case.
+   * @return the event.
+   */
+  public UacEvent uacEvent(int i) {
+    UacEvent event = read(uacTemplate, UacEvent.class);
+    event.getHeader().setMessageId(UUID.randomUUID());
+    event.getHeader().setDateTime(new Date());
+    UacUpdate uac = event.getPayload().getUacUpdate();
+    uac.setCaseId(caseIds.get(i));
+    uac.setSurveyId(surveyId);
+    uac.setCollectionExerciseId(collectionExerciseId);
+    uac.setUacHash(uacHashes.get(i));
+    uac.setQid(String.valueOf(1110000000L + i));
+    uac.setEqLaunched(false);
+    return event;
+  }
+
+  private static String hash(String value) {
+    return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+  }
+
+  private <T> T read(byte[] template, Class<T> type) {
+    try {
+      return mapper.readValue(template, type);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static byte[] fixture(String name) {
+    try (InputStream in = RespondentData.class.getResourceAsStream(FIXTURES + name)) {
+      if (in == null) {
+        throw new IllegalArgumentException("No fixture " + name);
+      }
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
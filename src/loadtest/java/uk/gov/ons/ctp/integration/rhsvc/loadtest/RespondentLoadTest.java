@@ -0,0 +1,156 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.GenericMessage;
+import uk.gov.ons.ctp.integration.rhsvc.loadtest.EndpointStats.Summary;
+
+/**
+ * Drives the traffic of synthetic respondents at RH while inbound events are received. Reports the
+ * throughput, latency percentiles and error rates of each endpoint, to the log and to the load-test
+ * result file.
+ */
+@Slf4j
+public class RespondentLoadTest extends LoadTestBase {
+  private static final int LOADING_THREADS = 32;
+
+  @LocalServerPort private int port;
+
+  @Autowired
+  @Qualifier("acceptSurveyUpdateEvent")
+  private MessageChannel surveyChannel;
+
+  @Autowired
+  @Qualifier("acceptCollectionExerciseEvent")
+  private MessageChannel collectionExerciseChannel;
+
+  @Autowired
+  @Qualifier("acceptCaseEvent")
+  private MessageChannel caseChannel;
+
+  @Autowired
+  @Qualifier("acceptUACEvent")
+  private MessageChannel uacChannel;
+
+  @Test
+  public void shouldReportRespondentThroughput() throws Exception {
+    RespondentData data = new RespondentData(properties.getCases());
+    load(data);
+
+    TrafficDriver driver = new TrafficDriver(properties, data, port);
+    InboundEventLoad events =
+        new InboundEventLoad(
+            data, caseChannel, uacChannel, properties.getEventRate(), properties.getSeed());
+    if (properties.getEventRate() > 0) {
+      Thread thread = new Thread(events, "inbound-event-load");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    Map<Action, EndpointStats> stats;
+    Duration elapsed;
+    try {
+      log.info("Warming up", kv("warmUp", properties.getWarmUp()));
+      driver.run(properties.getWarmUp(), properties.getSeed());
+      log.info("Running load test", kv("duration", properties.getDuration()));
+      long start = System.nanoTime();
+      stats = driver.run(properties.getDuration(), properties.getSeed() + 1);
+      elapsed = Duration.ofNanos(System.nanoTime() - start);
+    } finally {
+      events.stop();
+    }
+
+    List<Summary> summaries = new ArrayList<>();
+    stats.forEach((action, s) -> summaries.add(s.summarise(action.getEndpoint(), elapsed)));
+    report(summaries, events);
+    assertTrue(summaries.stream().mapToInt(Summary::getRequests).sum() > 0);
+  }
+
+  /** Load the survey, collection exercise, cases and UACs through the inbound channels. */
+  private void load(RespondentData data) throws Exception {
+    long start = System.nanoTime();
+    surveyChannel.send(new GenericMessage<>(data.surveyEvent()));
+    collectionExerciseChannel.send(new GenericMessage<>(data.collectionExerciseEvent()));
+
+    ExecutorService loaders = Executors.newFixedThreadPool(LOADING_THREADS);
+    try {
+      List<Future<?>> loaded = new ArrayList<>();
+      for (int i = 0; i < data.size(); i++) {
+        int index = i;
+        loaded.add(
+            loaders.submit(
+                () -> {
+                  caseChannel.send(new GenericMessage<>(data.caseEvent(index)));
+                  uacChannel.send(new GenericMessage<>(data.uacEvent(index)));
+                }));
+      }
+      for (Future<?> future : loaded) {
+        future.get();
+      }
+    } finally {
+      loaders.shutdownNow();
+    }
+    log.info(
+        "Loaded synthetic respondents",
+        kv("cases", data.size()),
+        kv("millis", Duration.ofNanos(System.nanoTime() - start).toMillis()));
+  }
+
+  private void report(List<Summary> summaries, InboundEventLoad events) throws Exception {
+    StringBuilder table = new StringBuilder();
+    table.append(
+        String.format(
+            "%n%-40s %8s %9s %8s %8s %8s %8s %8s %7s %7s%n",
+            "endpoint",
+            "requests",
+            "req/s",
+            "p50 ms",
+            "p90 ms",
+            "p95 ms",
+            "p99 ms",
+            "max ms",
+            "4xx",
+            "errors"));
+    for (Summary s : summaries) {
+      table.append(
+          String.format(
+              "%-40s %8d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f %6.2f%% %6.2f%%%n",
+              s.getEndpoint(),
+              s.getRequests(),
+              s.getThroughput(),
+              s.getP50Millis(),
+              s.getP90Millis(),
+              s.getP95Millis(),
+              s.getP99Millis(),
+              s.getMaxMillis(),
+              s.getClientErrorRate() * 100,
+              s.getErrorRate() * 100));
+    }
+    table.append(
+        String.format(
+            "inbound events sent: %d, failed: %d", events.getSent(), events.getFailed()));
+    log.info("Load test results{}", table);
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("settings", properties);
+    result.put("endpoints", summaries);
+    result.put("inboundEventsSent", events.getSent());
+    result.put("inboundEventsFailed", events.getFailed());
+    writeResult(properties.getResultFile(), result);
+  }
+}
@@ -0,0 +1,52 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Local stand-ins for the services RH calls, which answer every call after a fixed latency. They
+ * do not record their calls, so that a long run does not fill the heap.
+ */
+public final class StandIns {
+
+  private StandIns() {}
+
+  /**
+   * Create a stand-in which answers every call with an empty value, such as null or false.
+   *
+   * @param <T> - the type of the service.
+   * @param type - the class of the service.
+   * @param latency - how long each call takes.
+   * @return the stand-in.
+   */
+  public static <T> T standIn(Class<T> type, Duration latency) {
+    return standIn(type, latency, Answers.RETURNS_DEFAULTS);
+  }
+
+  /**
+   * Create a stand-in which answers every call as given.
+   *
+   * @param <T> - the type of the service.
+   * @param type - the class of the service.
+   * @param latency - how long each call takes.
+   * @param answer - the answer to each call, once the latency has passed.
+   * @return the stand-in.
+   */
+  public static <T> T standIn(Class<T> type, Duration latency, Answer<?> answer) {
+    long nanos = latency.toNanos();
+    return Mockito.mock(
+        type,
+        withSettings()
+            .stubOnly()
+            .defaultAnswer(
+                invocation -> {
+                  TimeUnit.NANOSECONDS.sleep(nanos);
+                  return answer.answer(invocation);
+                }));
+  }
+}
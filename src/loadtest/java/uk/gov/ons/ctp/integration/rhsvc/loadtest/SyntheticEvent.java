@@ -0,0 +1,16 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import lombok.Value;
+
+/** One delivery of a generated inbound event. */
+@Value
+public class SyntheticEvent {
+  InboundEventType type;
+  Object event;
+
+  /** Whether this is a second delivery of an event, with the same message id. */
+  boolean duplicate;
+
+  /** Whether the event is delivered after some of the events generated after it. */
+  boolean late;
+}
@@ -0,0 +1,170 @@
+package uk.gov.ons.ctp.integration.rhsvc.loadtest;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore;
+
+/**
+ * Drives the traffic of the synthetic respondents at the service. Each respondent repeatedly picks
+ * an action from the weighted mix and makes its request, waiting for the response before the next.
+ * A share of the claims, launches and fulfilments are made with unknown codes or cases.
+ *
+ * <p>Latency is measured from sending each request. When a target rate is set, requests are paced
+ * before they are sent, so the latencies leave out any wait caused by the service falling behind
+ * the target rate.
+ */
+@Slf4j
+public class TrafficDriver {
+  private static final String WEBFORM =
+      "{\"category\":\"COMPLAINT\",\"region\":\"E\",\"language\":\"EN\","
+          + "\"name\":\"Bill Bloggs\",\"description\":\"Computer says no\","
+          + "\"email\":\"bb@example.com\",\"clientIP\":\"%s\"}";
+  private static final String FULFILMENT =
+      "{\"caseId\":\"%s\",\"forename\":\"Ethel\",\"surname\":\"Brown\","
+          + "\"fulfilmentCodes\":[\"REPLACEMENT_UAC\"],\"clientIP\":\"%s\"}";
+
+  private final LoadTestProperties properties;
+  private final RespondentData data;
+  private final String baseUrl;
+  private final HttpClient client;
+  private final List<Action> weightedActions = new ArrayList<>();
+
+  public TrafficDriver(LoadTestProperties properties, RespondentData data, int port) {
+    this.properties = properties;
+    this.data = data;
+    this.baseUrl = "http://localhost:" + port;
+    this.client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    properties
+        .getMix()
+        .forEach(
+            (action, weight) -> {
+              for (int i = 0; i < weight; i++) {
+                weightedActions.add(action);
+              }
+            });
+    if (weightedActions.isEmpty()) {
+      throw new IllegalArgumentException("load-test.mix has no actions");
+    }
+  }
+
+  /**
+   * Make requests for a period.
+   *
+   * @param period - how long to make requests for.
+   * @param seed - seed for the choices of the respondents.
+   * @return the statistics of each action.
+   * @throws InterruptedException - if interrupted while waiting for the respondents.
+   */
+  public Map<Action, EndpointStats> run(Duration period, long seed) throws InterruptedException {
+    Map<Action, EndpointStats> stats = new EnumMap<>(Action.class);
+    for (Action action : Action.values()) {
+      stats.put(action, new EndpointStats());
+    }
+    RateLimiter pacing =
+        properties.getTargetRate() > 0 ? RateLimiter.create(properties.getTargetRate()) : null;
+    long endAt = System.nanoTime() + period.toNanos();
+
+    ExecutorService respondents = Executors.newFixedThreadPool(properties.getRespondents());
+    for (int i = 0; i < properties.getRespondents(); i++) {
+      Random random = new Random(seed * 31 + i);
+      respondents.execute(
+          () -> {
+            while (System.nanoTime() < endAt && !Thread.currentThread().isInterrupted()) {
+              if (pacing != null) {
+                pacing.acquire();
+              }
+              Action action = weightedActions.get(random.nextInt(weightedActions.size()));
+              send(request(action, random), stats.get(action));
+            }
+          });
+    }
+    respondents.shutdown();
+    if (!respondents.awaitTermination(period.toMillis() + 60000, TimeUnit.MILLISECONDS)) {
+      respondents.shutdownNow();
+    }
+    return stats;
+  }
+
+  private void send(HttpRequest request, EndpointStats stats) {
+    long start = System.nanoTime();
+    int status;
+    try {
+      status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    } catch (IOException e) {
+      log.debug("No response", e);
+      status = EndpointStats.NO_RESPONSE;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    stats.record(System.nanoTime() - start, status);
+  }
+
+  private HttpRequest request(Action action, Random random) {
+    int i = random.nextInt(data.size());
+    boolean invalid = random.nextDouble() < properties.getInvalidRatio();
+    String uacHash = invalid ? data.unknownUacHash(random.nextLong()) : data.getUacHash(i);
+    String clientIp = clientIp(random);
+
+    switch (action) {
+      case CLAIM:
+        return get("/uacs/" + uacHash);
+      case LAUNCH:
+        return get(
+            "/uacs/"
+                + uacHash
+                + "/launch?languageCode=en&accountServiceUrl=http://localhost/start"
+                + "&accountServiceLogoutUrl=http://localhost/signed-out&clientIP="
+                + clientIp);
+      case SURVEY_READ:
+        return get(random.nextBoolean() ? "/surveys" : "/surveys/" + data.getSurveyId());
+      case FULFILMENT:
+        String caseId = invalid ? UUID.randomUUID().toString() : data.getCaseId(i);
+        return post(
+            "/cases/" + caseId + "/fulfilment/post", String.format(FULFILMENT, caseId, clientIp));
+      case WEBFORM:
+        return post("/webform", String.format(WEBFORM, clientIp));
+      default:
+        throw new IllegalArgumentException("Unknown action " + action);
+    }
+  }
+
+  private String clientIp(Random random) {
+    return "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(Duration.ofSeconds(30))
+        .GET()
+        .build();
+  }
+
+  private HttpRequest post(String path, String json) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(Duration.ofSeconds(30))
+        .header("Content-Type", "application/json")
+        .header(IdempotencyStore.HEADER, UUID.randomUUID().toString())
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+}
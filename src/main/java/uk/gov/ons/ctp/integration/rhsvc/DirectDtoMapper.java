@@ -0,0 +1,153 @@
+package uk.gov.ons.ctp.integration.rhsvc;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
+import uk.gov.ons.ctp.common.event.model.SurveyFulfilment;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CollectionExerciseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.ProductDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyLiteDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
+
+/**
+ * Maps to DTOs with plain getters and setters, giving the same DTOs as the Orika mappings of
+ * {@link RHSvcBeanMapper} without reflection or generated classes. As with Orika, maps and lists
+ * are copied, so the DTOs do not share them with cached model objects.
+ */
+public class DirectDtoMapper implements DtoMapper {
+
+  @Override
+  public CaseDTO toCaseDTO(CaseUpdate caseUpdate) {
+    if (caseUpdate == null) {
+      return null;
+    }
+    CaseDTO dto = new CaseDTO();
+    dto.setCaseId(toUUID(caseUpdate.getCaseId()));
+    dto.setSurveyId(toUUID(caseUpdate.getSurveyId()));
+    dto.setCollectionExerciseId(toUUID(caseUpdate.getCollectionExerciseId()));
+    dto.setInvalid(caseUpdate.isInvalid());
+    dto.setRefusalReceived(asString(caseUpdate.getRefusalReceived()));
+    dto.setCaseRef(caseUpdate.getCaseRef());
+    dto.setSample(copy(caseUpdate.getSample()));
+    dto.setSampleSensitive(copy(caseUpdate.getSampleSensitive()));
+    return dto;
+  }
+
+  @Override
+  public UACContextDTO toUACContextDTO(UacUpdate uacUpdate) {
+    if (uacUpdate == null) {
+      return null;
+    }
+    UACContextDTO dto = new UACContextDTO();
+    dto.setUacHash(uacUpdate.getUacHash());
+    dto.setCollectionInstrumentUrl(uacUpdate.getCollectionInstrumentUrl());
+    dto.setActive(uacUpdate.isActive());
+    dto.setQid(uacUpdate.getQid());
+    dto.setReceiptReceived(uacUpdate.isReceiptReceived());
+    dto.setEqLaunched(uacUpdate.isEqLaunched());
+    var metadata = uacUpdate.getMetadata();
+    if (metadata != null) {
+      dto.setWave(toInt(metadata.getWave()));
+    }
+    return dto;
+  }
+
+  @Override
+  public CollectionExerciseDTO toCollectionExerciseDTO(
+      CollectionExerciseUpdate collectionExercise) {
+    if (collectionExercise == null) {
+      return null;
+    }
+    CollectionExerciseDTO dto = new CollectionExerciseDTO();
+    dto.setCollectionExerciseId(toUUID(collectionExercise.getCollectionExerciseId()));
+    dto.setSurveyId(toUUID(collectionExercise.getSurveyId()));
+    dto.setName(collectionExercise.getName());
+    dto.setReference(collectionExercise.getReference());
+    dto.setStartDate(toLocalDateTime(collectionExercise.getStartDate()));
+    dto.setEndDate(toLocalDateTime(collectionExercise.getEndDate()));
+    var metadata = collectionExercise.getMetadata();
+    if (metadata != null) {
+      dto.setNumberOfWaves(toInt(metadata.getNumberOfWaves()));
+      dto.setWaveLength(toInt(metadata.getWaveLength()));
+      dto.setCohorts(toInt(metadata.getCohorts()));
+      dto.setCohortSchedule(toInt(metadata.getCohortSchedule()));
+    }
+    return dto;
+  }
+
+  @Override
+  public SurveyLiteDTO toSurveyLiteDTO(SurveyUpdate surveyUpdate) {
+    if (surveyUpdate == null) {
+      return null;
+    }
+    SurveyLiteDTO dto = new SurveyLiteDTO();
+    dto.setSurveyId(toUUID(surveyUpdate.getSurveyId()));
+    dto.setName(surveyUpdate.getName());
+    return dto;
+  }
+
+  @Override
+  public SurveyDTO toSurveyDTO(SurveyUpdate surveyUpdate) {
+    if (surveyUpdate == null) {
+      return null;
+    }
+    SurveyDTO dto = new SurveyDTO();
+    dto.setSurveyId(toUUID(surveyUpdate.getSurveyId()));
+    dto.setName(surveyUpdate.getName());
+    return dto;
+  }
+
+  @Override
+  public ProductDTO toProductDTO(SurveyFulfilment fulfilment) {
+    if (fulfilment == null) {
+      return null;
+    }
+    ProductDTO dto = new ProductDTO();
+    dto.setPackCode(fulfilment.getPackCode());
+    dto.setDescription(fulfilment.getDescription());
+    dto.setMetadata(copyMetadata(fulfilment.getMetadata()));
+    return dto;
+  }
+
+  private static UUID toUUID(String value) {
+    return value == null ? null : UUID.fromString(value);
+  }
+
+  private static String asString(Object value) {
+    return value == null ? null : value.toString();
+  }
+
+  private static int toInt(Number value) {
+    return value == null ? 0 : value.intValue();
+  }
+
+  private static LocalDateTime toLocalDateTime(Date date) {
+    return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC);
+  }
+
+  private static Map<String, String> copy(Map<String, String> map) {
+    return map == null ? null : new HashMap<>(map);
+  }
+
+  private static Map<String, Object> copyMetadata(Map<String, ?> metadata) {
+    if (metadata == null) {
+      return null;
+    }
+    Map<String, Object> copy = new HashMap<>(metadata.size() * 2);
+    metadata.forEach(
+        (key, value) ->
+            copy.put(key, value instanceof List ? new ArrayList<>((List<?>) value) : value));
+    return copy;
+  }
+}
@@ -0,0 +1,60 @@
+package uk.gov.ons.ctp.integration.rhsvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
+import uk.gov.ons.ctp.common.event.model.SurveyFulfilment;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CollectionExerciseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.ProductDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyLiteDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
+
+/**
+ * Maps the event model types held in Firestore to the DTOs returned by the endpoints. The
+ * implementation is chosen by the dto-mapper.implementation property.
+ */
+public interface DtoMapper {
+
+  CaseDTO toCaseDTO(CaseUpdate caseUpdate);
+
+  default List<CaseDTO> toCaseDTOs(List<CaseUpdate> caseUpdates) {
+    List<CaseDTO> caseDTOs = new ArrayList<>(caseUpdates.size());
+    for (CaseUpdate caseUpdate : caseUpdates) {
+      caseDTOs.add(toCaseDTO(caseUpdate));
+    }
+    return caseDTOs;
+  }
+
+  /**
+   * Map a UAC, without the case, collection exercise and survey it belongs to.
+   *
+   * @param uacUpdate - the UAC.
+   * @return the UAC context.
+   */
+  UACContextDTO toUACContextDTO(UacUpdate uacUpdate);
+
+  CollectionExerciseDTO toCollectionExerciseDTO(CollectionExerciseUpdate collectionExercise);
+
+  SurveyLiteDTO toSurveyLiteDTO(SurveyUpdate surveyUpdate);
+
+  /**
+   * Map a survey, without its fulfilments or survey type.
+   *
+   * @param surveyUpdate - the survey.
+   * @return the survey.
+   */
+  SurveyDTO toSurveyDTO(SurveyUpdate surveyUpdate);
+
+  /**
+   * Map a survey fulfilment, without its product group or delivery channel.
+   *
+   * @param fulfilment - the survey fulfilment.
+   * @return the product.
+   */
+  ProductDTO toProductDTO(SurveyFulfilment fulfilment);
+}
@@ -0,0 +1,60 @@
+package uk.gov.ons.ctp.integration.rhsvc;
+
+import java.util.List;
+import ma.glasnost.orika.MapperFacade;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
+import uk.gov.ons.ctp.common.event.model.SurveyFulfilment;
+import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CollectionExerciseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.ProductDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyLiteDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
+
+/** Maps to DTOs with the Orika mappings of {@link RHSvcBeanMapper}. */
+public class OrikaDtoMapper implements DtoMapper {
+  private final MapperFacade mapperFacade;
+
+  public OrikaDtoMapper(MapperFacade mapperFacade) {
+    this.mapperFacade = mapperFacade;
+  }
+
+  @Override
+  public CaseDTO toCaseDTO(CaseUpdate caseUpdate) {
+    return mapperFacade.map(caseUpdate, CaseDTO.class);
+  }
+
+  @Override
+  public List<CaseDTO> toCaseDTOs(List<CaseUpdate> caseUpdates) {
+    return mapperFacade.mapAsList(caseUpdates, CaseDTO.class);
+  }
+
+  @Override
+  public UACContextDTO toUACContextDTO(UacUpdate uacUpdate) {
+    return mapperFacade.map(uacUpdate, UACContextDTO.class);
+  }
+
+  @Override
+  public CollectionExerciseDTO toCollectionExerciseDTO(
+      CollectionExerciseUpdate collectionExercise) {
+    return mapperFacade.map(collectionExercise, CollectionExerciseDTO.class);
+  }
+
+  @Override
+  public SurveyLiteDTO toSurveyLiteDTO(SurveyUpdate surveyUpdate) {
+    return mapperFacade.map(surveyUpdate, SurveyLiteDTO.class);
+  }
+
+  @Override
+  public SurveyDTO toSurveyDTO(SurveyUpdate surveyUpdate) {
+    return mapperFacade.map(surveyUpdate, SurveyDTO.class);
+  }
+
+  @Override
+  public ProductDTO toProductDTO(SurveyFulfilment fulfilment) {
+    return mapperFacade.map(fulfilment, ProductDTO.class);
+  }
+}
@@ -37,6 +37,7 @@ import uk.gov.ons.ctp.common.rest.RestClientConfig;
 import uk.gov.ons.ctp.integration.eqlaunch.service.EqLaunchService;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.DtoMapperConfig;
 import uk.gov.service.notify.NotificationClient;
 import uk.gov.service.notify.NotificationClientApi;
 
@@ -138,6 +139,23 @@ public class RHSvcApplication {
     return new CustomObjectMapper();
   }
 
+  /**
+   * The mapper from event model types to DTOs. The Orika mapper can be selected to compare it with
+   * the direct mapper.
+   *
+   * @param beanMapper the Orika mapper.
+   * @return the configured DTO mapper.
+   */
+  @Bean
+  public DtoMapper dtoMapper(RHSvcBeanMapper beanMapper) {
+    DtoMapperConfig config = appConfig.getDtoMapper();
+    if (config != null && config.getImplementation() == DtoMapperConfig.Implementation.ORIKA) {
+      log.info("Using Orika DTO mapper");
+      return new OrikaDtoMapper(beanMapper);
+    }
+    return new DirectDtoMapper();
+  }
+
   /**
    * Bean to allow CC service to call the eqlauncher.
    *
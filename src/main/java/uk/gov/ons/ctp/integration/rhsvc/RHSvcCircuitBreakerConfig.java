@@ -12,8 +12,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import uk.gov.ons.ctp.common.config.CustomCircuitBreakerConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.BulkheadConfig;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
 
-/** Configuration for all circuit breakers used in RHSvc. */
+/** Configuration for all circuit breakers and bulkheads used in RHSvc. */
 @Slf4j
 @Configuration
 public class RHSvcCircuitBreakerConfig {
@@ -60,6 +62,34 @@ public class RHSvcCircuitBreakerConfig {
     return circuitBreakerFactory.create("rateLimiterCircuitBreaker");
   }
 
+  @Bean("firestoreBulkhead")
+  public Bulkhead firestoreBulkhead(AppConfig appConfig) {
+    return createBulkhead("firestore", appConfig.getFirestoreBulkhead());
+  }
+
+  @Bean("envoyLimiterBulkhead")
+  public Bulkhead envoyLimiterBulkhead(AppConfig appConfig) {
+    return createBulkhead("envoyLimiter", appConfig.getEnvoyLimiterBulkhead());
+  }
+
+  @Bean("notifyBulkhead")
+  public Bulkhead notifyBulkhead(AppConfig appConfig) {
+    return createBulkhead("notify", appConfig.getNotifyBulkhead());
+  }
+
+  @Bean("eventPublisherBulkhead")
+  public Bulkhead eventPublisherBulkhead(AppConfig appConfig) {
+    return createBulkhead("eventPublisher", appConfig.getEventPublisherBulkhead());
+  }
+
+  private Bulkhead createBulkhead(String name, BulkheadConfig config) {
+    if (config == null) {
+      config = new BulkheadConfig();
+    }
+    log.info("{} bulkhead configuration: {}", name, config);
+    return new Bulkhead(name, config);
+  }
+
   private Resilience4JCircuitBreakerFactory createCbFactory(CustomCircuitBreakerConfig config) {
     Customizer<Resilience4JCircuitBreakerFactory> customiser =
         config.defaultCircuitBreakerCustomiser();
@@ -0,0 +1,25 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class AdaptiveLimitConfig {
+  @Min(1)
+  private int initialLimit = 20;
+
+  @Min(1)
+  private int minLimit = 2;
+
+  @Min(1)
+  private int maxLimit = 40;
+
+  private Duration latencyThreshold = Duration.ofMillis(1000);
+
+  @DecimalMin("0.5")
+  @DecimalMax("1.0")
+  private double backoffRatio = 0.9;
+}
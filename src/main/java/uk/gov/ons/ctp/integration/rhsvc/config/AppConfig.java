@@ -23,11 +23,31 @@ public class AppConfig {
   private CustomCircuitBreakerConfig eventPublisherCircuitBreaker;
   private CustomCircuitBreakerConfig envoyLimiterCircuitBreaker;
   private CustomCircuitBreakerConfig webformCircuitBreaker;
+  private BulkheadConfig firestoreBulkhead;
+  private BulkheadConfig envoyLimiterBulkhead;
+  private BulkheadConfig notifyBulkhead;
+  private BulkheadConfig eventPublisherBulkhead;
   private RateLimiterConfig rateLimiter;
+  private LocalRateLimitConfig localRateLimit;
   private EqConfig eq;
   private NotifyConfig notify;
   private WebformConfig webform;
+  private WebformQueueConfig webformQueue;
   private LoadsheddingConfig loadshedding;
+  private ConcurrencyLimitConfig concurrencyLimit;
+  private LaunchDataCacheConfig launchDataCache;
+  private CaseSearchConfig caseSearch;
+  private SampleIndexConfig sampleIndex;
+  private SchoolIndexConfig schoolIndex;
+  private ReferenceDataCacheConfig referenceDataCache;
+  private RequestDeadlineConfig requestDeadline;
+  private ReadRetryConfig readRetry;
+  private HedgedReadConfig hedgedRead;
+  private FanOutConfig fanOut;
+  private IdempotencyConfig idempotency;
+  private DtoMapperConfig dtoMapper;
+  private InMemoryDataStoreConfig inMemoryDataStore;
+  private EndpointMetricsConfig endpointMetrics;
   private Set<String> surveys;
   private KeyStore keystore;
 }
@@ -0,0 +1,15 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class BulkheadConfig {
+  private boolean enabled = true;
+
+  @Min(1)
+  private int maxConcurrentCalls = 10;
+
+  private Duration maxWait = Duration.ZERO;
+}
@@ -0,0 +1,17 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+/** Settings shared by the in-process indexes which are built from case data. */
+@Data
+public class CaseIndexConfig {
+  private boolean enabled;
+
+  /** interval between full rebuilds from Firestore, or null to only build at startup */
+  private Duration rebuildInterval;
+
+  @Min(1)
+  private int rebuildPageSize = 500;
+}
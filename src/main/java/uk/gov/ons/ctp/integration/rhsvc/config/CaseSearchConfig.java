@@ -0,0 +1,16 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class CaseSearchConfig {
+  @Min(1)
+  private int defaultPageSize = 50;
+
+  @Min(1)
+  private int maxPageSize = 500;
+
+  @Min(1)
+  private int streamPageSize = 200;
+}
@@ -0,0 +1,17 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+
+@Data
+public class ConcurrencyLimitConfig {
+  private boolean enabled;
+  private int rejectionStatus = 503;
+  private AdaptiveLimitConfig defaults = new AdaptiveLimitConfig();
+  private Map<String, AdaptiveLimitConfig> groups = new HashMap<>();
+
+  public AdaptiveLimitConfig forGroup(String group) {
+    return groups.getOrDefault(group, defaults);
+  }
+}
@@ -0,0 +1,14 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import lombok.Data;
+
+@Data
+public class DtoMapperConfig {
+  /** How event model types are mapped to DTOs. */
+  public enum Implementation {
+    DIRECT,
+    ORIKA
+  }
+
+  private Implementation implementation = Implementation.DIRECT;
+}
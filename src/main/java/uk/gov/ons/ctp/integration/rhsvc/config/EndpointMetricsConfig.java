@@ -0,0 +1,39 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Data;
+
+@Data
+public class EndpointMetricsConfig {
+  private boolean enabled = true;
+  private boolean percentileHistogram = true;
+  private List<Double> percentiles = List.of(0.5, 0.95, 0.99);
+  private List<Duration> slo =
+      List.of(
+          Duration.ofMillis(100),
+          Duration.ofMillis(250),
+          Duration.ofMillis(500),
+          Duration.ofSeconds(1),
+          Duration.ofSeconds(3));
+  private Duration minimumExpectedValue = Duration.ofMillis(1);
+  private Duration maximumExpectedValue = Duration.ofSeconds(10);
+  private Set<String> excludedUris = Set.of("/health", "/info");
+  private Map<String, EndpointTimerConfig> uris = new HashMap<>();
+
+  public EndpointTimerConfig forUri(String uri) {
+    EndpointTimerConfig override = uris.getOrDefault(uri, new EndpointTimerConfig());
+    EndpointTimerConfig timer = new EndpointTimerConfig();
+    timer.setPercentileHistogram(
+        override.getPercentileHistogram() == null
+            ? percentileHistogram
+            : override.getPercentileHistogram());
+    timer.setPercentiles(
+        override.getPercentiles() == null ? percentiles : override.getPercentiles());
+    timer.setSlo(override.getSlo() == null ? slo : override.getSlo());
+    return timer;
+  }
+}
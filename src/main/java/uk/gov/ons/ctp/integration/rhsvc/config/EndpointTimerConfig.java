@@ -0,0 +1,16 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Distribution statistics of the request timer of one REST endpoint. Any left unset are taken from
+ * the defaults of {@link EndpointMetricsConfig}.
+ */
+@Data
+public class EndpointTimerConfig {
+  private Boolean percentileHistogram;
+  private List<Double> percentiles;
+  private List<Duration> slo;
+}
@@ -0,0 +1,13 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class FanOutConfig {
+  @Min(1)
+  private int threads = 16;
+
+  @Min(1)
+  private int queueSize = 100;
+}
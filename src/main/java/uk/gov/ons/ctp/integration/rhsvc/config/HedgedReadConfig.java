@@ -0,0 +1,29 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class HedgedReadConfig {
+  private boolean enabled;
+
+  @DecimalMin("0.5")
+  @DecimalMax("0.999")
+  private double delayPercentile = 0.95;
+
+  private Duration initialDelay = Duration.ofMillis(50);
+  private Duration minDelay = Duration.ofMillis(10);
+
+  @Min(10)
+  private int windowSize = 1000;
+
+  @DecimalMin("0.0")
+  @DecimalMax("1.0")
+  private double maxHedgeRatio = 0.05;
+
+  @Min(1)
+  private int maxHedgeBurst = 10;
+}
@@ -0,0 +1,15 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class IdempotencyConfig {
+  private boolean enabled;
+
+  private Duration timeToLive = Duration.ofMinutes(10);
+
+  @Min(1)
+  private long maximumKeys = 10000;
+}
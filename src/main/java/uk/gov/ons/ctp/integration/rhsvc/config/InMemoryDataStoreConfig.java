@@ -0,0 +1,16 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import lombok.Data;
+
+@Data
+public class InMemoryDataStoreConfig {
+  /**
+   * Seed for the injected latencies and errors, or null for unrepeatable ones. A seeded store
+   * counts the operations on each key, so that each key sees the same draws in every run.
+   */
+  private Long seed;
+
+  private InjectedFaultConfig read = new InjectedFaultConfig();
+  private InjectedFaultConfig write = new InjectedFaultConfig();
+  private InjectedFaultConfig query = new InjectedFaultConfig();
+}
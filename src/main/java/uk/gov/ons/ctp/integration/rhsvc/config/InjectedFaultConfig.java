@@ -0,0 +1,36 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import lombok.Data;
+
+@Data
+public class InjectedFaultConfig {
+  /** How the injected latency is distributed. */
+  public enum Distribution {
+    NONE,
+    FIXED,
+    UNIFORM,
+    EXPONENTIAL,
+    LOG_NORMAL
+  }
+
+  private Distribution distribution = Distribution.NONE;
+
+  /**
+   * The latency if fixed, the mean latency if uniform or exponential, or the median latency if
+   * log-normal.
+   */
+  private Duration latency = Duration.ZERO;
+
+  /** The standard deviation of the log of a log-normal latency. */
+  @DecimalMin("0.0")
+  private double sigma = 0.5;
+
+  private Duration maxLatency = Duration.ofSeconds(10);
+
+  @DecimalMin("0.0")
+  @DecimalMax("1.0")
+  private double errorRate;
+}
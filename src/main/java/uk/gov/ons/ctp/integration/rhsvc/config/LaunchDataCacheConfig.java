@@ -0,0 +1,14 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class LaunchDataCacheConfig {
+  private boolean enabled;
+  private Duration timeToLive = Duration.ofSeconds(60);
+
+  @Min(1)
+  private long maximumSize = 10000;
+}
@@ -1,5 +1,6 @@
 package uk.gov.ons.ctp.integration.rhsvc.config;
 
+import java.time.Duration;
 import javax.validation.constraints.Min;
 import lombok.Data;
 
@@ -8,4 +9,6 @@ public class LoadsheddingConfig {
 
   @Min(1)
   private int modulus;
+
+  private Duration localSheddingPeriod = Duration.ofSeconds(10);
 }
@@ -0,0 +1,16 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class LocalRateLimitConfig {
+  private boolean enabled;
+
+  @Min(1)
+  private long maximumKeys = 100000;
+
+  private Map<String, TokenBucketConfig> limits = new HashMap<>();
+}
@@ -0,0 +1,18 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class ReadRetryConfig {
+  private Duration initialBackoff = Duration.ofMillis(50);
+  private Duration maxBackoff = Duration.ofSeconds(1);
+
+  @DecimalMin("1.0")
+  private double multiplier = 2.0;
+
+  @Min(1)
+  private int maxAttempts = 5;
+}
@@ -0,0 +1,25 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class ReferenceDataCacheConfig {
+  private boolean enabled;
+
+  /** how long a copy is served without reading the datastore */
+  private Duration freshFor = Duration.ofSeconds(60);
+
+  /** how long a copy may be served while it is refreshed in the background */
+  private Duration staleFor = Duration.ofMinutes(10);
+
+  /** how long to wait for a read of an older copy before serving the copy anyway */
+  private Duration loadTimeout = Duration.ofMillis(500);
+
+  @Min(1)
+  private int refreshThreads = 2;
+
+  @Min(1)
+  private int refreshQueueSize = 100;
+}
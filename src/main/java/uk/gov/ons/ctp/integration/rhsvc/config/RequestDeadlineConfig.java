@@ -0,0 +1,17 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+
+@Data
+public class RequestDeadlineConfig {
+  private boolean enabled;
+  private Duration timeout = Duration.ofSeconds(3);
+  private Map<String, Duration> groups = new HashMap<>();
+
+  public Duration forGroup(String group) {
+    return groups.getOrDefault(group, timeout);
+  }
+}
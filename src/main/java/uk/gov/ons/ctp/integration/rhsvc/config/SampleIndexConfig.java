@@ -0,0 +1,19 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.util.Set;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class SampleIndexConfig extends CaseIndexConfig {
+  private Set<String> attributes = Set.of();
+
+  /**
+   * true only where every pod receives every case event, eg through a subscription of its own.
+   * Otherwise the index is missing the cases received by other pods, and cannot answer searches.
+   */
+  private boolean completeEventFeed;
+}
@@ -0,0 +1,20 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import javax.validation.constraints.Min;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class SchoolIndexConfig extends CaseIndexConfig {
+  @Min(1)
+  private int minPrefixLength = 2;
+
+  @Min(1)
+  private int defaultLimit = 10;
+
+  @Min(1)
+  private int maxLimit = 50;
+}
@@ -0,0 +1,14 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class TokenBucketConfig {
+  @Min(1)
+  private int capacity = 100;
+
+  /** Time taken to refill an empty bucket. */
+  private Duration refillPeriod = Duration.ofHours(1);
+}
@@ -0,0 +1,62 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadlineInterceptor;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.AdaptiveConcurrencyLimiter;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.ConcurrencyLimitInterceptor;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.EndpointGroup;
+
+/** Registers the interceptors applied to the REST endpoints. */
+@Slf4j
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+  @Autowired private AppConfig appConfig;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    RequestDeadlineConfig deadlineConfig = appConfig.getRequestDeadline();
+    if (deadlineConfig != null && deadlineConfig.isEnabled()) {
+      log.info("Request deadline for REST endpoints: {}", deadlineConfig.getTimeout());
+      registry.addInterceptor(new RequestDeadlineInterceptor(deadlineConfig.getTimeout()));
+      // registered after the default, so that a group's deadline replaces it
+      for (EndpointGroup group : EndpointGroup.values()) {
+        if (deadlineConfig.getGroups().containsKey(group.getGroupName())) {
+          Duration timeout = deadlineConfig.forGroup(group.getGroupName());
+          log.info("Request deadline for {} endpoints: {}", group.getGroupName(), timeout);
+          registry
+              .addInterceptor(new RequestDeadlineInterceptor(timeout))
+              .addPathPatterns(group.getPathPatterns())
+              .excludePathPatterns(group.getExcludePathPatterns());
+        }
+      }
+    } else {
+      log.info("Request deadlines for REST endpoints are disabled");
+    }
+
+    ConcurrencyLimitConfig limitConfig = appConfig.getConcurrencyLimit();
+    if (limitConfig != null && limitConfig.isEnabled()) {
+      HttpStatus rejectionStatus = HttpStatus.valueOf(limitConfig.getRejectionStatus());
+      for (EndpointGroup group : EndpointGroup.values()) {
+        AdaptiveLimitConfig groupConfig = limitConfig.forGroup(group.getGroupName());
+        log.info("Concurrency limit for {} endpoints: {}", group.getGroupName(), groupConfig);
+        AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(group.getGroupName(), groupConfig);
+        registry
+            .addInterceptor(
+                new ConcurrencyLimitInterceptor(limiter, rejectionStatus, meterRegistry))
+            .addPathPatterns(group.getPathPatterns())
+            .excludePathPatterns(group.getExcludePathPatterns());
+      }
+    } else {
+      log.info("Concurrency limiting of REST endpoints is disabled");
+    }
+  }
+}
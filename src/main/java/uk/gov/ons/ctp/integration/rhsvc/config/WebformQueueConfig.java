@@ -0,0 +1,24 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import java.time.Duration;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class WebformQueueConfig {
+  private boolean enabled;
+
+  @Min(1)
+  private int capacity = 500;
+
+  @DecimalMin("0.1")
+  private double sendRate = 5.0;
+
+  @Min(1)
+  private int maxAttempts = 10;
+
+  private Duration initialBackoff = Duration.ofSeconds(5);
+  private Duration maxBackoff = Duration.ofMinutes(5);
+  private Duration recoverAfter = Duration.ofMinutes(10);
+}
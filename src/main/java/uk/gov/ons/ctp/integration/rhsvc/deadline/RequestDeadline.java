@@ -0,0 +1,86 @@
+package uk.gov.ons.ctp.integration.rhsvc.deadline;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import java.time.Duration;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The deadline by which the REST request being handled by the current thread should complete.
+ * Work done on behalf of the request, such as retrying a failed read, should not be started once
+ * the deadline has passed, as the caller will have given up waiting for the response.
+ *
+ * <p>The deadline is held per thread, and so is only visible to work done on the request thread.
+ * Threads which are not handling a REST request, eg those processing inbound events, have no
+ * deadline.
+ */
+@Slf4j
+public final class RequestDeadline {
+  private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+  private RequestDeadline() {}
+
+  /**
+   * Start the deadline for the request being handled by the current thread.
+   *
+   * @param timeout - the time from now by which the request should complete.
+   */
+  public static void start(Duration timeout) {
+    DEADLINE_NANOS.set(System.nanoTime() + timeout.toNanos());
+  }
+
+  /** Remove the deadline from the current thread, once its request has been handled. */
+  public static void clear() {
+    DEADLINE_NANOS.remove();
+  }
+
+  /**
+   * Whether the current thread is handling a request with a deadline.
+   *
+   * @return true if there is a deadline.
+   */
+  public static boolean isSet() {
+    return DEADLINE_NANOS.get() != null;
+  }
+
+  /**
+   * The time left until the deadline of the current request.
+   *
+   * @return the time left, which is zero or negative once the deadline has passed, or empty if the
+   *     current thread has no deadline.
+   */
+  public static Optional<Duration> remaining() {
+    Long deadlineNanos = DEADLINE_NANOS.get();
+    if (deadlineNanos == null) {
+      return Optional.empty();
+    }
+    return Optional.of(Duration.ofNanos(deadlineNanos - System.nanoTime()));
+  }
+
+  /**
+   * Whether the deadline of the current request has passed.
+   *
+   * @return true if there is a deadline and it has passed.
+   */
+  public static boolean isExpired() {
+    return remaining().map(r -> r.isNegative() || r.isZero()).orElse(false);
+  }
+
+  /**
+   * Abandon the current request if its deadline has passed, rather than start work whose result
+   * nobody is waiting for.
+   *
+   * @param work - description of the work about to be started, for logging.
+   * @throws ResponseStatusException - with status 503, if the deadline has passed.
+   */
+  public static void check(String work) {
+    if (isExpired()) {
+      log.warn("Request deadline passed, abandoning request", kv("work", work));
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, "Request deadline passed before " + work);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package uk.gov.ons.ctp.integration.rhsvc.deadline;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import java.time.Duration;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Interceptor which starts the {@link RequestDeadline} of each REST request, and removes it once
+ * the request has been handled so that it does not leak to the next request on the same worker
+ * thread.
+ *
+ * <p>The deadline is the configured timeout for the endpoint, shortened to the time the caller is
+ * prepared to wait if it sends that, in milliseconds, in the X-Request-Timeout header.
+ */
+@Slf4j
+public class RequestDeadlineInterceptor implements AsyncHandlerInterceptor {
+  public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+  private final Duration timeout;
+
+  /**
+   * Constructor.
+   *
+   * @param timeout - the time allowed for each request, unless the caller asks for less.
+   */
+  public RequestDeadlineInterceptor(Duration timeout) {
+    this.timeout = timeout;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    Duration requestTimeout =
+        callerTimeout(request).filter(t -> t.compareTo(timeout) < 0).orElse(timeout);
+    RequestDeadline.start(requestTimeout);
+    return true;
+  }
+
+  private Optional<Duration> callerTimeout(HttpServletRequest request) {
+    String header = request.getHeader(TIMEOUT_HEADER);
+    if (header == null) {
+      return Optional.empty();
+    }
+    try {
+      long millis = Long.parseLong(header.trim());
+      if (millis > 0) {
+        return Optional.of(Duration.ofMillis(millis));
+      }
+    } catch (NumberFormatException e) {
+      // fall through to ignore it
+    }
+    log.debug("Ignoring invalid request timeout header", kv("value", header));
+    return Optional.empty();
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    RequestDeadline.clear();
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    RequestDeadline.clear();
+  }
+}
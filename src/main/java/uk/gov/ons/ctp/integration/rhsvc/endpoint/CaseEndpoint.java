@@ -2,23 +2,32 @@ package uk.gov.ons.ctp.integration.rhsvc.endpoint;
 
 import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.gov.ons.ctp.common.error.CTPException;
 import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore;
 import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseSearchPageDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.NewCaseDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.PrintFulfilmentRequestDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.impl.CaseServiceImpl;
@@ -30,6 +39,8 @@ import uk.gov.ons.ctp.integration.rhsvc.service.impl.CaseServiceImpl;
 @RequestMapping(value = "/cases", produces = "application/json")
 public class CaseEndpoint {
   @Autowired private CaseServiceImpl caseService;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private IdempotencyStore idempotencyStore;
 
   /**
    * the GET end point to return latest valid Case which matches the supplied sample attribute
@@ -59,6 +70,88 @@ public class CaseEndpoint {
     return ResponseEntity.ok(result);
   }
 
+  /**
+   * the GET end point to return a page of the valid Cases which match the supplied sample attribute
+   * name/value.
+   *
+   * @param attributeKey - is the name of the field in the sample data to search by.
+   * @param attributeValue - is the value that target case(s) must contain.
+   * @param limit - the maximum number of cases to return; the configured default if not supplied.
+   * @param pageToken - the nextPageToken of the previous page; omitted for the first page.
+   * @return the page of valid cases, with the token for the next page if there are more.
+   * @throws CTPException something went wrong - thrown by case service
+   */
+  @RequestMapping(
+      value = "attribute/{attributeKey}/{attributeValue}/page",
+      method = RequestMethod.GET)
+  public ResponseEntity<CaseSearchPageDTO> findCasePageByAttribute(
+      @PathVariable(value = "attributeKey") final String attributeKey,
+      @PathVariable(value = "attributeValue") final String attributeValue,
+      @RequestParam(value = "limit", required = false) final Integer limit,
+      @RequestParam(value = "pageToken", required = false) final String pageToken)
+      throws CTPException {
+    log.info(
+        "Entering GET findCasePageByAttribute",
+        kv("attributeKey", attributeKey),
+        kv("attributeValue", attributeValue),
+        kv("limit", limit),
+        kv("pageToken", pageToken));
+
+    CaseSearchPageDTO result =
+        caseService.findCasesBySampleAttribute(attributeKey, attributeValue, limit, pageToken);
+    log.debug(
+        "Exit GET findCasePageByAttribute",
+        kv("attributeName", attributeKey),
+        kv("attributeValue", attributeValue));
+    return ResponseEntity.ok(result);
+  }
+
+  /**
+   * the GET end point to stream all valid Cases which match the supplied sample attribute
+   * name/value as newline delimited JSON. The cases are read and written a page at a time, so a
+   * failure part way through ends the response early.
+   *
+   * @param attributeKey - is the name of the field in the sample data to search by.
+   * @param attributeValue - is the value that target case(s) must contain.
+   * @return a body which writes one JSON case per line.
+   */
+  @RequestMapping(
+      value = "attribute/{attributeKey}/{attributeValue}/stream",
+      method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamCasesByAttribute(
+      @PathVariable(value = "attributeKey") final String attributeKey,
+      @PathVariable(value = "attributeValue") final String attributeValue) {
+    log.info(
+        "Entering GET streamCasesByAttribute",
+        kv("attributeKey", attributeKey),
+        kv("attributeValue", attributeValue));
+
+    StreamingResponseBody body =
+        out -> {
+          try {
+            caseService.streamCasesBySampleAttribute(
+                attributeKey, attributeValue, cases -> writeLines(out, cases));
+          } catch (CTPException e) {
+            log.error(
+                "Failed to stream cases",
+                kv("attributeKey", attributeKey),
+                kv("attributeValue", attributeValue),
+                e);
+            throw new IOException("Failed to stream cases", e);
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  private void writeLines(OutputStream out, List<CaseDTO> cases) throws IOException {
+    for (CaseDTO caseDTO : cases) {
+      out.write(objectMapper.writeValueAsBytes(caseDTO));
+      out.write('\n');
+    }
+    out.flush();
+  }
+
   private void validateMatchingCaseId(UUID caseId, UUID dtoCaseId, String dtoName)
       throws CTPException {
     if (!caseId.equals(dtoCaseId)) {
@@ -107,7 +200,8 @@ public class CaseEndpoint {
   @ResponseStatus(value = HttpStatus.OK)
   public void fulfilmentRequestByPost(
       @PathVariable(value = "caseId") final UUID caseId,
-      @Valid @RequestBody PrintFulfilmentRequestDTO requestBodyDTO)
+      @Valid @RequestBody PrintFulfilmentRequestDTO requestBodyDTO,
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey)
       throws CTPException {
     String methodName = "fulfilmentRequestByPost";
     log.info(
@@ -123,13 +217,23 @@ public class CaseEndpoint {
     }
 
     validateMatchingCaseId(caseId, requestBodyDTO.getCaseId(), methodName);
-    caseService.fulfilmentRequestByPost(requestBodyDTO);
+    idempotencyStore.execute(
+        IdempotencyStore.FULFILMENT_POST,
+        idempotencyKey,
+        requestBodyDTO,
+        () -> {
+          caseService.fulfilmentRequestByPost(requestBodyDTO);
+          return null;
+        });
     log.debug("Exit POST {}", methodName, kv("pathParam.caseId", caseId));
   }
 
   @RequestMapping(value = "/new", method = RequestMethod.POST)
   @ResponseStatus(value = HttpStatus.OK)
-  public void newCase(@Valid @RequestBody NewCaseDTO caseRegistrationDTO) throws CTPException {
+  public void newCase(
+      @Valid @RequestBody NewCaseDTO caseRegistrationDTO,
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey)
+      throws CTPException {
     String methodName = "newCaseRegistration";
 
     // Only log non-sensitive fields, as current kv logging doesn't support data fields
@@ -145,7 +249,14 @@ public class CaseEndpoint {
     verifyIsTrue(caseRegistrationDTO.isConsentGivenTest(), "consentGivenTest");
     verifyIsTrue(caseRegistrationDTO.isConsentGivenSurvey(), "consentGivenSurvey");
 
-    caseService.sendNewCaseEvent(caseRegistrationDTO);
+    idempotencyStore.execute(
+        IdempotencyStore.NEW_CASE,
+        idempotencyKey,
+        caseRegistrationDTO,
+        () -> {
+          caseService.sendNewCaseEvent(caseRegistrationDTO);
+          return null;
+        });
 
     log.debug("Exit POST {}", methodName);
   }
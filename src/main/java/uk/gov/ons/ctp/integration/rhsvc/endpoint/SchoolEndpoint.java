@@ -0,0 +1,46 @@
+package uk.gov.ons.ctp.integration.rhsvc.endpoint;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import io.micrometer.core.annotation.Timed;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SchoolDTO;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SchoolServiceImpl;
+
+/** The REST controller for the school typeahead search */
+@Slf4j
+@Timed
+@RestController
+@RequestMapping(value = "/schools", produces = "application/json")
+public class SchoolEndpoint {
+  @Autowired private SchoolServiceImpl schoolService;
+
+  /**
+   * the GET end point to return the schools whose id, or a word of whose name, starts with the
+   * supplied prefix, for the school typeahead of the new case journey.
+   *
+   * @param prefix - the start of the school id or name.
+   * @param limit - the maximum number of schools to return; the configured default if not
+   *     supplied.
+   * @return the matching schools.
+   * @throws CTPException something went wrong - thrown by school service, eg the school index is
+   *     not enabled.
+   */
+  @GetMapping
+  public ResponseEntity<List<SchoolDTO>> findSchools(
+      @RequestParam(value = "prefix") final String prefix,
+      @RequestParam(value = "limit", required = false) final Integer limit)
+      throws CTPException {
+    log.debug("Entering GET schools", kv("prefix", prefix), kv("limit", limit));
+    List<SchoolDTO> result = schoolService.findSchools(prefix, limit);
+    return ResponseEntity.ok(result);
+  }
+}
@@ -3,11 +3,15 @@ package uk.gov.ons.ctp.integration.rhsvc.endpoint;
 import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
 
 import io.micrometer.core.annotation.Timed;
+import java.util.List;
+import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -16,6 +20,8 @@ import uk.gov.ons.ctp.common.domain.Language;
 import uk.gov.ons.ctp.common.error.CTPException;
 import uk.gov.ons.ctp.common.error.CTPException.Fault;
 import uk.gov.ons.ctp.integration.rhsvc.representation.EqLaunchRequestDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextBatchItemDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextBatchRequestDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.impl.UniqueAccessCodeServiceImpl;
 
@@ -46,6 +52,28 @@ public class UniqueAccessCodeEndpoint {
     return ResponseEntity.ok(uacDTO);
   }
 
+  /**
+   * the POST end-point to get RH details for several UACs at once
+   *
+   * @param requestBodyDTO holds the hashed UACs
+   * @return the details for each UAC, in the order requested, or the error preventing them from
+   *     being retrieved
+   * @throws CTPException something went wrong
+   */
+  @PostMapping(value = "/batch")
+  public ResponseEntity<List<UACContextBatchItemDTO>> getUACClaimContexts(
+      @Valid @RequestBody UACContextBatchRequestDTO requestBodyDTO) throws CTPException {
+
+    log.info(
+        "Entering POST getUACClaimContexts", kv("batchSize", requestBodyDTO.getUacHashes().size()));
+    List<UACContextBatchItemDTO> results =
+        uacService.getUACClaimContexts(requestBodyDTO.getUacHashes());
+
+    log.debug("Exit POST getUACClaimContexts");
+
+    return ResponseEntity.ok(results);
+  }
+
   /**
    * The GET end point to build an EQ Launch URL for a case. It also sends a launch event.
    *
@@ -7,11 +7,15 @@ import java.util.UUID;
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore;
+import uk.gov.ons.ctp.integration.rhsvc.representation.WebformAcceptedDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.impl.WebformServiceImpl;
 
@@ -22,11 +26,34 @@ import uk.gov.ons.ctp.integration.rhsvc.service.impl.WebformServiceImpl;
 @RequestMapping(value = "/", produces = "application/json")
 public final class WebformEndpoint {
   @Autowired private WebformServiceImpl webformService;
+  @Autowired private IdempotencyStore idempotencyStore;
 
+  /**
+   * Send a webform to GOV.UK Notify. If webforms are queued then 202 is returned once the webform
+   * has been queued, along with the reference it will be sent with.
+   *
+   * @param webform the webform.
+   * @param idempotencyKey identifies repeats of the same webform, which are not sent again.
+   * @return 200 once the webform has been sent, or 202 with the reference once it has been queued.
+   * @throws CTPException if the webform could not be sent or queued.
+   */
   @RequestMapping(value = "/webform", method = RequestMethod.POST)
-  public void webformCapture(@Valid @RequestBody WebformDTO webform) throws CTPException {
+  public ResponseEntity<WebformAcceptedDTO> webformCapture(
+      @Valid @RequestBody WebformDTO webform,
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey)
+      throws CTPException {
     log.info("Entering POST webformCapture", kv("requestBody", webform));
-    UUID notificationId = webformService.sendWebformEmail(webform);
-    log.info("Exit POST webformCapture", kv("notificationId", notificationId));
+    UUID id =
+        idempotencyStore.execute(
+            IdempotencyStore.WEBFORM,
+            idempotencyKey,
+            webform,
+            () -> webformService.sendWebformEmail(webform));
+    if (webformService.isQueued()) {
+      log.info("Exit POST webformCapture", kv("reference", id));
+      return ResponseEntity.accepted().body(new WebformAcceptedDTO(id));
+    }
+    log.info("Exit POST webformCapture", kv("notificationId", id));
+    return ResponseEntity.ok().build();
   }
 }
@@ -14,6 +14,9 @@ import uk.gov.ons.ctp.common.event.model.CaseEvent;
 import uk.gov.ons.ctp.common.event.model.CaseUpdate;
 import uk.gov.ons.ctp.integration.rhsvc.event.CaseEventReceiver;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.LaunchDataCache;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SampleAttributeIndex;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SchoolIndex;
 
 /**
  * Service implementation responsible for receipt of Case Events. See Spring Integration flow for
@@ -29,6 +32,12 @@ public class CaseEventReceiverImpl implements CaseEventReceiver {
 
   @Autowired private EventFilter eventFilter;
 
+  @Autowired private LaunchDataCache launchDataCache;
+
+  @Autowired private SampleAttributeIndex sampleAttributeIndex;
+
+  @Autowired private SchoolIndex schoolIndex;
+
   /**
    * Message end point for events from Response Management.
    *
@@ -52,6 +61,9 @@ public class CaseEventReceiverImpl implements CaseEventReceiver {
           caseUpdate.getCaseId(),
           caseMessageId)) {
         respondentCaseRepo.writeCaseUpdate(caseUpdate);
+        launchDataCache.evictCase(caseUpdate.getCaseId());
+        sampleAttributeIndex.index(caseUpdate);
+        schoolIndex.index(caseUpdate);
       }
     } catch (CTPException ctpEx) {
       log.error("Case Event processing failed", kv("messageId", caseMessageId), ctpEx);
@@ -14,6 +14,7 @@ import uk.gov.ons.ctp.common.event.model.UacEvent;
 import uk.gov.ons.ctp.common.event.model.UacUpdate;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
 import uk.gov.ons.ctp.integration.rhsvc.repository.UacRepository;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.LaunchDataCache;
 
 /**
  * Service implementation responsible for receipt of UAC Events. See Spring Integration flow for
@@ -28,6 +29,7 @@ public class UACEventReceiverImpl {
   @Autowired private UacRepository respondentUacRepo;
   @Autowired private AppConfig appConfig;
   @Autowired private EventFilter eventFilter;
+  @Autowired private LaunchDataCache launchDataCache;
 
   /**
    * Message end point for events from Response Management. At present sends straight to publisher
@@ -59,6 +61,7 @@ public class UACEventReceiverImpl {
       if (eventFilter.isValidEvent(
           uac.getSurveyId(), uac.getCollectionExerciseId(), uac.getCaseId(), uacMessageId)) {
         respondentUacRepo.writeUAC(uac);
+        launchDataCache.evictUac(uac.getUacHash());
       }
     } catch (CTPException ctpEx) {
       log.error("UAC Event processing failed", kv("uacMessageId", uacMessageId), ctpEx);
@@ -0,0 +1,186 @@
+package uk.gov.ons.ctp.integration.rhsvc.idempotency;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.IdempotencyConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+/**
+ * Recent Idempotency-Key values sent with POST requests, and the outcome of the request each was
+ * first sent with, so that a double click or a retry by the frontend is given that outcome rather
+ * than being processed again.
+ *
+ * <p>Keys are held per endpoint, for timeToLive after they are first seen, up to maximumKeys. A
+ * repeat which arrives while the first request is still being processed waits for it, for no
+ * longer than the deadline of the request. Only successful outcomes are kept, so that a request
+ * which failed may be retried with the same key. A key sent with a different request body is
+ * rejected. Requests without a key are processed as normal.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements MeterBinder {
+  public static final String HEADER = "Idempotency-Key";
+
+  static final String DUPLICATES_METRIC = "rhsvc.idempotency.duplicates";
+
+  public static final String FULFILMENT_POST = "fulfilment-post";
+  public static final String NEW_CASE = "new-case";
+  public static final String WEBFORM = "webform";
+
+  /** The processing of a request. */
+  @FunctionalInterface
+  public interface Call<T> {
+    T call() throws CTPException;
+  }
+
+  private final boolean enabled;
+  private final Cache<String, Outcome> outcomes;
+  private final Map<String, AtomicLong> duplicates = new ConcurrentHashMap<>();
+
+  @Autowired
+  public IdempotencyStore(AppConfig appConfig) {
+    this(appConfig.getIdempotency(), Ticker.systemTicker());
+  }
+
+  IdempotencyStore(IdempotencyConfig config, Ticker ticker) {
+    this.enabled = config != null && config.isEnabled();
+    if (enabled) {
+      log.info("Idempotency keys enabled", kv("config", config));
+      this.outcomes =
+          CacheBuilder.newBuilder()
+              .maximumSize(config.getMaximumKeys())
+              .expireAfterWrite(config.getTimeToLive())
+              .ticker(ticker)
+              .build();
+    } else {
+      this.outcomes = null;
+    }
+    for (String endpoint : new String[] {FULFILMENT_POST, NEW_CASE, WEBFORM}) {
+      duplicates.put(endpoint, new AtomicLong());
+    }
+  }
+
+  /**
+   * Process a request, unless it repeats an earlier request with the same key.
+   *
+   * @param <T> - the type of the outcome.
+   * @param endpoint - the endpoint the request was sent to.
+   * @param key - the Idempotency-Key of the request, or null if it was sent without one.
+   * @param request - the request body, which a repeat must match.
+   * @param call - processes the request.
+   * @return the outcome of the call, or of the earlier request if this is a repeat.
+   * @throws CTPException - thrown by the call, or with fault BAD_REQUEST if the key was sent with
+   *     a different request body.
+   * @throws ResponseStatusException - with status 409, if the earlier request is still being
+   *     processed once the deadline of this request has passed.
+   */
+  public <T> T execute(String endpoint, String key, Object request, Call<T> call)
+      throws CTPException {
+    if (!enabled || key == null || key.isBlank()) {
+      return call.call();
+    }
+    String cacheKey = endpoint + ":" + key;
+    Outcome outcome = new Outcome(request);
+    Outcome earlier = outcomes.asMap().putIfAbsent(cacheKey, outcome);
+    if (earlier != null) {
+      return repeat(endpoint, key, request, earlier);
+    }
+
+    boolean succeeded = false;
+    try {
+      T result = call.call();
+      outcome.result.complete(result);
+      succeeded = true;
+      return result;
+    } catch (CTPException | RuntimeException e) {
+      outcome.result.completeExceptionally(e);
+      throw e;
+    } finally {
+      if (!succeeded) {
+        outcomes.asMap().remove(cacheKey, outcome);
+        outcome.result.cancel(false);
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    duplicates.forEach(
+        (endpoint, count) ->
+            FunctionCounter.builder(DUPLICATES_METRIC, count, AtomicLong::get)
+                .description("Repeated requests given the outcome of the earlier request")
+                .tag("endpoint", endpoint)
+                .register(registry));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T repeat(String endpoint, String key, Object request, Outcome earlier)
+      throws CTPException {
+    if (!Objects.equals(earlier.request, request)) {
+      log.warn("Idempotency key reused for a different request", kv("endpoint", endpoint));
+      throw new CTPException(
+          Fault.BAD_REQUEST, "The " + HEADER + " has already been used for a different request");
+    }
+    log.info("Repeated request", kv("endpoint", endpoint), kv("idempotencyKey", key));
+    duplicates.computeIfAbsent(endpoint, e -> new AtomicLong()).incrementAndGet();
+    try {
+      Optional<Duration> remaining = RequestDeadline.remaining();
+      if (remaining.isPresent()) {
+        return (T) earlier.result.get(remaining.get().toNanos(), TimeUnit.NANOSECONDS);
+      }
+      return (T) earlier.result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof CTPException) {
+        throw (CTPException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new CTPException(Fault.SYSTEM_ERROR, cause, "Earlier request failed");
+    } catch (CancellationException e) {
+      throw new CTPException(Fault.SYSTEM_ERROR, e, "Earlier request failed");
+    } catch (TimeoutException e) {
+      throw new ResponseStatusException(
+          HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CTPException(Fault.SYSTEM_ERROR, e, "Interrupted waiting for earlier request");
+    }
+  }
+
+  /** The request first sent with a key, and its outcome once it has been processed. */
+  private static class Outcome {
+    private final Object request;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    Outcome(Object request) {
+      this.request = request;
+    }
+  }
+}
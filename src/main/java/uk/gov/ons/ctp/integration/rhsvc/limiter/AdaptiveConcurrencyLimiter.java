@@ -0,0 +1,85 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import uk.gov.ons.ctp.integration.rhsvc.config.AdaptiveLimitConfig;
+
+/**
+ * Concurrency limiter using an additive-increase/multiplicative-decrease (AIMD) algorithm.
+ *
+ * <p>The limit grows by one for each request completing within the latency threshold while the
+ * limiter is at least half utilised, and is cut by the backoff ratio whenever a request takes
+ * longer than the threshold. Requests arriving once the in-flight count has reached the limit are
+ * refused rather than queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+  @Getter private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double limit;
+
+  /**
+   * Constructor.
+   *
+   * @param name - name of the limiter, used to identify it in metrics.
+   * @param config - limit settings.
+   */
+  public AdaptiveConcurrencyLimiter(String name, AdaptiveLimitConfig config) {
+    this.name = name;
+    this.minLimit = config.getMinLimit();
+    this.maxLimit = Math.max(config.getMaxLimit(), minLimit);
+    this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+    this.backoffRatio = config.getBackoffRatio();
+    this.limit = Math.min(Math.max(config.getInitialLimit(), minLimit), maxLimit);
+  }
+
+  /**
+   * Attempt to start a request.
+   *
+   * @return true if the request may proceed, in which case {@link #release(long)} must be called
+   *     once it completes; false if the limit has been reached.
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= getLimit()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Record the completion of a request started by a successful {@link #tryAcquire()}.
+   *
+   * @param latencyNanos - time taken to handle the request.
+   */
+  public void release(long latencyNanos) {
+    int inFlightAtCompletion = inFlight.getAndDecrement();
+    adjustLimit(latencyNanos, inFlightAtCompletion);
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void adjustLimit(long latencyNanos, int inFlightAtCompletion) {
+    double newLimit = limit;
+    if (latencyNanos > latencyThresholdNanos) {
+      newLimit = limit * backoffRatio;
+    } else if (inFlightAtCompletion * 2 >= limit) {
+      newLimit = limit + 1;
+    }
+    limit = Math.min(Math.max(newLimit, minLimit), maxLimit);
+  }
+}
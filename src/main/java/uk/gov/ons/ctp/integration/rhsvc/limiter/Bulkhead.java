@@ -0,0 +1,151 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.integration.rhsvc.config.BulkheadConfig;
+
+/**
+ * Semaphore bulkhead capping the number of concurrent calls to a downstream dependency, so that a
+ * slow dependency can tie up only its share of the request threads rather than all of them. A call
+ * made while the bulkhead is full waits up to the configured maximum for a permit, and is then
+ * rejected with a 503.
+ *
+ * <p>The calls in flight, the limit, the saturation (calls in flight as a fraction of the limit)
+ * and the rejections are published tagged with the bulkhead name.
+ */
+@Slf4j
+public class Bulkhead implements MeterBinder {
+
+  /** A call to the dependency. */
+  @FunctionalInterface
+  public interface Call<T, E extends Exception> {
+    T call() throws E;
+  }
+
+  /** A call to the dependency which returns nothing. */
+  @FunctionalInterface
+  public interface Action<E extends Exception> {
+    void run() throws E;
+  }
+
+  @Getter private final String name;
+  private final boolean enabled;
+  private final int maxConcurrentCalls;
+  private final long maxWaitNanos;
+  private final Semaphore permits;
+  private final AtomicLong rejections = new AtomicLong();
+
+  /**
+   * Constructor.
+   *
+   * @param name - name of the dependency, used to identify the bulkhead in metrics.
+   * @param config - bulkhead settings.
+   */
+  public Bulkhead(String name, BulkheadConfig config) {
+    this.name = name;
+    this.enabled = config.isEnabled();
+    this.maxConcurrentCalls = config.getMaxConcurrentCalls();
+    this.maxWaitNanos = config.getMaxWait().toNanos();
+    this.permits = new Semaphore(maxConcurrentCalls);
+  }
+
+  /**
+   * Make a call to the dependency, if the bulkhead has room for it.
+   *
+   * @param <T> - the type returned by the call.
+   * @param <E> - the type of exception thrown by the call.
+   * @param call - the call.
+   * @return the result of the call.
+   * @throws E - if the call fails.
+   * @throws ResponseStatusException - with status 503, if the bulkhead is full.
+   */
+  public <T, E extends Exception> T execute(Call<T, E> call) throws E {
+    if (!enabled) {
+      return call.call();
+    }
+    acquire();
+    try {
+      return call.call();
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Make a call to the dependency, if the bulkhead has room for it.
+   *
+   * @param <E> - the type of exception thrown by the call.
+   * @param action - the call.
+   * @throws E - if the call fails.
+   * @throws ResponseStatusException - with status 503, if the bulkhead is full.
+   */
+  public <E extends Exception> void run(Action<E> action) throws E {
+    execute(
+        () -> {
+          action.run();
+          return null;
+        });
+  }
+
+  /**
+   * The number of calls currently being made through the bulkhead.
+   *
+   * @return the calls in flight.
+   */
+  public int getInFlight() {
+    return maxConcurrentCalls - permits.availablePermits();
+  }
+
+  /**
+   * The calls currently being made through the bulkhead as a fraction of the limit.
+   *
+   * @return the saturation, from 0 to 1.
+   */
+  public double getSaturation() {
+    return (double) getInFlight() / maxConcurrentCalls;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("rhsvc.bulkhead.inflight", this, Bulkhead::getInFlight)
+        .tag("bulkhead", name)
+        .register(registry);
+    Gauge.builder("rhsvc.bulkhead.limit", this, b -> b.maxConcurrentCalls)
+        .tag("bulkhead", name)
+        .register(registry);
+    Gauge.builder("rhsvc.bulkhead.saturation", this, Bulkhead::getSaturation)
+        .tag("bulkhead", name)
+        .register(registry);
+    FunctionCounter.builder("rhsvc.bulkhead.rejected", rejections, AtomicLong::get)
+        .tag("bulkhead", name)
+        .register(registry);
+  }
+
+  private void acquire() {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      rejections.incrementAndGet();
+      log.warn(
+          "Bulkhead full, rejecting call", kv("bulkhead", name), kv("limit", maxConcurrentCalls));
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent calls to " + name);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Interceptor applying an {@link AdaptiveConcurrencyLimiter} to a group of endpoints. Requests in
+ * excess of the current limit are rejected before reaching the endpoint, so that they do not hold
+ * an Undertow worker while waiting on slow downstream calls.
+ */
+@Slf4j
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+  private static final String START_TIME_ATTRIBUTE_PREFIX = "concurrencyLimit.startTime.";
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final HttpStatus rejectionStatus;
+  private final String startTimeAttribute;
+  private final Counter rejections;
+
+  /**
+   * Constructor.
+   *
+   * @param limiter - the limiter for the endpoint group.
+   * @param rejectionStatus - HTTP status returned for rejected requests.
+   * @param meterRegistry - registry for the limit and rejection metrics.
+   */
+  public ConcurrencyLimitInterceptor(
+      AdaptiveConcurrencyLimiter limiter, HttpStatus rejectionStatus, MeterRegistry meterRegistry) {
+    this.limiter = limiter;
+    this.rejectionStatus = rejectionStatus;
+    this.startTimeAttribute = START_TIME_ATTRIBUTE_PREFIX + limiter.getName();
+
+    Gauge.builder("rhsvc.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+        .tag("group", limiter.getName())
+        .register(meterRegistry);
+    Gauge.builder("rhsvc.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+        .tag("group", limiter.getName())
+        .register(meterRegistry);
+    this.rejections =
+        Counter.builder("rhsvc.concurrency.rejected")
+            .tag("group", limiter.getName())
+            .register(meterRegistry);
+  }
+
+  /**
+   * The name of the endpoint group limited.
+   *
+   * @return the group name.
+   */
+  public String getGroupName() {
+    return limiter.getName();
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!limiter.tryAcquire()) {
+      rejections.increment();
+      log.warn(
+          "Concurrency limit reached, rejecting request",
+          kv("group", limiter.getName()),
+          kv("limit", limiter.getLimit()),
+          kv("uri", request.getRequestURI()));
+      throw new ResponseStatusException(rejectionStatus, "Service busy, please retry later");
+    }
+    request.setAttribute(startTimeAttribute, System.nanoTime());
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    Object startTime = request.getAttribute(startTimeAttribute);
+    if (startTime != null) {
+      request.removeAttribute(startTimeAttribute);
+      limiter.release(System.nanoTime() - (Long) startTime);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Groups of REST endpoints which share a concurrency limit. */
+@Getter
+@AllArgsConstructor
+public enum EndpointGroup {
+  // batch claims are much slower than single claims, so are limited apart from them
+  CLAIM("claim", List.of("/uacs/*"), List.of("/uacs/batch")),
+  CLAIM_BATCH("claim-batch", List.of("/uacs/batch"), List.of()),
+  LAUNCH("launch", List.of("/uacs/*/launch"), List.of()),
+  FULFILMENT("fulfilment", List.of("/cases/*/fulfilment/**"), List.of()),
+  WEBFORM("webform", List.of("/webform"), List.of()),
+  SURVEYS("surveys", List.of("/surveys", "/surveys/*"), List.of());
+
+  private final String groupName;
+  private final List<String> pathPatterns;
+  private final List<String> excludePathPatterns;
+}
@@ -0,0 +1,183 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.domain.Product;
+import uk.gov.ons.ctp.common.domain.UniquePropertyReferenceNumber;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.LocalRateLimitConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.TokenBucketConfig;
+
+/**
+ * In-process token buckets checked before the remote envoy limiter, so that callers which are
+ * obviously over a limit are rejected with a 429 without a call to it. The limits are intended to
+ * be looser than those of the envoy limiter, which remains the authority for the global limits,
+ * as each instance only sees its own share of the traffic. So they are only checked while the
+ * envoy limiter is enabled.
+ *
+ * <p>Each configured limit keeps one bucket per key, eg per IP address. A bucket holds up to
+ * capacity tokens and refills at capacity tokens per refill period. A bucket left idle for a full
+ * refill period would be full again, so is dropped, as are the least recently used buckets once
+ * there are more than maximumKeys. Limits which are not configured are not checked.
+ */
+@Slf4j
+@Component
+public class LocalRateLimiter implements MeterBinder {
+  static final String REJECTED_METRIC = "rhsvc.ratelimit.local.rejected";
+
+  public static final String WEBFORM_IP = "webform-ip";
+  public static final String EQ_LAUNCH_IP = "eq-launch-ip";
+  public static final String FULFILMENT_IP = "fulfilment-ip";
+  public static final String FULFILMENT_UPRN = "fulfilment-uprn";
+
+  private final boolean enabled;
+  private final Ticker ticker;
+  private final Map<String, Limit> limits = new HashMap<>();
+
+  @Autowired
+  public LocalRateLimiter(AppConfig appConfig) {
+    this(appConfig.getLocalRateLimit(), Ticker.systemTicker());
+  }
+
+  LocalRateLimiter(LocalRateLimitConfig config, Ticker ticker) {
+    this.enabled = config != null && config.isEnabled();
+    this.ticker = ticker;
+    if (enabled) {
+      log.info("Local rate limiter enabled", kv("config", config));
+      config
+          .getLimits()
+          .forEach((name, limit) -> limits.put(name, new Limit(limit, config.getMaximumKeys())));
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Check the webform limit for an IP address.
+   *
+   * @param ipAddress - the IP address of the caller.
+   * @throws ResponseStatusException - with status 429, if the limit has been reached.
+   */
+  public void checkWebform(String ipAddress) {
+    check(WEBFORM_IP, ipAddress);
+  }
+
+  /**
+   * Check the EQ launch limit for an IP address.
+   *
+   * @param ipAddress - the IP address of the caller.
+   * @throws ResponseStatusException - with status 429, if the limit has been reached.
+   */
+  public void checkEqLaunch(String ipAddress) {
+    check(EQ_LAUNCH_IP, ipAddress);
+  }
+
+  /**
+   * Check the fulfilment limits for a product, for both the IP address and the UPRN.
+   *
+   * @param product - the product requested.
+   * @param ipAddress - the IP address of the caller.
+   * @param uprn - the UPRN of the case the product is requested for.
+   * @throws ResponseStatusException - with status 429, if either limit has been reached.
+   */
+  public void checkFulfilment(
+      Product product, String ipAddress, UniquePropertyReferenceNumber uprn) {
+    String code = product.getFulfilmentCode();
+    if (ipAddress != null) {
+      check(FULFILMENT_IP, code + ":" + ipAddress);
+    }
+    if (uprn != null) {
+      check(FULFILMENT_UPRN, code + ":" + uprn.getValue());
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    limits.forEach(
+        (name, limit) ->
+            FunctionCounter.builder(REJECTED_METRIC, limit.rejections, AtomicLong::get)
+                .description("Requests rejected by the local rate limiter")
+                .tag("limit", name)
+                .register(registry));
+  }
+
+  private void check(String name, String key) {
+    Limit limit = limits.get(name);
+    if (limit == null || key == null) {
+      return;
+    }
+    if (!limit.bucket(key).tryConsume(ticker.read())) {
+      // counted rather than logged at info, as a client over its limit may be rejected many times
+      limit.rejections.incrementAndGet();
+      log.debug("Rejected by local rate limiter", kv("limit", name), kv("key", key));
+      throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+    }
+  }
+
+  /** The buckets for one limit. */
+  private class Limit {
+    private final TokenBucketConfig config;
+    private final Cache<String, TokenBucket> buckets;
+    private final AtomicLong rejections = new AtomicLong();
+
+    Limit(TokenBucketConfig config, long maximumKeys) {
+      this.config = config;
+      this.buckets =
+          CacheBuilder.newBuilder()
+              .maximumSize(maximumKeys)
+              .expireAfterAccess(config.getRefillPeriod())
+              .ticker(ticker)
+              .build();
+    }
+
+    TokenBucket bucket(String key) {
+      try {
+        return buckets.get(key, () -> new TokenBucket(config, ticker.read()));
+      } catch (ExecutionException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  /** Tokens available to one key, refilled continuously. */
+  static class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(TokenBucketConfig config, long now) {
+      this.capacity = config.getCapacity();
+      this.tokensPerNano = capacity / config.getRefillPeriod().toNanos();
+      this.tokens = capacity;
+      this.refilledAt = now;
+    }
+
+    synchronized boolean tryConsume(long now) {
+      tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+      refilledAt = now;
+      if (tokens < 1) {
+        return false;
+      }
+      tokens -= 1;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package uk.gov.ons.ctp.integration.rhsvc.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.EndpointMetricsConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.EndpointTimerConfig;
+
+/**
+ * Publishes percentiles, a percentile histogram and SLO buckets for the request timer of each REST
+ * endpoint, so that p99 regressions and SLO burn can be alerted on per endpoint. The statistics are
+ * configured by endpoint-metrics, with overrides for single endpoints keyed by their uri tag, and
+ * replace those of the {@code @Timed} annotation of the endpoint.
+ */
+@Slf4j
+@Component
+public class EndpointTimerFilter implements MeterFilter {
+  static final String REQUESTS_METRIC = "http.server.requests";
+
+  private final EndpointMetricsConfig config;
+
+  @Autowired
+  public EndpointTimerFilter(AppConfig appConfig) {
+    this(appConfig.getEndpointMetrics());
+  }
+
+  EndpointTimerFilter(EndpointMetricsConfig config) {
+    this.config = config == null ? new EndpointMetricsConfig() : config;
+    log.info("Endpoint timer distribution statistics: {}", this.config);
+  }
+
+  @Override
+  public DistributionStatisticConfig configure(
+      Meter.Id id, DistributionStatisticConfig distributionConfig) {
+    String uri = id.getTag("uri");
+    if (!config.isEnabled()
+        || !REQUESTS_METRIC.equals(id.getName())
+        || uri == null
+        || config.getExcludedUris().contains(uri)) {
+      return distributionConfig;
+    }
+    EndpointTimerConfig timer = config.forUri(uri);
+    return DistributionStatisticConfig.builder()
+        .percentilesHistogram(timer.getPercentileHistogram())
+        .percentiles(timer.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray())
+        .serviceLevelObjectives(
+            timer.getSlo().stream().mapToDouble(d -> (double) d.toNanos()).toArray())
+        .minimumExpectedValue(nanos(config.getMinimumExpectedValue()))
+        .maximumExpectedValue(nanos(config.getMaximumExpectedValue()))
+        .build()
+        .merge(distributionConfig);
+  }
+
+  private static double nanos(Duration duration) {
+    return duration.toNanos();
+  }
+}
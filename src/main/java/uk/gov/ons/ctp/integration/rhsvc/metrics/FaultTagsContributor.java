@@ -0,0 +1,72 @@
+package uk.gov.ons.ctp.integration.rhsvc.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+import uk.gov.ons.ctp.common.error.CTPException;
+
+/**
+ * Tags the request timers of the REST endpoints with the fault of the CTPException which failed the
+ * request, alongside the outcome tag, so that failures can be told apart by their cause.
+ *
+ * <p>Exceptions thrown by the endpoints are turned into responses by the exception handler of the
+ * common library, after which they are not passed to the tags contributors. So this is also the
+ * first exception resolver, and notes each exception on its request, resolving none of them.
+ */
+@Component
+public class FaultTagsContributor
+    implements WebMvcTagsContributor, HandlerExceptionResolver, Ordered {
+  static final String FAULT_TAG = "fault";
+  static final String NONE = "NONE";
+  static final String OTHER = "OTHER";
+
+  private static final String EXCEPTION_ATTRIBUTE =
+      FaultTagsContributor.class.getName() + ".exception";
+
+  @Override
+  public ModelAndView resolveException(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    request.setAttribute(EXCEPTION_ATTRIBUTE, ex);
+    return null;
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  @Override
+  public Iterable<Tag> getTags(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Object handler,
+      Throwable exception) {
+    if (exception == null) {
+      exception = (Throwable) request.getAttribute(EXCEPTION_ATTRIBUTE);
+    }
+    return Tags.of(FAULT_TAG, fault(exception));
+  }
+
+  @Override
+  public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+    return Tags.empty();
+  }
+
+  private static String fault(Throwable exception) {
+    if (exception == null) {
+      return NONE;
+    }
+    for (Throwable t = exception; t != null; t = t.getCause()) {
+      if (t instanceof CTPException) {
+        return ((CTPException) t).getFault().name();
+      }
+    }
+    return OTHER;
+  }
+}
@@ -1,8 +1,11 @@
 package uk.gov.ons.ctp.integration.rhsvc.repository;
 
+import com.google.cloud.firestore.FieldPath;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,6 +18,8 @@ import uk.gov.ons.ctp.common.event.model.CaseUpdate;
 @Service
 public class CaseRepository {
   private RetryableCloudDataStore retryableCloudDataStore;
+  private DeadlineAwareReader deadlineAwareReader;
+  private RepositoryMetrics repositoryMetrics;
 
   @Value("${spring.cloud.gcp.firestore.project-id}")
   private String gcpProject;
@@ -25,6 +30,7 @@ public class CaseRepository {
   String caseSchema;
 
   private static final String SEARCH_SAMPLE_PATH = "sample";
+  private static final String INVALID_FIELD = "invalid";
 
   @PostConstruct
   public void init() {
@@ -32,8 +38,13 @@ public class CaseRepository {
   }
 
   @Autowired
-  public CaseRepository(RetryableCloudDataStore retryableCloudDataStore) {
+  public CaseRepository(
+      RetryableCloudDataStore retryableCloudDataStore,
+      DeadlineAwareReader deadlineAwareReader,
+      RepositoryMetrics repositoryMetrics) {
     this.retryableCloudDataStore = retryableCloudDataStore;
+    this.deadlineAwareReader = deadlineAwareReader;
+    this.repositoryMetrics = repositoryMetrics;
   }
 
   /**
@@ -44,7 +55,11 @@ public class CaseRepository {
    */
   public void writeCaseUpdate(final CaseUpdate caseUpdate) throws CTPException {
     String id = caseUpdate.getCaseId();
-    retryableCloudDataStore.storeObject(caseSchema, id, caseUpdate, id);
+    repositoryMetrics.write(
+        caseSchema,
+        "write",
+        caseUpdate,
+        () -> retryableCloudDataStore.storeObject(caseSchema, id, caseUpdate, id));
   }
 
   /**
@@ -55,7 +70,44 @@ public class CaseRepository {
    * @throws CTPException - if a cloud exception was detected.
    */
   public Optional<CaseUpdate> readCaseUpdate(final String caseId) throws CTPException {
-    return retryableCloudDataStore.retrieveObject(CaseUpdate.class, caseSchema, caseId);
+    return repositoryMetrics.read(
+        caseSchema,
+        "read",
+        () -> deadlineAwareReader.retrieveObject(CaseUpdate.class, caseSchema, caseId));
+  }
+
+  /**
+   * Read several cases from cloud in a single round trip.
+   *
+   * @param caseIds - the ids of the cases to read
+   * @return - map from id to the deserialised version of each stored object found
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public Map<String, CaseUpdate> readCaseUpdates(final Collection<String> caseIds)
+      throws CTPException {
+    return repositoryMetrics.readMany(
+        caseSchema,
+        "readMany",
+        () -> deadlineAwareReader.retrieveObjects(CaseUpdate.class, caseSchema, caseIds));
+  }
+
+  /**
+   * Read one page of all of the stored cases, in order of caseId.
+   *
+   * @param limit - the maximum number of cases to read.
+   * @param startAfterCaseId - the caseId of the last case of the previous page, or null for the
+   *     first page.
+   * @return - the page of cases.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public QueryPage<CaseUpdate> readCaseUpdatePage(int limit, String startAfterCaseId)
+      throws CTPException {
+    return repositoryMetrics.readMany(
+        caseSchema,
+        "readPage",
+        () ->
+            deadlineAwareReader.searchPage(
+                CaseUpdate.class, caseSchema, Map.of(), limit, startAfterCaseId));
   }
 
   /**
@@ -72,26 +124,81 @@ public class CaseRepository {
   public List<CaseUpdate> findCaseUpdatesBySampleAttribute(
       final String searchAttributeName, final String searchValue, boolean onlyValid)
       throws CTPException {
+    return findCaseUpdatesBySampleAttribute(searchAttributeName, searchValue, onlyValid, null);
+  }
 
-    String[] searchPath = {SEARCH_SAMPLE_PATH, searchAttributeName};
+  /**
+   * Searches for case update objects from cloud based on an attribute name/value, in order of
+   * caseId. Filter optionally whether the case is valid. The filtering is done by the query, so
+   * invalid cases are never read.
+   *
+   * @param searchAttributeName - is the name of the field in the sample data to search by.
+   * @param searchValue - is the value that target case(s) must contain.
+   * @param onlyValid - true if only valid cases to be returned; false if we don't care
+   * @param limit - the maximum number of cases to return, or null for all of them.
+   * @return - a List containing the deserialised version of the matching stored objects. If no
+   *     matching cases are found then the list will be empty.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public List<CaseUpdate> findCaseUpdatesBySampleAttribute(
+      final String searchAttributeName,
+      final String searchValue,
+      boolean onlyValid,
+      Integer limit)
+      throws CTPException {
+    Map<FieldPath, Object> conditions =
+        searchConditions(searchAttributeName, searchValue, onlyValid);
+    return repositoryMetrics.readMany(
+        caseSchema,
+        "search",
+        () -> deadlineAwareReader.search(CaseUpdate.class, caseSchema, conditions, limit));
+  }
 
-    List<CaseUpdate> searchResults =
-        retryableCloudDataStore.search(CaseUpdate.class, caseSchema, searchPath, searchValue);
-    return filterValidCaseUpdateSearchResults(searchResults, onlyValid);
+  /**
+   * Searches for one page of case update objects based on an attribute name/value, in order of
+   * caseId. Filter optionally whether the case is valid.
+   *
+   * @param searchAttributeName - is the name of the field in the sample data to search by.
+   * @param searchValue - is the value that target case(s) must contain.
+   * @param onlyValid - true if only valid cases to be returned; false if we don't care
+   * @param limit - the maximum number of cases to read.
+   * @param startAfterCaseId - the caseId of the last case of the previous page, or null for the
+   *     first page.
+   * @return - the page of matching cases.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public QueryPage<CaseUpdate> findCaseUpdatesBySampleAttribute(
+      final String searchAttributeName,
+      final String searchValue,
+      boolean onlyValid,
+      int limit,
+      String startAfterCaseId)
+      throws CTPException {
+    Map<FieldPath, Object> conditions =
+        searchConditions(searchAttributeName, searchValue, onlyValid);
+    return repositoryMetrics.readMany(
+        caseSchema,
+        "searchPage",
+        () ->
+            deadlineAwareReader.searchPage(
+                CaseUpdate.class, caseSchema, conditions, limit, startAfterCaseId));
   }
 
   /**
-   * Filter search results returning valid case
+   * Build the conditions for a search by sample attribute.
    *
-   * @param searchResults - Search results found in dataStore by searching by sample attribute
-   *     name/value.
+   * @param searchAttributeName - is the name of the field in the sample data to search by.
+   * @param searchValue - is the value that target case(s) must contain.
    * @param onlyValid - true if only valid cases to be returned; false if we don't care
-   * @return List of the cases after filtering. List will be empty if there are no resulting cases.
+   * @return map from field path to the value it must hold.
    */
-  private List<CaseUpdate> filterValidCaseUpdateSearchResults(
-      final List<CaseUpdate> searchResults, boolean onlyValid) {
-    return searchResults.stream()
-        .filter(c -> !onlyValid || !c.isInvalid())
-        .collect(Collectors.toList());
+  static Map<FieldPath, Object> searchConditions(
+      final String searchAttributeName, final String searchValue, boolean onlyValid) {
+    Map<FieldPath, Object> conditions = new LinkedHashMap<>();
+    conditions.put(FieldPath.of(SEARCH_SAMPLE_PATH, searchAttributeName), searchValue);
+    if (onlyValid) {
+      conditions.put(FieldPath.of(INVALID_FIELD), false);
+    }
+    return conditions;
   }
 }
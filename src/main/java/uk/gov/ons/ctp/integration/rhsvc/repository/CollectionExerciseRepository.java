@@ -1,5 +1,7 @@
 package uk.gov.ons.ctp.integration.rhsvc.repository;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,11 @@ import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
 @Service
 public class CollectionExerciseRepository {
   private RetryableCloudDataStore retryableCloudDataStore;
+  private FirestoreReader firestoreReader;
+  private DeadlineAwareReader deadlineAwareReader;
+  private ReferenceDataCaches referenceDataCaches;
+  private RepositoryMetrics repositoryMetrics;
+  private StaleWhileRevalidateCache<CollectionExerciseUpdate> collectionExerciseCache;
 
   @Value("${spring.cloud.gcp.firestore.project-id}")
   private String gcpProject;
@@ -25,24 +32,55 @@ public class CollectionExerciseRepository {
   @PostConstruct
   public void init() {
     collectionExerciseSchema = gcpProject + "-" + collectionExerciseSchemaName.toLowerCase();
+    collectionExerciseCache =
+        referenceDataCaches.create("collectionExercise", this::loadCollectionExercise);
   }
 
   @Autowired
-  public CollectionExerciseRepository(RetryableCloudDataStore retryableCloudDataStore) {
+  public CollectionExerciseRepository(
+      RetryableCloudDataStore retryableCloudDataStore,
+      FirestoreReader firestoreReader,
+      DeadlineAwareReader deadlineAwareReader,
+      ReferenceDataCaches referenceDataCaches,
+      RepositoryMetrics repositoryMetrics) {
     this.retryableCloudDataStore = retryableCloudDataStore;
+    this.firestoreReader = firestoreReader;
+    this.deadlineAwareReader = deadlineAwareReader;
+    this.referenceDataCaches = referenceDataCaches;
+    this.repositoryMetrics = repositoryMetrics;
   }
 
   /**
-   * Read a CollectionExercise object from cloud.
+   * Read a CollectionExercise object, from the reference data cache if it holds a usable copy.
    *
    * @param collectionExerciseId - the unique id of the object stored
    * @return - deserialised version of the stored object
-   * @throws CTPException - if a cloud exception was detected.
+   * @throws CTPException - if a cloud exception was detected and there was no copy to serve.
    */
   public Optional<CollectionExerciseUpdate> readCollectionExercise(
       final String collectionExerciseId) throws CTPException {
-    return retryableCloudDataStore.retrieveObject(
-        CollectionExerciseUpdate.class, collectionExerciseSchema, collectionExerciseId);
+    return collectionExerciseCache.get(collectionExerciseId);
+  }
+
+  /**
+   * Read several collection exercises, reading those without a usable cached copy from cloud in a
+   * single round trip.
+   *
+   * @param collectionExerciseIds - the ids of the collection exercises to read
+   * @return - map from id to the deserialised version of each stored object found
+   * @throws CTPException - if a cloud exception was detected and there were no copies to serve.
+   */
+  public Map<String, CollectionExerciseUpdate> readCollectionExercises(
+      final Collection<String> collectionExerciseIds) throws CTPException {
+    return collectionExerciseCache.getAll(
+        collectionExerciseIds,
+        ids ->
+            repositoryMetrics.readMany(
+                collectionExerciseSchema,
+                "readMany",
+                () ->
+                    firestoreReader.retrieveObjects(
+                        CollectionExerciseUpdate.class, collectionExerciseSchema, ids)));
   }
 
   /**
@@ -54,6 +92,25 @@ public class CollectionExerciseRepository {
   public void writeCollectionExercise(final CollectionExerciseUpdate collectionExercise)
       throws CTPException {
     String id = collectionExercise.getCollectionExerciseId();
-    retryableCloudDataStore.storeObject(collectionExerciseSchema, id, collectionExercise, id);
+    repositoryMetrics.write(
+        collectionExerciseSchema,
+        "write",
+        collectionExercise,
+        () ->
+            retryableCloudDataStore.storeObject(
+                collectionExerciseSchema, id, collectionExercise, id));
+    collectionExerciseCache.put(id, collectionExercise);
+  }
+
+  // the loader is also reached from inbound events, which have no request deadline, so
+  // deadlineAwareReader keeps the cloud-storage backoff for those and bounds only request reads
+  private Optional<CollectionExerciseUpdate> loadCollectionExercise(String collectionExerciseId)
+      throws CTPException {
+    return repositoryMetrics.read(
+        collectionExerciseSchema,
+        "read",
+        () ->
+            deadlineAwareReader.retrieveObject(
+                CollectionExerciseUpdate.class, collectionExerciseSchema, collectionExerciseId));
   }
 }
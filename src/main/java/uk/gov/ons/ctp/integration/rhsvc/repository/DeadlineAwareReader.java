@@ -0,0 +1,210 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.google.cloud.firestore.FieldPath;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.common.cloud.RetryableCloudDataStore;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.ReadRetryConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+/**
+ * Reads from Firestore on behalf of REST requests, retrying failed reads only while the deadline of
+ * the request allows.
+ *
+ * <p>The cloud-storage backoff used by RetryableCloudDataStore suits inbound events, which can
+ * wait, but can hold a respondent's request open long after they have given up on it. So each read
+ * is retried with exponential backoff and full jitter, up to the configured number of attempts, and
+ * when the current thread has a {@link RequestDeadline} no attempt is started if the backoff would
+ * end beyond the deadline. Without a deadline, eg when reading for an inbound event, single object
+ * reads and lists fall back to RetryableCloudDataStore.
+ */
+@Slf4j
+@Component
+public class DeadlineAwareReader {
+
+  /** A single attempt at a read. */
+  @FunctionalInterface
+  interface Attempt<T> {
+    T read() throws CTPException;
+  }
+
+  private final ReadRetryConfig config;
+  private final RetryableCloudDataStore retryableCloudDataStore;
+  private final FirestoreReader firestoreReader;
+
+  public DeadlineAwareReader(
+      AppConfig appConfig,
+      RetryableCloudDataStore retryableCloudDataStore,
+      FirestoreReader firestoreReader) {
+    ReadRetryConfig readRetry = appConfig.getReadRetry();
+    this.config = readRetry == null ? new ReadRetryConfig() : readRetry;
+    this.retryableCloudDataStore = retryableCloudDataStore;
+    this.firestoreReader = firestoreReader;
+  }
+
+  /**
+   * Read an object.
+   *
+   * @param <T> - the type of the stored object.
+   * @param target - the class of the stored object.
+   * @param schema - the name of the collection.
+   * @param key - the key of the object.
+   * @return the deserialised object, or empty if it was not found.
+   * @throws CTPException - if the object could not be read before the deadline.
+   */
+  public <T> Optional<T> retrieveObject(Class<T> target, String schema, String key)
+      throws CTPException {
+    if (!RequestDeadline.isSet()) {
+      return retryableCloudDataStore.retrieveObject(target, schema, key);
+    }
+    return withinDeadline(schema, () -> firestoreReader.retrieveObject(target, schema, key));
+  }
+
+  /**
+   * Read all of the objects of a collection.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @return the objects. If there are none then the list will be empty.
+   * @throws CTPException - if the objects could not be read before the deadline.
+   */
+  public <T> List<T> list(Class<T> target, String schema) throws CTPException {
+    if (!RequestDeadline.isSet()) {
+      return retryableCloudDataStore.list(target, schema);
+    }
+    return withinDeadline(schema, () -> firestoreReader.search(target, schema, Map.of(), null));
+  }
+
+  /**
+   * Read several objects in a single round trip.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param keys - the keys of the objects to read.
+   * @return a map from key to deserialised object, holding only the keys which were found.
+   * @throws CTPException - if the objects could not be read before the deadline.
+   */
+  public <T> Map<String, T> retrieveObjects(Class<T> target, String schema, Collection<String> keys)
+      throws CTPException {
+    return withinDeadline(schema, () -> firestoreReader.retrieveObjects(target, schema, keys));
+  }
+
+  /**
+   * Read the objects whose fields match all of the supplied values, ordered by key.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param conditions - map from the path of each field to the value it must hold.
+   * @param limit - the maximum number of objects to read, or null for no limit.
+   * @return the matching objects. If none match then the list will be empty.
+   * @throws CTPException - if the objects could not be read before the deadline.
+   */
+  public <T> List<T> search(
+      Class<T> target, String schema, Map<FieldPath, Object> conditions, Integer limit)
+      throws CTPException {
+    return withinDeadline(schema, () -> firestoreReader.search(target, schema, conditions, limit));
+  }
+
+  /**
+   * Read one page of the objects whose fields match all of the supplied values, ordered by key.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param conditions - map from the path of each field to the value it must hold.
+   * @param limit - the maximum number of objects to read.
+   * @param startAfterKey - key of the last object of the previous page, or null for the first
+   *     page.
+   * @return the page of objects.
+   * @throws CTPException - if the objects could not be read before the deadline.
+   */
+  public <T> QueryPage<T> searchPage(
+      Class<T> target,
+      String schema,
+      Map<FieldPath, Object> conditions,
+      int limit,
+      String startAfterKey)
+      throws CTPException {
+    return withinDeadline(
+        schema,
+        () -> firestoreReader.searchPage(target, schema, conditions, limit, startAfterKey));
+  }
+
+  /**
+   * Make a read, retrying failures up to the configured number of attempts, and while the request
+   * deadline, if there is one, allows.
+   *
+   * @param <T> - the type of the result.
+   * @param schema - the name of the collection, for logging.
+   * @param attempt - makes one attempt at the read.
+   * @return the result of the first successful attempt.
+   * @throws CTPException - the failure of the last attempt, or if the deadline passed before the
+   *     first attempt.
+   */
+  <T> T withinDeadline(String schema, Attempt<T> attempt) throws CTPException {
+    boolean hasDeadline = RequestDeadline.isSet();
+    if (hasDeadline && RequestDeadline.isExpired()) {
+      throw new CTPException(
+          Fault.SYSTEM_ERROR, "Request deadline passed before reading " + schema);
+    }
+
+    long backoffCapMillis = config.getInitialBackoff().toMillis();
+    for (int attemptNumber = 1; ; attemptNumber++) {
+      try {
+        return attempt.read();
+      } catch (CTPException e) {
+        RepositoryMetrics.attemptFailed();
+        if (e.getFault() != Fault.SYSTEM_ERROR
+            || attemptNumber >= config.getMaxAttempts()
+            || Thread.currentThread().isInterrupted()) {
+          throw e;
+        }
+        long backoffMillis = ThreadLocalRandom.current().nextLong(backoffCapMillis + 1);
+        if (hasDeadline) {
+          Duration remaining = RequestDeadline.remaining().orElse(Duration.ZERO);
+          if (remaining.toMillis() <= backoffMillis) {
+            log.warn(
+                "Not retrying read as request deadline is too close",
+                kv("schema", schema),
+                kv("attempts", attemptNumber),
+                kv("remainingMillis", remaining.toMillis()));
+            throw e;
+          }
+        }
+        log.info(
+            "Retrying read",
+            kv("schema", schema),
+            kv("attempt", attemptNumber),
+            kv("backoffMillis", backoffMillis));
+        pause(backoffMillis, e);
+        backoffCapMillis =
+            Math.min(
+                (long) (backoffCapMillis * config.getMultiplier()),
+                config.getMaxBackoff().toMillis());
+      }
+    }
+  }
+
+  private void pause(long millis, CTPException failure) throws CTPException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw failure;
+    }
+  }
+}
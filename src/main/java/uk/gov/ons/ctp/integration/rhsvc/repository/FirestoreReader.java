@@ -0,0 +1,209 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import uk.gov.ons.ctp.common.cloud.FirestoreProvider;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
+
+/**
+ * Read operations against Firestore which are not offered by RetryableCloudDataStore, such as
+ * multi-document gets and cursor based queries. Objects are deserialised in the same way as by the
+ * cloud data store. Reads made on behalf of a REST request give up once its {@link
+ * RequestDeadline} has passed, and the number of reads waiting on Firestore at once is capped by
+ * the firestore bulkhead.
+ */
+@Slf4j
+@Service
+public class FirestoreReader {
+  private FirestoreProvider firestoreProvider;
+  private HedgedReader hedgedReader;
+  private Bulkhead firestoreBulkhead;
+
+  @Autowired
+  public FirestoreReader(
+      FirestoreProvider firestoreProvider,
+      HedgedReader hedgedReader,
+      @Qualifier("firestoreBulkhead") Bulkhead firestoreBulkhead) {
+    this.firestoreProvider = firestoreProvider;
+    this.hedgedReader = hedgedReader;
+    this.firestoreBulkhead = firestoreBulkhead;
+  }
+
+  /**
+   * Read an object from a collection without retrying. The read may be hedged if it is slow.
+   *
+   * @param <T> - the type of the stored object.
+   * @param target - the class of the stored object.
+   * @param schema - the name of the collection.
+   * @param key - the key of the object to read.
+   * @return the deserialised object, or empty if it was not found.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public <T> Optional<T> retrieveObject(Class<T> target, String schema, String key)
+      throws CTPException {
+    DocumentReference document = firestoreProvider.get().collection(schema).document(key);
+    DocumentSnapshot snapshot = read(() -> hedgedReader.read(schema, document::get), schema);
+    return snapshot.exists() ? Optional.of(snapshot.toObject(target)) : Optional.empty();
+  }
+
+  /**
+   * Read several objects from a collection in a single round trip.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param keys - the keys of the objects to read. Duplicates are ignored.
+   * @return a map from key to deserialised object, holding only the keys which were found.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public <T> Map<String, T> retrieveObjects(Class<T> target, String schema, Collection<String> keys)
+      throws CTPException {
+    Set<String> uniqueKeys = new LinkedHashSet<>(keys);
+    Map<String, T> results = new HashMap<>();
+    if (uniqueKeys.isEmpty()) {
+      return results;
+    }
+
+    Firestore firestore = firestoreProvider.get();
+    CollectionReference collection = firestore.collection(schema);
+    DocumentReference[] documents =
+        uniqueKeys.stream().map(collection::document).toArray(DocumentReference[]::new);
+
+    List<DocumentSnapshot> snapshots = read(() -> firestore.getAll(documents), schema);
+    for (DocumentSnapshot snapshot : snapshots) {
+      if (snapshot.exists()) {
+        results.put(snapshot.getId(), snapshot.toObject(target));
+      }
+    }
+    log.debug(
+        "Multi-document read",
+        kv("schema", schema),
+        kv("requested", uniqueKeys.size()),
+        kv("found", results.size()));
+    return results;
+  }
+
+  /**
+   * Read the objects whose fields match all of the supplied values, ordered by key.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param conditions - map from the path of each field to the value it must hold.
+   * @param limit - the maximum number of objects to read, or null for no limit.
+   * @return the matching objects. If none match then the list will be empty.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public <T> List<T> search(
+      Class<T> target, String schema, Map<FieldPath, Object> conditions, Integer limit)
+      throws CTPException {
+    Query query = buildQuery(schema, conditions);
+    if (limit != null) {
+      query = query.limit(limit);
+    }
+    List<T> results = toObjects(target, read(query::get, schema).getDocuments());
+    log.debug("Search", kv("schema", schema), kv("found", results.size()));
+    return results;
+  }
+
+  /**
+   * Read one page of the objects whose fields match all of the supplied values, ordered by key.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param conditions - map from the path of each field to the value it must hold.
+   * @param limit - the maximum number of objects to read.
+   * @param startAfterKey - key of the last object of the previous page, or null for the first
+   *     page.
+   * @return the page of objects.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public <T> QueryPage<T> searchPage(
+      Class<T> target,
+      String schema,
+      Map<FieldPath, Object> conditions,
+      int limit,
+      String startAfterKey)
+      throws CTPException {
+    Query query = buildQuery(schema, conditions).limit(limit + 1);
+    if (startAfterKey != null) {
+      query = query.startAfter(startAfterKey);
+    }
+
+    List<QueryDocumentSnapshot> documents = read(query::get, schema).getDocuments();
+    boolean morePages = documents.size() > limit;
+    List<QueryDocumentSnapshot> pageDocuments = morePages ? documents.subList(0, limit) : documents;
+
+    String nextStartAfterKey = morePages ? pageDocuments.get(limit - 1).getId() : null;
+    return new QueryPage<>(toObjects(target, pageDocuments), nextStartAfterKey);
+  }
+
+  private Query buildQuery(String schema, Map<FieldPath, Object> conditions) {
+    Query query = firestoreProvider.get().collection(schema);
+    for (Map.Entry<FieldPath, Object> condition : conditions.entrySet()) {
+      query = query.whereEqualTo(condition.getKey(), condition.getValue());
+    }
+    return query.orderBy(FieldPath.documentId());
+  }
+
+  private <T> List<T> toObjects(Class<T> target, List<QueryDocumentSnapshot> documents) {
+    List<T> results = new ArrayList<>(documents.size());
+    for (QueryDocumentSnapshot document : documents) {
+      results.add(document.toObject(target));
+    }
+    return results;
+  }
+
+  private <R> R read(Supplier<ApiFuture<R>> read, String schema) throws CTPException {
+    return firestoreBulkhead.execute(() -> await(read.get(), schema));
+  }
+
+  private <R> R await(ApiFuture<R> future, String schema) throws CTPException {
+    try {
+      Optional<Duration> remaining = RequestDeadline.remaining();
+      if (remaining.isPresent()) {
+        return future.get(Math.max(remaining.get().toNanos(), 0), TimeUnit.NANOSECONDS);
+      }
+      return future.get();
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      log.warn("Firestore read passed the request deadline", kv("schema", schema));
+      throw new CTPException(Fault.SYSTEM_ERROR, e, "Timed out reading from " + schema);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CTPException(Fault.SYSTEM_ERROR, e, "Interrupted reading from " + schema);
+    } catch (ExecutionException e) {
+      log.error("Failed to read from Firestore", kv("schema", schema), e);
+      throw new CTPException(Fault.SYSTEM_ERROR, e.getCause(), "Failed to read from " + schema);
+    }
+  }
+}
@@ -0,0 +1,240 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.HedgedReadConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.RequestDeadlineConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+/**
+ * Hedges Firestore point reads to cut tail latency. If a read has not completed within the
+ * configured percentile of recent read latencies for its collection, an identical second read is
+ * issued and the first to succeed is used.
+ *
+ * <p>Hedges are limited to a fraction of reads, with a small burst allowance, so that when
+ * Firestore is slow for everyone hedging does not double the load on it. The number of hedges
+ * issued, won, and skipped for lack of budget are counted per collection.
+ *
+ * <p>Once one read succeeds the other is cancelled, and both are cancelled if the caller abandons
+ * the result, eg when the request deadline passes.
+ *
+ * <p>Only reads made through {@link FirestoreReader} are hedged, and {@link DeadlineAwareReader}
+ * only goes to it for point reads when the thread has a {@link RequestDeadline}. So with
+ * request-deadline disabled, point reads go through RetryableCloudDataStore and are not hedged.
+ */
+@Slf4j
+@Component
+public class HedgedReader {
+  static final String HEDGES_METRIC = "rhsvc.read.hedges";
+  static final String WINS_METRIC = "rhsvc.read.hedge.wins";
+  static final String THROTTLED_METRIC = "rhsvc.read.hedge.throttled";
+
+  private final HedgedReadConfig config;
+  private final boolean enabled;
+  private final MeterRegistry meterRegistry;
+  private final HedgeBudget budget;
+  private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+  public HedgedReader(AppConfig appConfig, MeterRegistry meterRegistry) {
+    this.config = appConfig.getHedgedRead();
+    this.enabled = config != null && config.isEnabled();
+    this.meterRegistry = meterRegistry;
+    this.budget = enabled ? new HedgeBudget(config) : null;
+    RequestDeadlineConfig deadlineConfig = appConfig.getRequestDeadline();
+    if (enabled && (deadlineConfig == null || !deadlineConfig.isEnabled())) {
+      log.warn("Hedged reads are enabled but have no effect while request deadlines are disabled");
+    }
+  }
+
+  /**
+   * Make a read, hedging it if it is slow.
+   *
+   * @param <R> - the type of the result of the read.
+   * @param schema - the name of the collection being read.
+   * @param read - starts the read. Called a second time to hedge.
+   * @return the first read to succeed, or the failure of the last read to fail.
+   */
+  public <R> ApiFuture<R> read(String schema, Supplier<ApiFuture<R>> read) {
+    if (!enabled) {
+      return read.get();
+    }
+    LatencyWindow window = latencies.computeIfAbsent(schema, s -> new LatencyWindow(config));
+    budget.earn();
+
+    long start = System.nanoTime();
+    ApiFuture<R> primary = read.get();
+    primary.addListener(
+        () -> {
+          // a read cancelled once the hedge won says nothing about how long it would have taken
+          if (!primary.isCancelled()) {
+            window.record(System.nanoTime() - start);
+          }
+        },
+        MoreExecutors.directExecutor());
+
+    if (completesWithin(primary, window.delayNanos()) || RequestDeadline.isExpired()) {
+      return primary;
+    }
+    if (!budget.trySpend()) {
+      counter(THROTTLED_METRIC, schema).increment();
+      return primary;
+    }
+    log.debug("Hedging slow read", kv("schema", schema));
+    counter(HEDGES_METRIC, schema).increment();
+    return firstSuccess(schema, primary, read.get());
+  }
+
+  private boolean completesWithin(ApiFuture<?> future, long delayNanos) {
+    long waitNanos =
+        RequestDeadline.remaining()
+            .map(r -> Math.min(r.toNanos(), delayNanos))
+            .orElse(delayNanos);
+    try {
+      future.get(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return true;
+    }
+  }
+
+  private <R> ApiFuture<R> firstSuccess(String schema, ApiFuture<R> primary, ApiFuture<R> hedge) {
+    SettableApiFuture<R> result = SettableApiFuture.create();
+    AtomicInteger failures = new AtomicInteger();
+    ApiFutures.addCallback(
+        primary, new FirstSuccess<>(result, failures, null), MoreExecutors.directExecutor());
+    ApiFutures.addCallback(
+        hedge,
+        new FirstSuccess<>(result, failures, counter(WINS_METRIC, schema)),
+        MoreExecutors.directExecutor());
+    // cancels the losing read, or both if the caller gives up on the result
+    result.addListener(
+        () -> {
+          primary.cancel(true);
+          hedge.cancel(true);
+        },
+        MoreExecutors.directExecutor());
+    return result;
+  }
+
+  private Counter counter(String name, String schema) {
+    return Counter.builder(name).tag("schema", schema).register(meterRegistry);
+  }
+
+  /** Completes the result with the first read to succeed, or the last read to fail. */
+  private static class FirstSuccess<R> implements ApiFutureCallback<R> {
+    private final SettableApiFuture<R> result;
+    private final AtomicInteger failures;
+    private final Counter wins;
+
+    FirstSuccess(SettableApiFuture<R> result, AtomicInteger failures, Counter wins) {
+      this.result = result;
+      this.failures = failures;
+      this.wins = wins;
+    }
+
+    @Override
+    public void onSuccess(R value) {
+      if (result.set(value) && wins != null) {
+        wins.increment();
+      }
+    }
+
+    @Override
+    public void onFailure(Throwable t) {
+      if (failures.incrementAndGet() == 2) {
+        result.setException(t);
+      }
+    }
+  }
+
+  /**
+   * Allowance for hedges, earning a fraction of a hedge for each read up to a maximum burst, and
+   * spending one for each hedge.
+   */
+  static class HedgeBudget {
+    private final double earnPerRead;
+    private final double maxBalance;
+    private double balance;
+
+    HedgeBudget(HedgedReadConfig config) {
+      this.earnPerRead = config.getMaxHedgeRatio();
+      this.maxBalance = config.getMaxHedgeBurst();
+      this.balance = maxBalance;
+    }
+
+    synchronized void earn() {
+      balance = Math.min(maxBalance, balance + earnPerRead);
+    }
+
+    synchronized boolean trySpend() {
+      if (balance < 1) {
+        return false;
+      }
+      balance--;
+      return true;
+    }
+  }
+
+  /**
+   * The most recent read latencies for a collection, from which the hedge delay is taken. The
+   * delay is recomputed after each tenth of the window, rather than on every read.
+   */
+  static class LatencyWindow {
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long[] samples;
+    private final int recomputeEvery;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long delayNanos;
+
+    LatencyWindow(HedgedReadConfig config) {
+      this.percentile = config.getDelayPercentile();
+      this.minDelayNanos = config.getMinDelay().toNanos();
+      this.samples = new long[config.getWindowSize()];
+      this.recomputeEvery = Math.max(1, samples.length / 10);
+      this.delayNanos = Math.max(minDelayNanos, config.getInitialDelay().toNanos());
+    }
+
+    synchronized void record(long latencyNanos) {
+      samples[next] = latencyNanos;
+      next = (next + 1) % samples.length;
+      count = Math.min(count + 1, samples.length);
+      if (++sinceRecompute >= recomputeEvery && count >= recomputeEvery) {
+        sinceRecompute = 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        delayNanos = Math.max(minDelayNanos, sorted[Math.max(index, 0)]);
+      }
+    }
+
+    long delayNanos() {
+      return delayNanos;
+    }
+  }
+}
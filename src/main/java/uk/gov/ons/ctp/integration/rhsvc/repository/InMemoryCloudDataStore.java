@@ -0,0 +1,257 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.common.cloud.CloudDataStore;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.InMemoryDataStoreConfig;
+
+/**
+ * Cloud data store held in memory, used in place of Firestore when the in-memory profile is
+ * active, so that the service can be load tested or benchmarked on one machine without the
+ * Firestore emulator. RetryableCloudDataStore, and the repositories, use it through the cloud data
+ * store contract, and {@link InMemoryFirestoreReader} reads from it in place of Firestore.
+ *
+ * <p>Objects are held as JSON, so that callers never share an instance with the store, and each
+ * collection is ordered by key as Firestore orders documents by id. Latency and errors are
+ * injected separately for reads, writes and queries, as configured by in-memory-data-store, and
+ * each kind of operation is counted, so that the reads and writes made per request or event can
+ * be measured.
+ */
+@Slf4j
+@Primary
+@Profile(InMemoryCloudDataStore.PROFILE)
+@Component
+public class InMemoryCloudDataStore implements CloudDataStore, MeterBinder {
+  public static final String PROFILE = "in-memory";
+  public static final String OPERATIONS_METRIC = "rhsvc.datastore.inmemory.operations";
+  static final String INJECTED_ERRORS_METRIC = "rhsvc.datastore.inmemory.injected.errors";
+
+  private final ObjectMapper mapper;
+  private final Map<String, ConcurrentNavigableMap<String, JsonNode>> collections =
+      new ConcurrentHashMap<>();
+  private final InjectedFaults read;
+  private final InjectedFaults write;
+  private final InjectedFaults query;
+
+  @Autowired
+  public InMemoryCloudDataStore(AppConfig appConfig) {
+    this(appConfig.getInMemoryDataStore(), new CustomObjectMapper());
+  }
+
+  InMemoryCloudDataStore(InMemoryDataStoreConfig config, ObjectMapper mapper) {
+    if (config == null) {
+      config = new InMemoryDataStoreConfig();
+    }
+    log.info("In-memory cloud data store enabled", kv("config", config));
+    this.mapper = mapper;
+    this.read = new InjectedFaults(config.getRead(), "read", config.getSeed());
+    this.write = new InjectedFaults(config.getWrite(), "write", config.getSeed());
+    this.query = new InjectedFaults(config.getQuery(), "query", config.getSeed());
+  }
+
+  @Override
+  public void storeObject(String schema, String key, Object value) throws CTPException {
+    write.apply(schema, key);
+    collection(schema).put(key, mapper.valueToTree(value));
+  }
+
+  @Override
+  public <T> Optional<T> retrieveObject(Class<T> target, String schema, String key)
+      throws CTPException {
+    read.apply(schema, key);
+    JsonNode node = collection(schema).get(key);
+    return node == null ? Optional.empty() : Optional.of(toObject(target, node, schema));
+  }
+
+  @Override
+  public <T> List<T> list(Class<T> target, String schema) throws CTPException {
+    query.apply(schema, null);
+    List<T> results = new ArrayList<>();
+    for (JsonNode node : collection(schema).values()) {
+      results.add(toObject(target, node, schema));
+    }
+    return results;
+  }
+
+  @Override
+  public <T> List<T> search(Class<T> target, String schema, String[] fieldPath, String searchValue)
+      throws CTPException {
+    query.apply(schema, String.join(".", fieldPath) + "=" + searchValue);
+    List<T> results = new ArrayList<>();
+    for (JsonNode node : collection(schema).values()) {
+      JsonNode field = field(node, List.of(fieldPath));
+      if (field != null && field.isValueNode() && field.asText().equals(searchValue)) {
+        results.add(toObject(target, node, schema));
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public void deleteObject(String schema, String key) throws CTPException {
+    write.apply(schema, key);
+    collection(schema).remove(key);
+  }
+
+  @Override
+  public Set<String> getCollectionNames() {
+    return new HashSet<>(collections.keySet());
+  }
+
+  /**
+   * Read several objects from a collection, as a single read.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param keys - the keys of the objects to read.
+   * @return a map from key to deserialised object, holding only the keys which were found.
+   * @throws CTPException - if an error is injected.
+   */
+  <T> Map<String, T> retrieveObjects(Class<T> target, String schema, Collection<String> keys)
+      throws CTPException {
+    read.apply(schema, keys.toString());
+    ConcurrentNavigableMap<String, JsonNode> collection = collection(schema);
+    Map<String, T> results = new HashMap<>();
+    for (String key : keys) {
+      JsonNode node = collection.get(key);
+      if (node != null) {
+        results.put(key, toObject(target, node, schema));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Read one page of the objects whose fields hold all of the supplied values, ordered by key.
+   *
+   * @param <T> - the type of the stored objects.
+   * @param target - the class of the stored objects.
+   * @param schema - the name of the collection.
+   * @param conditions - map from the path of each field, as a list of field names, to the value
+   *     it must hold.
+   * @param limit - the maximum number of objects to read, or null for no limit.
+   * @param startAfterKey - key of the last object of the previous page, or null for the first
+   *     page.
+   * @return the page of objects.
+   * @throws CTPException - if an error is injected.
+   */
+  <T> QueryPage<T> searchPage(
+      Class<T> target,
+      String schema,
+      Map<List<String>, Object> conditions,
+      Integer limit,
+      String startAfterKey)
+      throws CTPException {
+    query.apply(schema, conditions + "/" + startAfterKey);
+    Map<List<String>, JsonNode> expected = new HashMap<>();
+    conditions.forEach((path, value) -> expected.put(path, mapper.valueToTree(value)));
+
+    ConcurrentNavigableMap<String, JsonNode> collection = collection(schema);
+    if (startAfterKey != null) {
+      collection = collection.tailMap(startAfterKey, false);
+    }
+    List<T> results = new ArrayList<>();
+    String lastKey = null;
+    for (Map.Entry<String, JsonNode> entry : collection.entrySet()) {
+      if (matches(entry.getValue(), expected)) {
+        if (limit != null && results.size() == limit) {
+          return new QueryPage<>(results, lastKey);
+        }
+        results.add(toObject(target, entry.getValue(), schema));
+        lastKey = entry.getKey();
+      }
+    }
+    return new QueryPage<>(results, null);
+  }
+
+  /** Remove every stored object. */
+  public void clear() {
+    collections.clear();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bind(registry, "read", read);
+    bind(registry, "write", write);
+    bind(registry, "query", query);
+  }
+
+  private void bind(MeterRegistry registry, String operation, InjectedFaults faults) {
+    FunctionCounter.builder(OPERATIONS_METRIC, faults.getOperations(), AtomicLong::get)
+        .description("Operations on the in-memory cloud data store")
+        .tag("operation", operation)
+        .register(registry);
+    FunctionCounter.builder(INJECTED_ERRORS_METRIC, faults.getErrors(), AtomicLong::get)
+        .description("Errors injected by the in-memory cloud data store")
+        .tag("operation", operation)
+        .register(registry);
+  }
+
+  private ConcurrentNavigableMap<String, JsonNode> collection(String schema) {
+    return collections.computeIfAbsent(schema, s -> new ConcurrentSkipListMap<>());
+  }
+
+  private boolean matches(JsonNode node, Map<List<String>, JsonNode> expected) {
+    for (Map.Entry<List<String>, JsonNode> condition : expected.entrySet()) {
+      JsonNode field = field(node, condition.getKey());
+      JsonNode value = condition.getValue();
+      if (field == null) {
+        return false;
+      }
+      boolean equal =
+          field.isNumber() && value.isNumber()
+              ? field.decimalValue().compareTo(value.decimalValue()) == 0
+              : field.equals(value);
+      if (!equal) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private JsonNode field(JsonNode node, List<String> path) {
+    for (String name : path) {
+      node = node.get(name);
+      if (node == null || node.isNull()) {
+        return null;
+      }
+    }
+    return node;
+  }
+
+  private <T> T toObject(Class<T> target, JsonNode node, String schema) throws CTPException {
+    try {
+      return mapper.treeToValue(node, target);
+    } catch (JsonProcessingException e) {
+      throw new CTPException(Fault.SYSTEM_ERROR, e, "Failed to deserialise object from " + schema);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import com.google.cloud.firestore.FieldPath;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import uk.gov.ons.ctp.common.error.CTPException;
+
+/**
+ * Reads from the {@link InMemoryCloudDataStore} in place of Firestore when the in-memory profile
+ * is active. Reads are neither hedged nor limited by the firestore bulkhead, but give up once the
+ * deadline of the request has passed.
+ */
+@Primary
+@Profile(InMemoryCloudDataStore.PROFILE)
+@Service
+public class InMemoryFirestoreReader extends FirestoreReader {
+  private final InMemoryCloudDataStore dataStore;
+
+  @Autowired
+  public InMemoryFirestoreReader(InMemoryCloudDataStore dataStore) {
+    super(null, null, null);
+    this.dataStore = dataStore;
+  }
+
+  @Override
+  public <T> Optional<T> retrieveObject(Class<T> target, String schema, String key)
+      throws CTPException {
+    return dataStore.retrieveObject(target, schema, key);
+  }
+
+  @Override
+  public <T> Map<String, T> retrieveObjects(Class<T> target, String schema, Collection<String> keys)
+      throws CTPException {
+    return dataStore.retrieveObjects(target, schema, keys);
+  }
+
+  @Override
+  public <T> List<T> search(
+      Class<T> target, String schema, Map<FieldPath, Object> conditions, Integer limit)
+      throws CTPException {
+    return dataStore.searchPage(target, schema, toPaths(conditions), limit, null).getResults();
+  }
+
+  @Override
+  public <T> QueryPage<T> searchPage(
+      Class<T> target,
+      String schema,
+      Map<FieldPath, Object> conditions,
+      int limit,
+      String startAfterKey)
+      throws CTPException {
+    return dataStore.searchPage(target, schema, toPaths(conditions), limit, startAfterKey);
+  }
+
+  private Map<List<String>, Object> toPaths(Map<FieldPath, Object> conditions) {
+    Map<List<String>, Object> paths = new LinkedHashMap<>();
+    // the field names used by the repositories need no escaping in an encoded path
+    conditions.forEach((path, value) -> paths.put(List.of(path.toString().split("\\.")), value));
+    return paths;
+  }
+}
@@ -0,0 +1,126 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.InjectedFaultConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+/**
+ * Latency and errors injected into one kind of operation of the in-memory data store, so that it
+ * behaves more like Firestore under load. An operation which would pass the deadline of the
+ * request waits only until the deadline, then fails as a Firestore read would.
+ *
+ * <p>With a seed, the latency and error of an operation are drawn from a stream of their own,
+ * seeded from the seed, the kind of operation, the collection and key operated on, and how many
+ * times that key has been operated on before. So a run makes the same draws for each key however
+ * its request threads interleave, as long as each key sees its operations in the same order.
+ */
+class InjectedFaults {
+  private final InjectedFaultConfig config;
+  private final String operation;
+  private final Long seed;
+  private final Map<String, AtomicLong> keyOperations = new ConcurrentHashMap<>();
+  private final AtomicLong operations = new AtomicLong();
+  private final AtomicLong errors = new AtomicLong();
+
+  InjectedFaults(InjectedFaultConfig config, String operation, Long seed) {
+    this.config = config;
+    this.operation = operation;
+    this.seed = seed;
+  }
+
+  /**
+   * Wait for the injected latency, then fail if an error is injected.
+   *
+   * @param schema - the name of the collection operated on.
+   * @param key - the key, or other description such as the search value, of what is operated on.
+   * @throws CTPException - if an error is injected, or the request deadline passes.
+   */
+  void apply(String schema, String key) throws CTPException {
+    operations.incrementAndGet();
+    Random random = random(schema, key);
+    long latency = latencyNanos(random);
+    if (latency > 0) {
+      sleep(latency, schema);
+    }
+    if (config.getErrorRate() > 0 && random.nextDouble() < config.getErrorRate()) {
+      errors.incrementAndGet();
+      throw new CTPException(Fault.SYSTEM_ERROR, "Injected failure for " + schema);
+    }
+  }
+
+  AtomicLong getOperations() {
+    return operations;
+  }
+
+  AtomicLong getErrors() {
+    return errors;
+  }
+
+  /**
+   * The stream to draw the latency and error of an operation from.
+   *
+   * @param schema - the name of the collection operated on.
+   * @param key - the key, or other description, of what is operated on.
+   * @return a stream of its own if there is a seed, otherwise the random stream of the thread.
+   */
+  Random random(String schema, String key) {
+    if (seed == null) {
+      return ThreadLocalRandom.current();
+    }
+    String target = operation + '/' + schema + '/' + key;
+    long count = keyOperations.computeIfAbsent(target, t -> new AtomicLong()).getAndIncrement();
+    return new Random(mix(mix(seed ^ target.hashCode()) + count));
+  }
+
+  long latencyNanos(Random random) {
+    double latency = config.getLatency().toNanos();
+    double nanos;
+    switch (config.getDistribution()) {
+      case FIXED:
+        nanos = latency;
+        break;
+      case UNIFORM:
+        nanos = 2 * latency * random.nextDouble();
+        break;
+      case EXPONENTIAL:
+        nanos = -latency * Math.log(1 - random.nextDouble());
+        break;
+      case LOG_NORMAL:
+        nanos = latency * Math.exp(config.getSigma() * random.nextGaussian());
+        break;
+      default:
+        return 0;
+    }
+    return Math.min((long) nanos, config.getMaxLatency().toNanos());
+  }
+
+  /** Spreads the bits of a value, so that nearby seeds give unrelated streams. */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+    value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return value ^ (value >>> 33);
+  }
+
+  private void sleep(long latency, String schema) throws CTPException {
+    Optional<Duration> remaining = RequestDeadline.remaining();
+    long remainingNanos = remaining.map(r -> Math.max(r.toNanos(), 0)).orElse(Long.MAX_VALUE);
+    try {
+      TimeUnit.NANOSECONDS.sleep(Math.min(latency, remainingNanos));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CTPException(Fault.SYSTEM_ERROR, e, "Interrupted accessing " + schema);
+    }
+    if (latency > remainingNanos) {
+      throw new CTPException(Fault.SYSTEM_ERROR, "Timed out accessing " + schema);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A page of objects read by a cursor based query.
+ *
+ * @param <T> - the type of the objects.
+ */
+@Data
+@AllArgsConstructor
+public class QueryPage<T> {
+  private List<T> results;
+
+  /** key of the document after which the next page starts, or null if this is the last page */
+  private String nextStartAfterKey;
+}
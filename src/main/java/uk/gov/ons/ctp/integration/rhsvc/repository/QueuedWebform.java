@@ -0,0 +1,23 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
+
+/** A webform waiting to be sent to GOV.UK Notify. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuedWebform {
+  /** Reference returned to the caller, and passed to GOV.UK Notify. */
+  private String id;
+
+  private WebformDTO webform;
+
+  /** When the webform was queued, or last recovered, in epoch millis. */
+  private long queuedAt;
+
+  /** The number of failed attempts to send the webform. */
+  private int attempts;
+}
@@ -0,0 +1,69 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.ReferenceDataCacheConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.StaleWhileRevalidateCache.Loader;
+
+/** Creates the reference data caches, which share a small pool of threads to read with. */
+@Slf4j
+@Component
+public class ReferenceDataCaches {
+  private final ReferenceDataCacheConfig config;
+  private final MeterRegistry meterRegistry;
+  private final ThreadPoolExecutor executor;
+
+  public ReferenceDataCaches(AppConfig appConfig, MeterRegistry meterRegistry) {
+    this.config = appConfig.getReferenceDataCache();
+    this.meterRegistry = meterRegistry;
+    if (config != null && config.isEnabled()) {
+      log.info("Reference data cache enabled", kv("config", config));
+      AtomicInteger threadCount = new AtomicInteger();
+      this.executor =
+          new ThreadPoolExecutor(
+              config.getRefreshThreads(),
+              config.getRefreshThreads(),
+              60,
+              TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(config.getRefreshQueueSize()),
+              r -> {
+                Thread thread = new Thread(r, "reference-data-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.executor.allowCoreThreadTimeOut(true);
+    } else {
+      this.executor = null;
+    }
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param <V> - the type of the cached objects.
+   * @param name - the name of the cache, used in logging and metrics.
+   * @param loader - reads one object from the datastore.
+   * @return the cache, which just calls the loader if caching is disabled.
+   */
+  public <V> StaleWhileRevalidateCache<V> create(String name, Loader<V> loader) {
+    return new StaleWhileRevalidateCache<>(
+        name, config, loader, executor, meterRegistry, Clock.systemUTC());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
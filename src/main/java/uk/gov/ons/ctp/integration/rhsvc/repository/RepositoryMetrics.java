@@ -0,0 +1,214 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+
+/**
+ * Times the Firestore operations of the repositories, tagged by schema, operation and outcome, so
+ * that the collection or operation responsible for latency can be seen. Also records the retries
+ * made by each operation, the size of each document written, and the number of results of each
+ * read of several documents.
+ *
+ * <p>Retries are made below the repositories, by RetryableCloudDataStore or by {@link
+ * DeadlineAwareReader}, on the thread of the operation. So the operation in progress is held by the
+ * thread, and each failed attempt is counted against it: those made by RetryableCloudDataStore
+ * through this class being a Spring Retry listener, and those made by DeadlineAwareReader through
+ * {@link #attemptFailed()}.
+ */
+@Slf4j
+@Component
+public class RepositoryMetrics implements RetryListener {
+  static final String OPERATION_METRIC = "rhsvc.repository.operation";
+  static final String RETRIES_METRIC = "rhsvc.repository.retries";
+  static final String DOCUMENT_SIZE_METRIC = "rhsvc.repository.document.size";
+  static final String RESULTS_METRIC = "rhsvc.repository.results";
+
+  static final String SUCCESS = "success";
+  static final String NOT_FOUND = "not_found";
+  static final String ERROR = "error";
+
+  private static final ThreadLocal<int[]> FAILED_ATTEMPTS = new ThreadLocal<>();
+
+  /** A single call to the data store. */
+  @FunctionalInterface
+  public interface Operation<T> {
+    T call() throws CTPException;
+  }
+
+  /** A single call to the data store which returns nothing. */
+  @FunctionalInterface
+  public interface Write {
+    void call() throws CTPException;
+  }
+
+  private final MeterRegistry meterRegistry;
+  private final ObjectMapper mapper = new CustomObjectMapper();
+
+  public RepositoryMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Time a write of a document, and record its size.
+   *
+   * @param schema - the name of the collection written to.
+   * @param operation - the name of the repository operation.
+   * @param document - the document written.
+   * @param write - makes the write.
+   * @throws CTPException - the failure of the write.
+   */
+  public void write(String schema, String operation, Object document, Write write)
+      throws CTPException {
+    DistributionSummary.builder(DOCUMENT_SIZE_METRIC)
+        .description("JSON size of the documents written by the repositories")
+        .baseUnit("bytes")
+        .tags("schema", schema, "operation", operation)
+        .register(meterRegistry)
+        .record(size(document, schema));
+    record(
+        schema,
+        operation,
+        () -> {
+          write.call();
+          return null;
+        });
+  }
+
+  /**
+   * Time a read of one document.
+   *
+   * @param <T> - the type of the document.
+   * @param schema - the name of the collection read.
+   * @param operation - the name of the repository operation.
+   * @param read - makes the read.
+   * @return the document, or empty if it was not found.
+   * @throws CTPException - the failure of the read.
+   */
+  public <T> Optional<T> read(String schema, String operation, Operation<Optional<T>> read)
+      throws CTPException {
+    return record(schema, operation, read);
+  }
+
+  /**
+   * Time a read of several documents, and record the number read.
+   *
+   * @param <T> - the type of the result.
+   * @param schema - the name of the collection read.
+   * @param operation - the name of the repository operation.
+   * @param read - makes the read.
+   * @return the result of the read.
+   * @throws CTPException - the failure of the read.
+   */
+  public <T> T readMany(String schema, String operation, Operation<T> read) throws CTPException {
+    T result = record(schema, operation, read);
+    DistributionSummary.builder(RESULTS_METRIC)
+        .description("Documents returned by the multiple document reads of the repositories")
+        .tags("schema", schema, "operation", operation)
+        .register(meterRegistry)
+        .record(count(result));
+    return result;
+  }
+
+  /**
+   * Count a failed attempt at the operation in progress on this thread, if there is one. The last
+   * attempt of an operation which fails is not retried, so the retries of such an operation are one
+   * fewer than its failed attempts.
+   */
+  static void attemptFailed() {
+    int[] failedAttempts = FAILED_ATTEMPTS.get();
+    if (failedAttempts != null) {
+      failedAttempts[0]++;
+    }
+  }
+
+  @Override
+  public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+    return true;
+  }
+
+  @Override
+  public <T, E extends Throwable> void close(
+      RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {}
+
+  @Override
+  public <T, E extends Throwable> void onError(
+      RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+    attemptFailed();
+  }
+
+  private <T> T record(String schema, String operation, Operation<T> call) throws CTPException {
+    int[] outer = FAILED_ATTEMPTS.get();
+    int[] failedAttempts = new int[1];
+    FAILED_ATTEMPTS.set(failedAttempts);
+    String outcome = ERROR;
+    long start = System.nanoTime();
+    try {
+      T result = call.call();
+      boolean notFound = result instanceof Optional && ((Optional<?>) result).isEmpty();
+      outcome = notFound ? NOT_FOUND : SUCCESS;
+      return result;
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      if (outer == null) {
+        FAILED_ATTEMPTS.remove();
+      } else {
+        FAILED_ATTEMPTS.set(outer);
+      }
+      Timer.builder(OPERATION_METRIC)
+          .description("Firestore operations of the repositories")
+          .tags("schema", schema, "operation", operation, "outcome", outcome)
+          .register(meterRegistry)
+          .record(elapsed, TimeUnit.NANOSECONDS);
+      int retries = ERROR.equals(outcome) ? failedAttempts[0] - 1 : failedAttempts[0];
+      if (retries > 0) {
+        Counter.builder(RETRIES_METRIC)
+            .description("Retries of the Firestore operations of the repositories")
+            .tags("schema", schema, "operation", operation)
+            .register(meterRegistry)
+            .increment(retries);
+      }
+    }
+  }
+
+  private long size(Object document, String schema) {
+    CountingOutputStream out = new CountingOutputStream(ByteStreams.nullOutputStream());
+    try {
+      mapper.writeValue(out, document);
+    } catch (IOException e) {
+      log.warn("Could not measure document size", kv("schema", schema), e);
+    }
+    return out.getCount();
+  }
+
+  private static int count(Object result) {
+    if (result instanceof Collection) {
+      return ((Collection<?>) result).size();
+    }
+    if (result instanceof Map) {
+      return ((Map<?, ?>) result).size();
+    }
+    if (result instanceof QueryPage) {
+      return ((QueryPage<?>) result).getResults().size();
+    }
+    return 0;
+  }
+}
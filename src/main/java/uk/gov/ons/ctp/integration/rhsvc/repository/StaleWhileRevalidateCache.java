@@ -0,0 +1,273 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.integration.rhsvc.config.ReferenceDataCacheConfig;
+
+/**
+ * Cache of rarely changing reference data which keeps the last known good copy of each object, so
+ * that it can still be served while the datastore is erroring or slow.
+ *
+ * <ul>
+ *   <li>A copy younger than freshFor is served without reading the datastore.
+ *   <li>A copy younger than staleFor is served, and refreshed in the background.
+ *   <li>An older copy is only served if reading the datastore fails, or takes longer than
+ *       loadTimeout.
+ * </ul>
+ *
+ * Objects which have never been read are always read from the datastore. Background reads of an
+ * object are shared, so that however many requests are waiting on it, only one read of an object is
+ * in flight at a time. Each stale copy served is counted, tagged with the reason.
+ *
+ * @param <V> - the type of the cached objects.
+ */
+@Slf4j
+public class StaleWhileRevalidateCache<V> {
+
+  /** Reads one object from the datastore. */
+  @FunctionalInterface
+  public interface Loader<V> {
+    Optional<V> load(String key) throws CTPException;
+  }
+
+  /** Reads several objects from the datastore, returning only those found. */
+  @FunctionalInterface
+  public interface BatchLoader<V> {
+    Map<String, V> load(Collection<String> keys) throws CTPException;
+  }
+
+  static final String STALE_METRIC = "rhsvc.reference.stale";
+
+  private final String name;
+  private final ReferenceDataCacheConfig config;
+  private final boolean enabled;
+  private final Loader<V> loader;
+  private final Executor executor;
+  private final MeterRegistry meterRegistry;
+  private final Clock clock;
+
+  private final Map<String, CachedCopy<V>> copies = new ConcurrentHashMap<>();
+  private final Map<String, CompletableFuture<Optional<V>>> loading = new ConcurrentHashMap<>();
+
+  StaleWhileRevalidateCache(
+      String name,
+      ReferenceDataCacheConfig config,
+      Loader<V> loader,
+      Executor executor,
+      MeterRegistry meterRegistry,
+      Clock clock) {
+    this.name = name;
+    this.config = config;
+    this.enabled = config != null && config.isEnabled();
+    this.loader = loader;
+    this.executor = executor;
+    this.meterRegistry = meterRegistry;
+    this.clock = clock;
+  }
+
+  /**
+   * Get an object.
+   *
+   * @param key - the key of the object.
+   * @return the object, or empty if it is not in the datastore.
+   * @throws CTPException - if the datastore could not be read and there is no copy to serve.
+   */
+  public Optional<V> get(String key) throws CTPException {
+    if (!enabled) {
+      return loader.load(key);
+    }
+    CachedCopy<V> copy = copies.get(key);
+    if (copy == null) {
+      return store(key, loader.load(key));
+    }
+    long age = age(copy);
+    if (age < config.getFreshFor().toMillis()) {
+      return Optional.of(copy.value);
+    }
+    if (age < config.getStaleFor().toMillis()) {
+      servedStale(key, "revalidate");
+      loadInBackground(key);
+      return Optional.of(copy.value);
+    }
+    return loadOrServe(key, copy);
+  }
+
+  /**
+   * Get several objects, reading those without a usable copy in a single datastore read.
+   *
+   * @param keys - the keys of the objects.
+   * @param batchLoader - reads the objects without a usable copy.
+   * @return map from key to object, holding only the keys which were found.
+   * @throws CTPException - if the datastore could not be read and there are not copies of all of
+   *     the objects which were to be read.
+   */
+  public Map<String, V> getAll(Collection<String> keys, BatchLoader<V> batchLoader)
+      throws CTPException {
+    if (!enabled) {
+      return batchLoader.load(keys);
+    }
+    Map<String, V> results = new HashMap<>();
+    Map<String, CachedCopy<V>> oldCopies = new HashMap<>();
+    List<String> toLoad = new ArrayList<>();
+    for (String key : new LinkedHashSet<>(keys)) {
+      CachedCopy<V> copy = copies.get(key);
+      long age = copy == null ? Long.MAX_VALUE : age(copy);
+      if (age < config.getStaleFor().toMillis()) {
+        results.put(key, copy.value);
+        if (age >= config.getFreshFor().toMillis()) {
+          servedStale(key, "revalidate");
+          loadInBackground(key);
+        }
+      } else {
+        toLoad.add(key);
+        if (copy != null) {
+          oldCopies.put(key, copy);
+        }
+      }
+    }
+
+    if (!toLoad.isEmpty()) {
+      try {
+        Map<String, V> loaded = batchLoader.load(toLoad);
+        toLoad.forEach(key -> store(key, Optional.ofNullable(loaded.get(key))));
+        results.putAll(loaded);
+      } catch (CTPException e) {
+        if (oldCopies.size() < toLoad.size()) {
+          throw e;
+        }
+        log.warn("Serving stale copies after read failure", kv("cache", name), e);
+        oldCopies.forEach(
+            (key, copy) -> {
+              servedStale(key, "error");
+              results.put(key, copy.value);
+            });
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Hold the latest version of an object, eg after it has been written.
+   *
+   * @param key - the key of the object.
+   * @param value - the object.
+   */
+  public void put(String key, V value) {
+    if (enabled) {
+      copies.put(key, new CachedCopy<>(value, clock.millis()));
+    }
+  }
+
+  /**
+   * Mark the copy of an object as out of date, so that the next get reads the datastore. The copy
+   * is kept in case that read fails.
+   *
+   * @param key - the key of the object.
+   */
+  public void markStale(String key) {
+    if (enabled) {
+      copies.computeIfPresent(key, (k, copy) -> new CachedCopy<>(copy.value, 0));
+    }
+  }
+
+  private Optional<V> loadOrServe(String key, CachedCopy<V> copy) throws CTPException {
+    try {
+      return loadInBackground(key).get(config.getLoadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      servedStale(key, "timeout");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RejectedExecutionException) {
+        servedStale(key, "timeout");
+      } else {
+        servedStale(key, "error");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      servedStale(key, "timeout");
+    }
+    return Optional.of(copy.value);
+  }
+
+  /**
+   * Read an object on the executor, joining the read already in flight for it if there is one.
+   *
+   * @param key - the key of the object.
+   * @return the read, which fails with RejectedExecutionException if the executor is full.
+   */
+  private CompletableFuture<Optional<V>> loadInBackground(String key) {
+    CompletableFuture<Optional<V>> load = new CompletableFuture<>();
+    CompletableFuture<Optional<V>> inFlight = loading.putIfAbsent(key, load);
+    if (inFlight != null) {
+      return inFlight;
+    }
+    try {
+      executor.execute(
+          () -> {
+            try {
+              load.complete(store(key, loader.load(key)));
+            } catch (CTPException | RuntimeException e) {
+              log.warn("Background read failed", kv("cache", name), kv("key", key), e);
+              load.completeExceptionally(e);
+            } finally {
+              loading.remove(key, load);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      loading.remove(key, load);
+      load.completeExceptionally(e);
+    }
+    return load;
+  }
+
+  private Optional<V> store(String key, Optional<V> value) {
+    if (value.isPresent()) {
+      copies.put(key, new CachedCopy<>(value.get(), clock.millis()));
+    } else {
+      copies.remove(key);
+    }
+    return value;
+  }
+
+  private long age(CachedCopy<V> copy) {
+    return clock.millis() - copy.loadedAt;
+  }
+
+  private void servedStale(String key, String reason) {
+    log.debug("Serving stale copy", kv("cache", name), kv("key", key), kv("reason", reason));
+    Counter.builder(STALE_METRIC)
+        .description("Reference data served from a stale copy")
+        .tag("cache", name)
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private static class CachedCopy<V> {
+    private final V value;
+    private final long loadedAt;
+
+    CachedCopy(V value, long loadedAt) {
+      this.value = value;
+      this.loadedAt = loadedAt;
+    }
+  }
+}
@@ -12,7 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import uk.gov.ons.ctp.common.cloud.FirestoreDataStore;
+import uk.gov.ons.ctp.common.cloud.CloudDataStore;
 
 /**
  * This class verifies that RH can get a Firestore connection, by writing an object to the startup
@@ -23,7 +23,7 @@ import uk.gov.ons.ctp.common.cloud.FirestoreDataStore;
 public class StartupRepository {
 
   // Cloud data store access for startup checks only
-  @Autowired FirestoreDataStore nonRetryableCloudDataStore;
+  @Autowired CloudDataStore nonRetryableCloudDataStore;
 
   @Value("${spring.cloud.gcp.firestore.project-id}")
   private String gcpProject;
@@ -1,6 +1,8 @@
 package uk.gov.ons.ctp.integration.rhsvc.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +16,15 @@ import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
 @Service
 public class SurveyRepository {
 
+  private static final String ALL_SURVEYS = "all";
+
   private RetryableCloudDataStore retryableCloudDataStore;
+  private FirestoreReader firestoreReader;
+  private DeadlineAwareReader deadlineAwareReader;
+  private ReferenceDataCaches referenceDataCaches;
+  private RepositoryMetrics repositoryMetrics;
+  private StaleWhileRevalidateCache<SurveyUpdate> surveyCache;
+  private StaleWhileRevalidateCache<List<SurveyUpdate>> surveyListCache;
 
   @Value("${spring.cloud.gcp.firestore.project-id}")
   private String gcpProject;
@@ -27,22 +37,52 @@ public class SurveyRepository {
   @PostConstruct
   public void init() {
     surveySchema = gcpProject + "-" + surveySchemaName.toLowerCase();
+    surveyCache = referenceDataCaches.create("survey", this::loadSurvey);
+    surveyListCache = referenceDataCaches.create("surveyList", k -> Optional.of(loadSurveys()));
   }
 
   @Autowired
-  public SurveyRepository(RetryableCloudDataStore retryableCloudDataStore) {
+  public SurveyRepository(
+      RetryableCloudDataStore retryableCloudDataStore,
+      FirestoreReader firestoreReader,
+      DeadlineAwareReader deadlineAwareReader,
+      ReferenceDataCaches referenceDataCaches,
+      RepositoryMetrics repositoryMetrics) {
     this.retryableCloudDataStore = retryableCloudDataStore;
+    this.firestoreReader = firestoreReader;
+    this.deadlineAwareReader = deadlineAwareReader;
+    this.referenceDataCaches = referenceDataCaches;
+    this.repositoryMetrics = repositoryMetrics;
   }
 
   /**
-   * Read a Survey object from cloud.
+   * Read a Survey object, from the reference data cache if it holds a usable copy.
    *
    * @param surveyId - the unique id of the object stored
    * @return - deserialised version of the stored object
-   * @throws CTPException - if a cloud exception was detected.
+   * @throws CTPException - if a cloud exception was detected and there was no copy to serve.
    */
   public Optional<SurveyUpdate> readSurvey(final String surveyId) throws CTPException {
-    return retryableCloudDataStore.retrieveObject(SurveyUpdate.class, surveySchema, surveyId);
+    return surveyCache.get(surveyId);
+  }
+
+  /**
+   * Read several surveys, reading those without a usable cached copy from cloud in a single round
+   * trip.
+   *
+   * @param surveyIds - the ids of the surveys to read
+   * @return - map from id to the deserialised version of each stored object found
+   * @throws CTPException - if a cloud exception was detected and there were no copies to serve.
+   */
+  public Map<String, SurveyUpdate> readSurveys(final Collection<String> surveyIds)
+      throws CTPException {
+    return surveyCache.getAll(
+        surveyIds,
+        ids ->
+            repositoryMetrics.readMany(
+                surveySchema,
+                "readMany",
+                () -> firestoreReader.retrieveObjects(SurveyUpdate.class, surveySchema, ids)));
   }
 
   /**
@@ -53,7 +93,13 @@ public class SurveyRepository {
    */
   public void writeSurvey(final SurveyUpdate surveyUpdate) throws CTPException {
     String id = surveyUpdate.getSurveyId();
-    retryableCloudDataStore.storeObject(surveySchema, id, surveyUpdate, id);
+    repositoryMetrics.write(
+        surveySchema,
+        "write",
+        surveyUpdate,
+        () -> retryableCloudDataStore.storeObject(surveySchema, id, surveyUpdate, id));
+    surveyCache.put(id, surveyUpdate);
+    surveyListCache.markStale(ALL_SURVEYS);
   }
 
   /**
@@ -62,9 +108,23 @@ public class SurveyRepository {
    * <p>Assumes that this list will never be so large as to be unwieldy.
    *
    * @return list of all the surveyUpdate objects
-   * @throws CTPException - if a cloud exception was detected.
+   * @throws CTPException - if a cloud exception was detected and there was no copy to serve.
    */
   public List<SurveyUpdate> listSurveys() throws CTPException {
-    return retryableCloudDataStore.list(SurveyUpdate.class, surveySchema);
+    return surveyListCache.get(ALL_SURVEYS).orElseGet(List::of);
+  }
+
+  // the loaders are also reached from inbound events, which have no request deadline, so
+  // deadlineAwareReader keeps the cloud-storage backoff for those and bounds only request reads
+  private Optional<SurveyUpdate> loadSurvey(String surveyId) throws CTPException {
+    return repositoryMetrics.read(
+        surveySchema,
+        "read",
+        () -> deadlineAwareReader.retrieveObject(SurveyUpdate.class, surveySchema, surveyId));
+  }
+
+  private List<SurveyUpdate> loadSurveys() throws CTPException {
+    return repositoryMetrics.readMany(
+        surveySchema, "list", () -> deadlineAwareReader.list(SurveyUpdate.class, surveySchema));
   }
 }
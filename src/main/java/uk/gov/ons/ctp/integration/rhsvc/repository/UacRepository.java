@@ -1,5 +1,7 @@
 package uk.gov.ons.ctp.integration.rhsvc.repository;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +16,8 @@ import uk.gov.ons.ctp.common.event.model.UacUpdate;
 public class UacRepository {
 
   private RetryableCloudDataStore retryableCloudDataStore;
+  private DeadlineAwareReader deadlineAwareReader;
+  private RepositoryMetrics repositoryMetrics;
 
   @Value("${spring.cloud.gcp.firestore.project-id}")
   private String gcpProject;
@@ -29,8 +33,13 @@ public class UacRepository {
   }
 
   @Autowired
-  public UacRepository(RetryableCloudDataStore retryableCloudDataStore) {
+  public UacRepository(
+      RetryableCloudDataStore retryableCloudDataStore,
+      DeadlineAwareReader deadlineAwareReader,
+      RepositoryMetrics repositoryMetrics) {
     this.retryableCloudDataStore = retryableCloudDataStore;
+    this.deadlineAwareReader = deadlineAwareReader;
+    this.repositoryMetrics = repositoryMetrics;
   }
 
   /**
@@ -40,7 +49,13 @@ public class UacRepository {
    * @throws CTPException - if a cloud exception was detected.
    */
   public void writeUAC(final UacUpdate uac) throws CTPException {
-    retryableCloudDataStore.storeObject(uacSchema, uac.getUacHash(), uac, uac.getCaseId());
+    repositoryMetrics.write(
+        uacSchema,
+        "write",
+        uac,
+        () ->
+            retryableCloudDataStore.storeObject(
+                uacSchema, uac.getUacHash(), uac, uac.getCaseId()));
   }
 
   /**
@@ -51,7 +66,28 @@ public class UacRepository {
    * @throws CTPException - if a cloud exception was detected.
    */
   public Optional<UacUpdate> readUAC(final String universalAccessCodeHash) throws CTPException {
-    return retryableCloudDataStore.retrieveObject(
-        UacUpdate.class, uacSchema, universalAccessCodeHash);
+    return repositoryMetrics.read(
+        uacSchema,
+        "read",
+        () ->
+            deadlineAwareReader.retrieveObject(
+                UacUpdate.class, uacSchema, universalAccessCodeHash));
+  }
+
+  /**
+   * Read several UACs from cloud in a single round trip.
+   *
+   * @param universalAccessCodeHashes - the hashes of the UACs to read
+   * @return - map from id to the deserialised version of each stored object found
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public Map<String, UacUpdate> readUACs(final Collection<String> universalAccessCodeHashes)
+      throws CTPException {
+    return repositoryMetrics.readMany(
+        uacSchema,
+        "readMany",
+        () ->
+            deadlineAwareReader.retrieveObjects(
+                UacUpdate.class, uacSchema, universalAccessCodeHashes));
   }
 }
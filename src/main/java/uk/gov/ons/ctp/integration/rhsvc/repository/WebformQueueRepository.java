@@ -0,0 +1,75 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.ons.ctp.common.cloud.CloudDataStore;
+import uk.gov.ons.ctp.common.error.CTPException;
+
+/**
+ * A Repository for the webforms waiting to be sent to GOV.UK Notify. Writes are not retried, as
+ * they are made while the caller waits for the webform to be accepted.
+ */
+@Service
+public class WebformQueueRepository {
+
+  private CloudDataStore nonRetryableCloudDataStore;
+  private FirestoreReader firestoreReader;
+
+  @Value("${spring.cloud.gcp.firestore.project-id}")
+  private String gcpProject;
+
+  @Value("${cloud-storage.webform-queue-schema-name}")
+  private String webformQueueSchemaName;
+
+  private String webformQueueSchema;
+
+  @PostConstruct
+  public void init() {
+    webformQueueSchema = gcpProject + "-" + webformQueueSchemaName.toLowerCase();
+  }
+
+  @Autowired
+  public WebformQueueRepository(
+      CloudDataStore nonRetryableCloudDataStore, FirestoreReader firestoreReader) {
+    this.nonRetryableCloudDataStore = nonRetryableCloudDataStore;
+    this.firestoreReader = firestoreReader;
+  }
+
+  /**
+   * Store a queued webform, replacing any previous version of it.
+   *
+   * @param queuedWebform - the queued webform.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public void writeQueuedWebform(final QueuedWebform queuedWebform) throws CTPException {
+    nonRetryableCloudDataStore.storeObject(
+        webformQueueSchema, queuedWebform.getId(), queuedWebform);
+  }
+
+  /**
+   * Remove a webform from the queue, once it has been sent.
+   *
+   * @param id - the id of the queued webform.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public void deleteQueuedWebform(final String id) throws CTPException {
+    nonRetryableCloudDataStore.deleteObject(webformQueueSchema, id);
+  }
+
+  /**
+   * Read one page of the queued webforms, ordered by id.
+   *
+   * @param limit - the maximum number of webforms to read.
+   * @param startAfterId - id of the last webform of the previous page, or null for the first page.
+   * @return the page of queued webforms.
+   * @throws CTPException - if a cloud exception was detected.
+   */
+  public QueryPage<QueuedWebform> readQueuedWebformPage(int limit, String startAfterId)
+      throws CTPException {
+    return firestoreReader.searchPage(
+        QueuedWebform.class, webformQueueSchema, Map.of(), limit, startAfterId);
+  }
+}
@@ -0,0 +1,17 @@
+package uk.gov.ons.ctp.integration.rhsvc.representation;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Representation of one page of the cases found by a search */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaseSearchPageDTO {
+  private List<CaseDTO> cases;
+
+  /** token to request the next page with, or null if this is the last page */
+  private String nextPageToken;
+}
@@ -0,0 +1,14 @@
+package uk.gov.ons.ctp.integration.rhsvc.representation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Representation of a school found by a typeahead search */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchoolDTO {
+  private String schoolId;
+  private String schoolName;
+}
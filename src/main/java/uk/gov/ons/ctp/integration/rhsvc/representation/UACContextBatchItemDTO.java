@@ -0,0 +1,19 @@
+package uk.gov.ons.ctp.integration.rhsvc.representation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Representation of the outcome for one UAC of a batch request. Holds either the claim context or
+ * the error which prevented it from being resolved.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UACContextBatchItemDTO {
+  private String uacHash;
+  private UACContextDTO uacContext;
+  private String errorCode;
+  private String errorMessage;
+}
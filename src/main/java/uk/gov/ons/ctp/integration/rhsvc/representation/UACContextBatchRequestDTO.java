@@ -0,0 +1,21 @@
+package uk.gov.ons.ctp.integration.rhsvc.representation;
+
+import java.util.List;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Representation of a request for the claim context of several UACs */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UACContextBatchRequestDTO {
+  public static final int MAX_BATCH_SIZE = 100;
+
+  @NotEmpty
+  @Size(max = MAX_BATCH_SIZE)
+  private List<@NotBlank String> uacHashes;
+}
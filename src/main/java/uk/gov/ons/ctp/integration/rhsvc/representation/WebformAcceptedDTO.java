@@ -0,0 +1,14 @@
+package uk.gov.ons.ctp.integration.rhsvc.representation;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Response to a webform which has been queued to be sent. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebformAcceptedDTO {
+  private UUID reference;
+}
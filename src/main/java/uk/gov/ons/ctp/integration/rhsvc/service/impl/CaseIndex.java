@@ -0,0 +1,163 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.CaseIndexConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueryPage;
+
+/**
+ * Base of the in-process indexes built from case data. An index is kept up to date from the case
+ * events received by this pod, and rebuilt from Firestore in the background once the application
+ * is ready, and optionally at intervals after that.
+ *
+ * <p>The case event subscription is shared between pods, so an index may be missing cases or hold
+ * stale entries until its next rebuild.
+ *
+ * @param <C> - the type of the index configuration.
+ * @param <E> - the type holding the indexed entries.
+ */
+@Slf4j
+public abstract class CaseIndex<C extends CaseIndexConfig, E extends CaseIndex.Entries> {
+
+  /** The entries of an index. Implementations must be thread safe. */
+  public interface Entries {
+    /**
+     * Index a case.
+     *
+     * @param caseUpdate - the case.
+     * @param replace - true to replace any entries already held for the case; false to leave them.
+     */
+    void put(CaseUpdate caseUpdate, boolean replace);
+
+    int size();
+  }
+
+  protected final C config;
+  protected final boolean enabled;
+  private final String name;
+  private final CaseRepository caseRepository;
+  private final ScheduledExecutorService rebuilder;
+
+  private volatile E entries;
+  private volatile E rebuilding;
+  private volatile boolean ready;
+
+  protected CaseIndex(String name, C config, CaseRepository caseRepository) {
+    this.name = name;
+    this.config = config;
+    this.enabled = config != null && config.isEnabled();
+    this.caseRepository = caseRepository;
+    if (enabled) {
+      log.info("Case index enabled", kv("index", name), kv("config", config));
+      this.entries = newEntries();
+      this.rebuilder =
+          Executors.newSingleThreadScheduledExecutor(
+              r -> {
+                Thread thread = new Thread(r, name + "-rebuild");
+                thread.setDaemon(true);
+                return thread;
+              });
+    } else {
+      this.rebuilder = null;
+    }
+  }
+
+  /**
+   * Create an empty set of entries. Called from the constructor, so may only use the config.
+   *
+   * @return the empty entries.
+   */
+  protected abstract E newEntries();
+
+  /** Start building the index, and schedule any periodic rebuilds. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void scheduleRebuild() {
+    if (enabled) {
+      Duration interval = config.getRebuildInterval();
+      if (interval == null || interval.isZero()) {
+        rebuilder.execute(this::rebuild);
+      } else {
+        rebuilder.scheduleWithFixedDelay(
+            this::rebuild, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (rebuilder != null) {
+      rebuilder.shutdownNow();
+    }
+  }
+
+  /**
+   * Index, or re-index, a case which has been received.
+   *
+   * @param caseUpdate - the latest version of the case.
+   */
+  public void index(CaseUpdate caseUpdate) {
+    if (enabled) {
+      entries.put(caseUpdate, true);
+      E building = rebuilding;
+      if (building != null) {
+        building.put(caseUpdate, true);
+      }
+    }
+  }
+
+  /**
+   * The entries to answer lookups from.
+   *
+   * @return the entries, or null if the index is disabled or has not yet been built.
+   */
+  protected E readyEntries() {
+    return ready ? entries : null;
+  }
+
+  /** Rebuild the index by reading every case from Firestore, a page at a time. */
+  void rebuild() {
+    long startTime = System.currentTimeMillis();
+    E building = newEntries();
+    rebuilding = building;
+    try {
+      int numberOfCases = 0;
+      String startAfterCaseId = null;
+      do {
+        QueryPage<CaseUpdate> page =
+            caseRepository.readCaseUpdatePage(config.getRebuildPageSize(), startAfterCaseId);
+        // a case received while rebuilding is newer than the copy read from Firestore
+        page.getResults().forEach(c -> building.put(c, false));
+        numberOfCases += page.getResults().size();
+        startAfterCaseId = page.getNextStartAfterKey();
+      } while (startAfterCaseId != null);
+
+      entries = building;
+      ready = true;
+      log.info(
+          "Case index rebuilt",
+          kv("index", name),
+          kv("numberOfCases", numberOfCases),
+          kv("indexSize", building.size()),
+          kv("elapsedMillis", System.currentTimeMillis() - startTime));
+    } catch (Exception e) {
+      // keep the current entries, which are still maintained by case events
+      log.error("Failed to rebuild case index", kv("index", name), e);
+    } finally {
+      rebuilding = null;
+    }
+  }
+
+  boolean isReady() {
+    return ready;
+  }
+}
@@ -3,18 +3,24 @@ package uk.gov.ons.ctp.integration.rhsvc.service.impl;
 import static java.util.stream.Collectors.toList;
 import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
-import ma.glasnost.orika.MapperFacade;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.util.Strings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import uk.gov.ons.ctp.common.domain.Channel;
 import uk.gov.ons.ctp.common.domain.DeliveryChannel;
@@ -35,10 +41,17 @@ import uk.gov.ons.ctp.common.event.model.SurveyFulfilment;
 import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient.Domain;
+import uk.gov.ons.ctp.integration.rhsvc.DtoMapper;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.CaseSearchConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueryPage;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseSearchPageDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.FulfilmentRequestDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.NewCaseDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.PrintFulfilmentRequestDTO;
@@ -50,23 +63,160 @@ public class CaseServiceImpl {
   @Autowired private AppConfig appConfig;
   @Autowired private CaseRepository dataRepo;
   @Autowired private SurveyRepository surveyRepository;
-  @Autowired private MapperFacade mapperFacade;
+  @Autowired private DtoMapper dtoMapper;
   @Autowired private EventPublisher eventPublisher;
   @Autowired private RateLimiterClient rateLimiterClient;
+  @Autowired private LocalRateLimiter localRateLimiter;
+  @Autowired private FanOut fanOut;
+  @Autowired private SampleAttributeIndex sampleAttributeIndex;
+
+  @Autowired
+  @Qualifier("envoyLimiterBulkhead")
+  private Bulkhead envoyLimiterBulkhead;
+
+  @Autowired
+  @Qualifier("eventPublisherBulkhead")
+  private Bulkhead eventPublisherBulkhead;
 
   private static final DateTimeFormatter DOB_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+  /** Receives the cases found by a streamed search, one page at a time. */
+  @FunctionalInterface
+  public interface CasePageHandler {
+    void accept(List<CaseDTO> cases) throws IOException;
+  }
+
   public List<CaseDTO> findCasesBySampleAttribute(
       final String attributeKey, final String attributeValue) throws CTPException {
 
-    List<CaseUpdate> foundCases =
-        dataRepo.findCaseUpdatesBySampleAttribute(attributeKey, attributeValue, true);
+    List<CaseUpdate> foundCases = findIndexedCases(attributeKey, attributeValue);
+    if (foundCases == null) {
+      foundCases = dataRepo.findCaseUpdatesBySampleAttribute(attributeKey, attributeValue, true);
+    }
     log.debug(
         "Search for cases by attribute value",
         kv("numberFoundCase", foundCases.size()),
         kv("searchAttributeName", attributeKey),
         kv("searchValue", attributeValue));
-    return mapperFacade.mapAsList(foundCases, CaseDTO.class);
+    return dtoMapper.toCaseDTOs(foundCases);
+  }
+
+  /**
+   * Find the valid cases which the sample attribute index holds against an attribute value. The
+   * index may be stale, so the cases are read back and checked against the value.
+   *
+   * @param attributeKey - is the name of the field in the sample data to search by.
+   * @param attributeValue - is the value that target case(s) must contain.
+   * @return the matching cases in caseId order, or null if the index has no answer.
+   * @throws CTPException if the cases could not be read.
+   */
+  private List<CaseUpdate> findIndexedCases(String attributeKey, String attributeValue)
+      throws CTPException {
+    Optional<Set<String>> caseIds = sampleAttributeIndex.findCaseIds(attributeKey, attributeValue);
+    if (caseIds.isEmpty()) {
+      return null;
+    }
+    if (caseIds.get().isEmpty()) {
+      return List.of();
+    }
+    return dataRepo.readCaseUpdates(caseIds.get()).values().stream()
+        .filter(c -> !c.isInvalid())
+        .filter(c -> c.getSample() != null)
+        .filter(c -> attributeValue.equals(c.getSample().get(attributeKey)))
+        .sorted(Comparator.comparing(CaseUpdate::getCaseId))
+        .collect(toList());
+  }
+
+  /**
+   * Find one page of the valid cases which match the supplied sample attribute name/value. Cases
+   * are returned in caseId order, so that the page token of one page resumes the search where it
+   * left off.
+   *
+   * @param attributeKey - is the name of the field in the sample data to search by.
+   * @param attributeValue - is the value that target case(s) must contain.
+   * @param limit - the maximum number of cases to return, or null for the default page size.
+   * @param pageToken - the token returned with the previous page, or null for the first page.
+   * @return the page of cases, along with the token for the next page if there is one.
+   * @throws CTPException if the limit or page token is invalid, or the search failed.
+   */
+  public CaseSearchPageDTO findCasesBySampleAttribute(
+      final String attributeKey, final String attributeValue, Integer limit, String pageToken)
+      throws CTPException {
+    CaseSearchConfig searchConfig = appConfig.getCaseSearch();
+    int pageSize = limit == null ? searchConfig.getDefaultPageSize() : limit;
+    if (pageSize < 1 || pageSize > searchConfig.getMaxPageSize()) {
+      String message = "The limit must be between 1 and " + searchConfig.getMaxPageSize();
+      log.warn(message, kv("limit", limit));
+      throw new CTPException(Fault.BAD_REQUEST, message);
+    }
+    return findCasePage(attributeKey, attributeValue, pageSize, decodePageToken(pageToken));
+  }
+
+  /**
+   * Find all valid cases which match the supplied sample attribute name/value, handing them over
+   * a page at a time so that only one page is held in memory however many cases match.
+   *
+   * @param attributeKey - is the name of the field in the sample data to search by.
+   * @param attributeValue - is the value that target case(s) must contain.
+   * @param handler - receives each page of cases in turn.
+   * @throws CTPException if the search failed.
+   * @throws IOException if the handler failed to write out a page.
+   */
+  public void streamCasesBySampleAttribute(
+      final String attributeKey, final String attributeValue, CasePageHandler handler)
+      throws CTPException, IOException {
+    int pageSize = appConfig.getCaseSearch().getStreamPageSize();
+    int numberFoundCase = 0;
+    String startAfterCaseId = null;
+    do {
+      CaseSearchPageDTO page =
+          findCasePage(attributeKey, attributeValue, pageSize, startAfterCaseId);
+      handler.accept(page.getCases());
+      numberFoundCase += page.getCases().size();
+      startAfterCaseId = decodePageToken(page.getNextPageToken());
+    } while (startAfterCaseId != null);
+    log.debug(
+        "Streamed cases by attribute value",
+        kv("numberFoundCase", numberFoundCase),
+        kv("searchAttributeName", attributeKey),
+        kv("searchValue", attributeValue));
+  }
+
+  private CaseSearchPageDTO findCasePage(
+      String attributeKey, String attributeValue, int pageSize, String startAfterCaseId)
+      throws CTPException {
+    QueryPage<CaseUpdate> foundCases =
+        dataRepo.findCaseUpdatesBySampleAttribute(
+            attributeKey, attributeValue, true, pageSize, startAfterCaseId);
+    log.debug(
+        "Search for page of cases by attribute value",
+        kv("numberFoundCase", foundCases.getResults().size()),
+        kv("searchAttributeName", attributeKey),
+        kv("searchValue", attributeValue));
+    return new CaseSearchPageDTO(
+        dtoMapper.toCaseDTOs(foundCases.getResults()),
+        encodePageToken(foundCases.getNextStartAfterKey()));
+  }
+
+  private String encodePageToken(String startAfterCaseId) {
+    if (startAfterCaseId == null) {
+      return null;
+    }
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(startAfterCaseId.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String decodePageToken(String pageToken) throws CTPException {
+    if (pageToken == null) {
+      return null;
+    }
+    try {
+      return new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      log.warn("Invalid page token", kv("pageToken", pageToken));
+      throw new CTPException(Fault.BAD_REQUEST, "Invalid page token");
+    }
   }
 
   //  /**
@@ -91,10 +241,13 @@ public class CaseServiceImpl {
     Contact contact = new Contact();
     contact.setForename(requestBodyDTO.getForename());
     contact.setSurname(requestBodyDTO.getSurname());
+    validateContactName(contact);
+    // each read depends on the previous one, so they cannot overlap
     CaseUpdate caseDetails = findCaseDetails(requestBodyDTO.getCaseId());
     SurveyUpdate surveyUpdate = surveyRepository.readSurvey(caseDetails.getSurveyId()).get();
     var products = createProductList(DeliveryChannel.POST, requestBodyDTO, surveyUpdate);
-    validateContactName(contact);
+    // once the rate limits are charged the fulfilments are sent, so only abandon before then
+    RequestDeadline.check("requesting fulfilments");
     recordRateLimiting(contact, requestBodyDTO.getClientIP(), products, caseDetails);
     createAndSendFulfilments(DeliveryChannel.POST, requestBodyDTO, contact, products);
   }
@@ -110,7 +263,11 @@ public class CaseServiceImpl {
 
     NewCasePayloadContent payload = createNewCaseRequestPayload(newCaseDTO, collectionExerciseId);
 
-    eventPublisher.sendEvent(TopicType.NEW_CASE, Source.RESPONDENT_HOME, Channel.RH, payload);
+    RequestDeadline.check("publishing NewCase event");
+    eventPublisherBulkhead.execute(
+        () ->
+            eventPublisher.sendEvent(
+                TopicType.NEW_CASE, Source.RESPONDENT_HOME, Channel.RH, payload));
   }
 
   private NewCasePayloadContent createNewCaseRequestPayload(
@@ -162,7 +319,7 @@ public class CaseServiceImpl {
    * this prevents multiple calls to repeat getting products details.
    * NOTE: must return list in order of fulfilmentCodes
    */
-  private List<Product> createProductList(
+  List<Product> createProductList(
       DeliveryChannel deliveryChannel, FulfilmentRequestDTO request, SurveyUpdate surveyUpdate)
       throws CTPException {
     Map<String, Product> map = new HashMap<>();
@@ -198,17 +355,26 @@ public class CaseServiceImpl {
   private void recordRateLimiting(
       Contact contact, String ipAddress, List<Product> products, CaseUpdate caseDetails)
       throws CTPException {
-    if (appConfig.getRateLimiter().isEnabled()) {
-      for (Product product : products) {
-        log.debug("Recording rate-limiting", kv("fulfilmentCode", product.getFulfilmentCode()));
-        UniquePropertyReferenceNumber uprn =
-            UniquePropertyReferenceNumber.create(
-                caseDetails.getSample().get(CaseUpdate.ATTRIBUTE_UPRN));
-        recordRateLimiting(contact, product, ipAddress, uprn);
-      }
-    } else {
+    if (!appConfig.getRateLimiter().isEnabled()) {
       log.info("Rate limiter client is disabled");
+      return;
+    }
+    String uprnValue = caseDetails.getSample().get(CaseUpdate.ATTRIBUTE_UPRN);
+    UniquePropertyReferenceNumber uprn = UniquePropertyReferenceNumber.create(uprnValue);
+
+    // reject requests which are obviously over the limits before calling the rate limiter
+    for (Product product : products) {
+      localRateLimiter.checkFulfilment(product, ipAddress, uprn);
+    }
+
+    // the rate limiter has no batch check, so check the products concurrently. Every check is
+    // made even if one is rejected, so the other products are still counted against the limits
+    List<FanOut.Call> calls = new ArrayList<>();
+    for (Product product : products) {
+      log.debug("Recording rate-limiting", kv("fulfilmentCode", product.getFulfilmentCode()));
+      calls.add(() -> recordRateLimiting(contact, product, ipAddress, uprn));
     }
+    fanOut.runAll(calls);
   }
 
   /*
@@ -222,26 +388,36 @@ public class CaseServiceImpl {
       Contact contact, Product product, String ipAddress, UniquePropertyReferenceNumber uprn)
       throws CTPException {
 
-    rateLimiterClient.checkFulfilmentRateLimit(
-        Domain.RH, product, ipAddress, uprn, contact.getTelNo());
+    envoyLimiterBulkhead.run(
+        () ->
+            rateLimiterClient.checkFulfilmentRateLimit(
+                Domain.RH, product, ipAddress, uprn, contact.getTelNo()));
   }
 
   private void createAndSendFulfilments(
       DeliveryChannel deliveryChannel,
       FulfilmentRequestDTO request,
       Contact contact,
-      List<Product> products) {
+      List<Product> products)
+      throws CTPException {
     log.debug(
         "Entering createAndSendFulfilment",
         kv("fulfilmentCodes", request.getFulfilmentCodes()),
         kv("deliveryChannel", deliveryChannel));
 
+    List<FanOut.Call> publishes = new ArrayList<>();
     for (Product product : products) {
       FulfilmentRequest payload =
           createFulfilmentRequestPayload(request.getCaseId(), contact, product);
 
-      eventPublisher.sendEvent(TopicType.FULFILMENT, Source.RESPONDENT_HOME, Channel.RH, payload);
+      publishes.add(
+          () ->
+              eventPublisherBulkhead.execute(
+                  () ->
+                      eventPublisher.sendEvent(
+                          TopicType.FULFILMENT, Source.RESPONDENT_HOME, Channel.RH, payload)));
     }
+    fanOut.runAll(publishes);
   }
 
   private FulfilmentRequest createFulfilmentRequestPayload(
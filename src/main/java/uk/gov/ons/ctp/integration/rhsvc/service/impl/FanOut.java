@@ -0,0 +1,149 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.FanOutConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+/**
+ * Runs the independent calls made while handling one request concurrently, so that the request
+ * waits for the slowest call rather than for the sum of them. The calls are run with the deadline
+ * of the request. Once the pool and its queue are full, calls are run on the request thread.
+ */
+@Slf4j
+@Component
+public class FanOut {
+
+  /** A call made for the request. */
+  @FunctionalInterface
+  public interface Call {
+    void run() throws CTPException;
+  }
+
+  private final ExecutorService executor;
+
+  @Autowired
+  public FanOut(AppConfig appConfig) {
+    this(createExecutor(appConfig.getFanOut()));
+  }
+
+  FanOut(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Run calls concurrently, and wait for all of them to finish. A single call is run on the request
+   * thread.
+   *
+   * @param calls - the calls.
+   * @throws CTPException - the exception thrown by the first failed call, in list order.
+   * @throws RuntimeException - the runtime exception thrown by the first failed call, eg a
+   *     ResponseStatusException.
+   */
+  public void runAll(List<Call> calls) throws CTPException {
+    if (calls.size() == 1) {
+      calls.get(0).run();
+      return;
+    }
+    Optional<Duration> remaining = RequestDeadline.remaining();
+    long submittedAt = System.nanoTime();
+    List<Future<?>> futures = new ArrayList<>(calls.size());
+    for (Call call : calls) {
+      futures.add(executor.submit(() -> runWithDeadline(call, remaining, submittedAt)));
+    }
+
+    Throwable failure = null;
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(f -> f.cancel(true));
+        throw new CTPException(Fault.SYSTEM_ERROR, e, "Interrupted waiting for calls");
+      }
+    }
+    if (failure != null) {
+      rethrow(failure);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static ExecutorService createExecutor(FanOutConfig config) {
+    if (config == null) {
+      config = new FanOutConfig();
+    }
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            config.getThreads(),
+            config.getThreads(),
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(config.getQueueSize()),
+            r -> {
+              Thread thread = new Thread(r, "fan-out-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private Void runWithDeadline(Call call, Optional<Duration> remaining, long submittedAt)
+      throws CTPException {
+    // a call run by CallerRunsPolicy is already on the request thread, and has its deadline
+    boolean propagate = remaining.isPresent() && !RequestDeadline.isSet();
+    if (propagate) {
+      RequestDeadline.start(remaining.get().minusNanos(System.nanoTime() - submittedAt));
+    }
+    try {
+      call.run();
+      return null;
+    } finally {
+      if (propagate) {
+        RequestDeadline.clear();
+      }
+    }
+  }
+
+  private void rethrow(Throwable failure) throws CTPException {
+    if (failure instanceof CTPException) {
+      throw (CTPException) failure;
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    log.error("Unexpected failure of concurrent call", kv("failure", failure.getMessage()));
+    throw new CTPException(Fault.SYSTEM_ERROR, failure, "Concurrent call failed");
+  }
+}
@@ -0,0 +1,159 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.LaunchDataCacheConfig;
+import uk.gov.ons.ctp.integration.rhsvc.representation.LaunchDataDTO;
+
+/**
+ * Short lived cache of the launch data gathered when a UAC is claimed, so that the EQ launch which
+ * normally follows a few seconds later does not need to read it all again. Entries are removed
+ * when taken, when they expire, or when an update arrives for the UAC or its case.
+ *
+ * <p>Updates arrive on a subscription shared between the pods, so only the pod receiving an update
+ * evicts for it. Other pods may hold the earlier data until it expires, which is why the launch
+ * reads the UAC again before using data taken from here. Data gathered before an eviction on this
+ * pod is not parked after it.
+ */
+@Slf4j
+@Component
+public class LaunchDataCache {
+  private final boolean enabled;
+  private final Cache<String, LaunchDataDTO> cache;
+  // time (nanos) of the last eviction of each UAC and case, to refuse data gathered before it
+  private final Cache<String, Long> evictions;
+  private final Map<String, Set<String>> uacHashesByCaseId = new ConcurrentHashMap<>();
+
+  public LaunchDataCache(AppConfig appConfig) {
+    LaunchDataCacheConfig config = appConfig.getLaunchDataCache();
+    this.enabled = config != null && config.isEnabled();
+    if (enabled) {
+      log.info("Launch data cache enabled", kv("config", config));
+      this.cache =
+          CacheBuilder.newBuilder()
+              .maximumSize(config.getMaximumSize())
+              .expireAfterWrite(config.getTimeToLive())
+              .removalListener(this::onRemoval)
+              .build();
+      this.evictions =
+          CacheBuilder.newBuilder()
+              .maximumSize(config.getMaximumSize())
+              .expireAfterWrite(config.getTimeToLive())
+              .build();
+    } else {
+      this.cache = null;
+      this.evictions = null;
+    }
+  }
+
+  /**
+   * Park the launch data for a UAC, unless the UAC or its case has been evicted since the data
+   * started to be gathered.
+   *
+   * @param uacHash - hash of the UAC.
+   * @param launchData - data gathered for the UAC.
+   * @param gatheredFrom - time (from {@link System#nanoTime()}) before the data was read.
+   */
+  public void put(String uacHash, LaunchDataDTO launchData, long gatheredFrom) {
+    if (enabled) {
+      String caseId = launchData.getCaseUpdate().getCaseId();
+      if (evictedSince(uacHash, caseId, gatheredFrom)) {
+        return;
+      }
+      cache.put(uacHash, launchData);
+      uacHashesByCaseId.computeIfAbsent(caseId, k -> ConcurrentHashMap.newKeySet()).add(uacHash);
+      // an eviction between the check above and the put is recorded before it invalidates
+      if (evictedSince(uacHash, caseId, gatheredFrom)) {
+        cache.asMap().remove(uacHash, launchData);
+      }
+    }
+  }
+
+  /**
+   * Take, and remove, the launch data parked for a UAC.
+   *
+   * @param uacHash - hash of the UAC.
+   * @return the launch data, or null if there is none.
+   */
+  public LaunchDataDTO take(String uacHash) {
+    if (!enabled) {
+      return null;
+    }
+    return cache.asMap().remove(uacHash);
+  }
+
+  /**
+   * Discard any launch data held for a UAC.
+   *
+   * @param uacHash - hash of the UAC which has been updated.
+   */
+  public void evictUac(String uacHash) {
+    if (enabled) {
+      evictions.put(uacKey(uacHash), System.nanoTime());
+      cache.invalidate(uacHash);
+    }
+  }
+
+  /**
+   * Discard any launch data held for UACs of a case.
+   *
+   * @param caseId - id of the case which has been updated.
+   */
+  public void evictCase(String caseId) {
+    if (enabled) {
+      evictions.put(caseKey(caseId), System.nanoTime());
+      Set<String> uacHashes = uacHashesByCaseId.remove(caseId);
+      if (uacHashes != null) {
+        cache.invalidateAll(uacHashes);
+      }
+    }
+  }
+
+  long size() {
+    return enabled ? cache.size() : 0;
+  }
+
+  private boolean evictedSince(String uacHash, String caseId, long gatheredFrom) {
+    return evictedSince(uacKey(uacHash), gatheredFrom)
+        || evictedSince(caseKey(caseId), gatheredFrom);
+  }
+
+  private boolean evictedSince(String key, long gatheredFrom) {
+    Long evictedAt = evictions.getIfPresent(key);
+    return evictedAt != null && evictedAt - gatheredFrom >= 0;
+  }
+
+  private static String uacKey(String uacHash) {
+    return "uac:" + uacHash;
+  }
+
+  private static String caseKey(String caseId) {
+    return "case:" + caseId;
+  }
+
+  private void onRemoval(RemovalNotification<String, LaunchDataDTO> notification) {
+    // a replaced entry is re-mapped by put()
+    if (notification.getCause() != RemovalCause.REPLACED) {
+      removeCaseMapping(notification.getValue().getCaseUpdate().getCaseId(), notification.getKey());
+    }
+  }
+
+  private void removeCaseMapping(String caseId, String uacHash) {
+    uacHashesByCaseId.computeIfPresent(
+        caseId,
+        (k, uacHashes) -> {
+          uacHashes.remove(uacHash);
+          return uacHashes.isEmpty() ? null : uacHashes;
+        });
+  }
+}
@@ -0,0 +1,119 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.SampleIndexConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+
+/**
+ * In-process index from sample attribute value to the ids of the cases which hold it, for the
+ * attributes that cases are searched by.
+ *
+ * <p>A search answered from the index must find every matching case, so the index only answers
+ * once it has been fully built and when it is configured as receiving every case event. With the
+ * case event subscription shared between pods it would be missing the cases received by other
+ * pods, eg a case created through another pod, and so answers nothing. When it does answer, a
+ * value with no cases is an answer of no matches. An entry may still be briefly stale, while a
+ * received case is being indexed, so callers must check hits against the stored cases.
+ */
+@Component
+public class SampleAttributeIndex
+    extends CaseIndex<SampleIndexConfig, SampleAttributeIndex.AttributeEntries> {
+
+  public SampleAttributeIndex(AppConfig appConfig, CaseRepository caseRepository) {
+    super("sample-index", appConfig.getSampleIndex(), caseRepository);
+  }
+
+  @Override
+  protected AttributeEntries newEntries() {
+    return new AttributeEntries(config.getAttributes());
+  }
+
+  /**
+   * Find the ids of the cases indexed against a sample attribute value.
+   *
+   * @param attributeKey - the name of the sample attribute.
+   * @param attributeValue - the value of the sample attribute.
+   * @return the ids of the indexed cases, which is an empty set if no case holds the value, or
+   *     empty if the index cannot answer, ie it is disabled, not yet built, does not receive every
+   *     case event, or does not cover the attribute.
+   */
+  public Optional<Set<String>> findCaseIds(String attributeKey, String attributeValue) {
+    AttributeEntries entries = readyEntries();
+    if (entries == null
+        || !config.isCompleteEventFeed()
+        || !config.getAttributes().contains(attributeKey)) {
+      return Optional.empty();
+    }
+    return Optional.of(entries.find(attributeKey, attributeValue));
+  }
+
+  /** The indexed values, and the reverse mapping needed to re-index a changed case. */
+  static class AttributeEntries implements CaseIndex.Entries {
+    private final Set<String> attributes;
+    private final Map<String, Map<String, Set<String>>> caseIdsByValue = new HashMap<>();
+    private final Map<String, Map<String, String>> valuesByCaseId = new HashMap<>();
+
+    AttributeEntries(Set<String> attributes) {
+      this.attributes = attributes;
+    }
+
+    @Override
+    public synchronized void put(CaseUpdate caseUpdate, boolean replace) {
+      String caseId = caseUpdate.getCaseId();
+      if (!replace && valuesByCaseId.containsKey(caseId)) {
+        return;
+      }
+      remove(caseId);
+
+      Map<String, String> sample = caseUpdate.getSample();
+      Map<String, String> values = new HashMap<>();
+      if (sample != null) {
+        for (String attribute : attributes) {
+          String value = sample.get(attribute);
+          if (value != null) {
+            values.put(attribute, value);
+            caseIdsByValue
+                .computeIfAbsent(attribute, k -> new HashMap<>())
+                .computeIfAbsent(value, k -> new HashSet<>())
+                .add(caseId);
+          }
+        }
+      }
+      if (!values.isEmpty()) {
+        valuesByCaseId.put(caseId, values);
+      }
+    }
+
+    @Override
+    public synchronized int size() {
+      return valuesByCaseId.size();
+    }
+
+    synchronized Set<String> find(String attribute, String value) {
+      Set<String> caseIds = caseIdsByValue.getOrDefault(attribute, Map.of()).get(value);
+      return caseIds == null ? Set.of() : Set.copyOf(caseIds);
+    }
+
+    private void remove(String caseId) {
+      Map<String, String> values = valuesByCaseId.remove(caseId);
+      if (values != null) {
+        values.forEach(
+            (attribute, value) -> {
+              Map<String, Set<String>> byValue = caseIdsByValue.get(attribute);
+              Set<String> caseIds = byValue.get(value);
+              caseIds.remove(caseId);
+              if (caseIds.isEmpty()) {
+                byValue.remove(value);
+              }
+            });
+      }
+    }
+  }
+}
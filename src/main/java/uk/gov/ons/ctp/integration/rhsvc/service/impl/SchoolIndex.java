@@ -0,0 +1,141 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.springframework.stereotype.Component;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.NewCasePayloadContent;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.SchoolIndexConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SchoolDTO;
+
+/**
+ * In-process prefix index of the schools named in case sample data, for typeahead searches. A
+ * school can be found by the start of its id, or by the start of any word of its name.
+ *
+ * <p>Schools are only ever added or renamed, so a school whose cases have all moved to another
+ * school stays in the index until its next rebuild.
+ */
+@Component
+public class SchoolIndex extends CaseIndex<SchoolIndexConfig, SchoolIndex.SchoolEntries> {
+
+  public SchoolIndex(AppConfig appConfig, CaseRepository caseRepository) {
+    super("school-index", appConfig.getSchoolIndex(), caseRepository);
+  }
+
+  @Override
+  protected SchoolEntries newEntries() {
+    return new SchoolEntries();
+  }
+
+  /**
+   * Find the schools whose id, or a word of whose name, starts with a prefix. Case, punctuation and
+   * repeated spaces are ignored.
+   *
+   * @param prefix - the start of the school id or name.
+   * @param limit - the maximum number of schools to return.
+   * @return the matching schools, in order of the matched term; empty if the index is disabled or
+   *     has not yet been built.
+   */
+  public List<SchoolDTO> findSchools(String prefix, int limit) {
+    SchoolEntries entries = readyEntries();
+    return entries == null ? List.of() : entries.find(prefix, limit);
+  }
+
+  static String normalise(String text) {
+    return text.toLowerCase(Locale.ROOT)
+        .replace("'", "")
+        .replaceAll("[^\\p{L}\\p{N}]+", " ")
+        .trim();
+  }
+
+  /**
+   * The schools, and a sorted map from each searchable term to the school it belongs to. Terms are
+   * keyed with the school id appended, so that schools sharing a term are all held.
+   */
+  static class SchoolEntries implements CaseIndex.Entries {
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final Map<String, String> namesById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, String> idsByTerm = new ConcurrentSkipListMap<>();
+
+    @Override
+    public synchronized void put(CaseUpdate caseUpdate, boolean replace) {
+      Map<String, String> sample = caseUpdate.getSample();
+      if (sample == null) {
+        return;
+      }
+      String schoolId = sample.get(NewCasePayloadContent.ATTRIBUTE_SCHOOL_ID);
+      String schoolName =
+          Objects.toString(sample.get(NewCasePayloadContent.ATTRIBUTE_SCHOOL_NAME), "");
+      if (schoolId == null || schoolId.isBlank()) {
+        return;
+      }
+
+      String oldName = namesById.get(schoolId);
+      if (oldName != null) {
+        if (!replace || oldName.equals(schoolName)) {
+          return;
+        }
+        terms(schoolId, oldName).forEach(term -> idsByTerm.remove(key(term, schoolId)));
+      }
+      namesById.put(schoolId, schoolName);
+      terms(schoolId, schoolName).forEach(term -> idsByTerm.put(key(term, schoolId), schoolId));
+    }
+
+    @Override
+    public int size() {
+      return namesById.size();
+    }
+
+    List<SchoolDTO> find(String prefix, int limit) {
+      String from = normalise(prefix);
+      if (from.isEmpty()) {
+        return List.of();
+      }
+      String to = from + Character.MAX_VALUE;
+
+      Set<String> schoolIds = new LinkedHashSet<>();
+      for (String schoolId : idsByTerm.subMap(from, to).values()) {
+        schoolIds.add(schoolId);
+        if (schoolIds.size() >= limit) {
+          break;
+        }
+      }
+
+      List<SchoolDTO> schools = new ArrayList<>(schoolIds.size());
+      for (String schoolId : schoolIds) {
+        String schoolName = namesById.get(schoolId);
+        if (schoolName != null) {
+          schools.add(new SchoolDTO(schoolId, schoolName));
+        }
+      }
+      return schools;
+    }
+
+    private static Set<String> terms(String schoolId, String schoolName) {
+      Set<String> terms = new LinkedHashSet<>();
+      terms.add(normalise(schoolId));
+      String name = normalise(schoolName);
+      if (!name.isEmpty()) {
+        terms.add(name);
+        for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+          terms.add(name.substring(i + 1));
+        }
+      }
+      return terms;
+    }
+
+    private static String key(String term, String schoolId) {
+      return term + KEY_SEPARATOR + schoolId;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.SchoolIndexConfig;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SchoolDTO;
+
+/** Implementation to find schools for the new case registration journey */
+@Slf4j
+@Service
+public class SchoolServiceImpl {
+  @Autowired private AppConfig appConfig;
+  @Autowired private SchoolIndex schoolIndex;
+
+  /**
+   * Find the schools whose id, or a word of whose name, starts with a prefix. This only uses the
+   * in-process school index, never Firestore.
+   *
+   * @param prefix - the start of the school id or name.
+   * @param limit - the maximum number of schools to return, or null for the default. Limits above
+   *     the configured maximum are reduced to it.
+   * @return the matching schools.
+   * @throws CTPException if the school index is not enabled, the prefix is too short or the limit
+   *     is less than 1.
+   * @throws ResponseStatusException with status 503 if the school index has not yet been built.
+   */
+  public List<SchoolDTO> findSchools(String prefix, Integer limit) throws CTPException {
+    SchoolIndexConfig config = appConfig.getSchoolIndex();
+    if (config == null || !config.isEnabled()) {
+      log.warn("School search requested but the school index is not enabled");
+      throw new CTPException(Fault.RESOURCE_NOT_FOUND, "School search is not enabled");
+    }
+    if (prefix == null || SchoolIndex.normalise(prefix).length() < config.getMinPrefixLength()) {
+      String message =
+          "The prefix must be at least " + config.getMinPrefixLength() + " characters long";
+      log.warn(message, kv("prefix", prefix));
+      throw new CTPException(Fault.BAD_REQUEST, message);
+    }
+    if (limit != null && limit < 1) {
+      log.warn("Invalid limit", kv("limit", limit));
+      throw new CTPException(Fault.BAD_REQUEST, "The limit must be at least 1");
+    }
+    if (!schoolIndex.isReady()) {
+      log.warn("School search requested before the school index has been built");
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, "School search is not yet available");
+    }
+    int requested = limit == null ? config.getDefaultLimit() : limit;
+    int maxSchools = Math.min(requested, config.getMaxLimit());
+    return schoolIndex.findSchools(prefix, maxSchools);
+  }
+}
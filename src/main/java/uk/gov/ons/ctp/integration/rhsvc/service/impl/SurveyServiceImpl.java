@@ -11,7 +11,7 @@ import uk.gov.ons.ctp.common.domain.ProductGroup;
 import uk.gov.ons.ctp.common.error.CTPException;
 import uk.gov.ons.ctp.common.event.model.SurveyFulfilment;
 import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
-import uk.gov.ons.ctp.integration.rhsvc.RHSvcBeanMapper;
+import uk.gov.ons.ctp.integration.rhsvc.DtoMapper;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 import uk.gov.ons.ctp.integration.rhsvc.representation.ProductDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyDTO;
@@ -19,9 +19,9 @@ import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyDTO;
 @Service
 public class SurveyServiceImpl {
   private SurveyRepository dataRepo;
-  private RHSvcBeanMapper mapper;
+  private DtoMapper mapper;
 
-  public SurveyServiceImpl(SurveyRepository dataRepo, RHSvcBeanMapper mapper) {
+  public SurveyServiceImpl(SurveyRepository dataRepo, DtoMapper mapper) {
     this.dataRepo = dataRepo;
     this.mapper = mapper;
   }
@@ -47,7 +47,7 @@ public class SurveyServiceImpl {
   }
 
   private SurveyDTO from(SurveyUpdate surveyUpdate) {
-    SurveyDTO dto = mapper.map(surveyUpdate, SurveyDTO.class);
+    SurveyDTO dto = mapper.toSurveyDTO(surveyUpdate);
     dto.setSurveyType(surveyUpdate.surveyType());
 
     List<ProductDTO> products = new ArrayList<>();
@@ -68,7 +68,7 @@ public class SurveyServiceImpl {
       return;
     }
     for (SurveyFulfilment f : fulfilments) {
-      ProductDTO product = mapper.map(f, ProductDTO.class);
+      ProductDTO product = mapper.toProductDTO(f);
       product.setDeliveryChannel(deliveryChannel);
       product.setProductGroup(ProductGroup.UAC);
       products.add(product);
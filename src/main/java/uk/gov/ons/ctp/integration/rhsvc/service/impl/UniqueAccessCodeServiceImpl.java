@@ -2,12 +2,24 @@ package uk.gov.ons.ctp.integration.rhsvc.service.impl;
 
 import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
-import ma.glasnost.orika.MapperFacade;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import uk.gov.ons.ctp.common.domain.Channel;
 import uk.gov.ons.ctp.common.domain.Source;
 import uk.gov.ons.ctp.common.error.CTPException;
@@ -21,33 +33,52 @@ import uk.gov.ons.ctp.common.event.model.UacAuthentication;
 import uk.gov.ons.ctp.common.event.model.UacUpdate;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient.Domain;
+import uk.gov.ons.ctp.integration.rhsvc.DtoMapper;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CollectionExerciseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.UacRepository;
-import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
-import uk.gov.ons.ctp.integration.rhsvc.representation.CollectionExerciseDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.EqLaunchRequestDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.LaunchDataDTO;
-import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyLiteDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextBatchItemDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
 
 /** Implementation to deal with UAC data */
 @Slf4j
 @Service
 public class UniqueAccessCodeServiceImpl {
+  private static final int LOCAL_SHEDDING_MAXIMUM_CLIENTS = 10_000;
+
   @Autowired private SurveyRepository surveyDataRepo;
   @Autowired private CollectionExerciseRepository collExDataRepo;
   @Autowired private CaseRepository caseDataRepo;
   @Autowired private UacRepository uacDataRepo;
   @Autowired private EventPublisher eventPublisher;
-  @Autowired private MapperFacade mapperFacade;
+  @Autowired private DtoMapper dtoMapper;
 
   @Autowired private EqLaunchServiceImpl eqLaunchedService;
+  @Autowired private LaunchDataCache launchDataCache;
   @Autowired private RateLimiterClient rateLimiterClient;
+  @Autowired private LocalRateLimiter localRateLimiter;
   @Autowired private AppConfig appConfig;
 
+  @Autowired
+  @Qualifier("envoyLimiterBulkhead")
+  private Bulkhead envoyLimiterBulkhead;
+
+  @Autowired
+  @Qualifier("eventPublisherBulkhead")
+  private Bulkhead eventPublisherBulkhead;
+
+  // time (millis) until which eq launches from a client IP are shed locally, following a
+  // rejection from envoy of a launch from that IP
+  private final Cache<String, Long> localSheddingUntil =
+      CacheBuilder.newBuilder().maximumSize(LOCAL_SHEDDING_MAXIMUM_CLIENTS).build();
+
   /** Constructor */
   public UniqueAccessCodeServiceImpl() {}
 
@@ -60,7 +91,9 @@ public class UniqueAccessCodeServiceImpl {
    */
   public UACContextDTO getUACClaimContext(String uacHash) throws CTPException {
 
+    long gatheredFrom = System.nanoTime();
     LaunchDataDTO launchData = gatherLaunchData(uacHash);
+    launchDataCache.put(uacHash, launchData, gatheredFrom);
 
     sendUacAuthenticationEvent(
         launchData.getCaseUpdate().getCaseId(), launchData.getUacUpdate().getQid());
@@ -75,6 +108,59 @@ public class UniqueAccessCodeServiceImpl {
     return uacContextDTO;
   }
 
+  /**
+   * Retrieve the data for several hashed UACs. Each type of data is read for all of the UACs in a
+   * single round trip. Unlike a single claim, no authentication events are sent since this is used
+   * by assisted digital tooling rather than by respondents.
+   *
+   * @param uacHashes hashed unique access codes for which to retrieve data.
+   * @return the outcome for each UAC, in the same order as requested. An outcome holds either the
+   *     UAC data or the reason it could not be retrieved.
+   * @throws CTPException if the data could not be read.
+   */
+  public List<UACContextBatchItemDTO> getUACClaimContexts(List<String> uacHashes)
+      throws CTPException {
+
+    Map<String, UacUpdate> uacs = uacDataRepo.readUACs(uacHashes);
+    Map<String, CaseUpdate> cases =
+        caseDataRepo.readCaseUpdates(collectIds(uacs.values(), UacUpdate::getCaseId));
+    Map<String, SurveyUpdate> surveys =
+        surveyDataRepo.readSurveys(collectIds(cases.values(), CaseUpdate::getSurveyId));
+    Map<String, CollectionExerciseUpdate> collexes =
+        collExDataRepo.readCollectionExercises(
+            collectIds(cases.values(), CaseUpdate::getCollectionExerciseId));
+
+    return uacHashes.stream()
+        .map(
+            uacHash -> {
+              try {
+                LaunchDataDTO launchData =
+                    assembleLaunchData(
+                        uacHash,
+                        id -> Optional.ofNullable(uacs.get(id)),
+                        id -> Optional.ofNullable(cases.get(id)),
+                        id -> Optional.ofNullable(surveys.get(id)),
+                        id -> Optional.ofNullable(collexes.get(id)));
+                UACContextDTO uacContext =
+                    createRhClaimsResponseDTO(
+                        launchData.getUacUpdate(),
+                        launchData.getCaseUpdate(),
+                        launchData.getCollectionExerciseUpdate(),
+                        launchData.getSurveyUpdate());
+                return new UACContextBatchItemDTO(uacHash, uacContext, null, null);
+              } catch (CTPException e) {
+                log.info(
+                    "Unable to resolve UAC in batch",
+                    kv("uacHash", uacHash),
+                    kv("fault", e.getFault()),
+                    kv("reason", e.getMessage()));
+                return new UACContextBatchItemDTO(
+                    uacHash, null, e.getFault().name(), e.getMessage());
+              }
+            })
+        .collect(Collectors.toList());
+  }
+
   /**
    * Creates the EQ launch token, and also sends UAC authentication and launch events.
    *
@@ -90,16 +176,24 @@ public class UniqueAccessCodeServiceImpl {
     log.info(
         "Generating eq launch url and publish Launched event", kv("eqLaunchedDTO", eqLaunchedDTO));
 
+    // once the rate limit is charged the launch is completed, so only abandon before then
+    RequestDeadline.check("launching EQ");
     checkRateLimit(eqLaunchedDTO.getClientIP());
 
-    // Build launch URL
-    LaunchDataDTO launchData = gatherLaunchData(uacHash);
+    // Build launch URL, reusing the data gathered when the UAC was claimed if still current
+    LaunchDataDTO launchData = takeLaunchData(uacHash);
+    if (launchData == null) {
+      launchData = gatherLaunchData(uacHash);
+    }
     String eqLaunchUrl = eqLaunchedService.createLaunchToken(launchData, eqLaunchedDTO);
 
     // Publish the launch event
     EqLaunch eqLaunch = EqLaunch.builder().qid(launchData.getUacUpdate().getQid()).build();
     UUID messageId =
-        eventPublisher.sendEvent(TopicType.EQ_LAUNCH, Source.RESPONDENT_HOME, Channel.RH, eqLaunch);
+        eventPublisherBulkhead.execute(
+            () ->
+                eventPublisher.sendEvent(
+                    TopicType.EQ_LAUNCH, Source.RESPONDENT_HOME, Channel.RH, eqLaunch));
     log.debug(
         "EqLaunch event published",
         kv("qid", eqLaunch.getQid()),
@@ -109,13 +203,46 @@ public class UniqueAccessCodeServiceImpl {
     return eqLaunchUrl;
   }
 
+  /**
+   * Take the launch data parked when the UAC was claimed, provided the UAC has not changed since.
+   * An update to the UAC, such as its deactivation or receipting, may have been received by another
+   * pod and so not have evicted the data parked here, so the UAC is read again to compare.
+   */
+  private LaunchDataDTO takeLaunchData(String uacHash) throws CTPException {
+    LaunchDataDTO launchData = launchDataCache.take(uacHash);
+    if (launchData == null) {
+      return null;
+    }
+    Optional<UacUpdate> uac = uacDataRepo.readUAC(uacHash);
+    if (uac.isEmpty() || !uac.get().equals(launchData.getUacUpdate())) {
+      log.debug("UAC changed since claim, gathering launch data again", kv("uacHash", uacHash));
+      return null;
+    }
+    return launchData;
+  }
+
   private LaunchDataDTO gatherLaunchData(String uacHash) throws CTPException {
+    return assembleLaunchData(
+        uacHash,
+        uacDataRepo::readUAC,
+        caseDataRepo::readCaseUpdate,
+        surveyDataRepo::readSurvey,
+        collExDataRepo::readCollectionExercise);
+  }
+
+  private LaunchDataDTO assembleLaunchData(
+      String uacHash,
+      Lookup<UacUpdate> uacLookup,
+      Lookup<CaseUpdate> caseLookup,
+      Lookup<SurveyUpdate> surveyLookup,
+      Lookup<CollectionExerciseUpdate> collexLookup)
+      throws CTPException {
 
     LaunchDataDTO launchData;
 
     UacUpdate uac =
-        uacDataRepo
-            .readUAC(uacHash)
+        uacLookup
+            .find(uacHash)
             .orElseThrow(
                 () ->
                     new CTPException(
@@ -127,17 +254,17 @@ public class UniqueAccessCodeServiceImpl {
     }
 
     CaseUpdate caseUpdate =
-        caseDataRepo
-            .readCaseUpdate(caseId)
+        caseLookup
+            .find(caseId)
             .orElseThrow(() -> new CTPException(CTPException.Fault.SYSTEM_ERROR, "Case Not Found"));
     SurveyUpdate survey =
-        surveyDataRepo
-            .readSurvey(caseUpdate.getSurveyId())
+        surveyLookup
+            .find(caseUpdate.getSurveyId())
             .orElseThrow(
                 () -> new CTPException(CTPException.Fault.SYSTEM_ERROR, "Survey Not Found"));
     CollectionExerciseUpdate collex =
-        collExDataRepo
-            .readCollectionExercise(caseUpdate.getCollectionExerciseId())
+        collexLookup
+            .find(caseUpdate.getCollectionExerciseId())
             .orElseThrow(
                 () ->
                     new CTPException(
@@ -154,6 +281,13 @@ public class UniqueAccessCodeServiceImpl {
     return launchData;
   }
 
+  private <T> Set<String> collectIds(Collection<T> objects, Function<T, String> idGetter) {
+    return objects.stream()
+        .map(idGetter)
+        .filter(StringUtils::isNotEmpty)
+        .collect(Collectors.toSet());
+  }
+
   /** Send UacAuthentication event */
   private void sendUacAuthenticationEvent(String caseId, String qid) throws CTPException {
 
@@ -164,9 +298,15 @@ public class UniqueAccessCodeServiceImpl {
 
     UacAuthentication uacAuthentication = UacAuthentication.builder().qid(qid).build();
 
+    RequestDeadline.check("publishing UacAuthentication event");
     UUID messageId =
-        eventPublisher.sendEvent(
-            TopicType.UAC_AUTHENTICATION, Source.RESPONDENT_HOME, Channel.RH, uacAuthentication);
+        eventPublisherBulkhead.execute(
+            () ->
+                eventPublisher.sendEvent(
+                    TopicType.UAC_AUTHENTICATION,
+                    Source.RESPONDENT_HOME,
+                    Channel.RH,
+                    uacAuthentication));
 
     log.debug(
         "UacAuthentication event published for qid: "
@@ -180,35 +320,79 @@ public class UniqueAccessCodeServiceImpl {
       CaseUpdate collectionCase,
       CollectionExerciseUpdate collectionExercise,
       SurveyUpdate surveyUpdate) {
-    UACContextDTO uniqueAccessCodeDTO = new UACContextDTO();
-
-    mapperFacade.map(uac, uniqueAccessCodeDTO);
-
-    CaseDTO caseDTO = new CaseDTO();
-    mapperFacade.map(collectionCase, caseDTO);
-    uniqueAccessCodeDTO.setCollectionCase(caseDTO);
-
-    CollectionExerciseDTO collectionExerciseDTO = new CollectionExerciseDTO();
-    mapperFacade.map(collectionExercise, collectionExerciseDTO);
-    uniqueAccessCodeDTO.setCollectionExercise(collectionExerciseDTO);
-
-    SurveyLiteDTO surveyLiteDTO = new SurveyLiteDTO();
-    mapperFacade.map(surveyUpdate, surveyLiteDTO);
-    uniqueAccessCodeDTO.setSurvey(surveyLiteDTO);
+    UACContextDTO uniqueAccessCodeDTO = dtoMapper.toUACContextDTO(uac);
+    uniqueAccessCodeDTO.setCollectionCase(dtoMapper.toCaseDTO(collectionCase));
+    uniqueAccessCodeDTO.setCollectionExercise(
+        dtoMapper.toCollectionExerciseDTO(collectionExercise));
+    uniqueAccessCodeDTO.setSurvey(dtoMapper.toSurveyLiteDTO(surveyUpdate));
 
     return uniqueAccessCodeDTO;
   }
 
   private void checkRateLimit(String ipAddress) throws CTPException {
     if (appConfig.getRateLimiter().isEnabled()) {
+      localRateLimiter.checkEqLaunch(ipAddress);
       int modulus = appConfig.getLoadshedding().getModulus();
+      if (isShedLocally(ipAddress)) {
+        log.debug(
+            "Survey launch shed locally",
+            kv("ipAddress", ipAddress),
+            kv("loadshedding.modulus", modulus));
+        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+      }
       log.debug(
           "Invoking rate limiter for survey launched",
           kv("ipAddress", ipAddress),
           kv("loadshedding.modulus", modulus));
-      rateLimiterClient.checkEqLaunchLimit(Domain.RH, ipAddress, modulus);
+      try {
+        envoyLimiterBulkhead.run(
+            () -> rateLimiterClient.checkEqLaunchLimit(Domain.RH, ipAddress, modulus));
+      } catch (ResponseStatusException e) {
+        if (HttpStatus.TOO_MANY_REQUESTS.equals(e.getStatus())) {
+          startLocalShedding(ipAddress);
+        }
+        throw e;
+      }
     } else {
       log.info("Rate limiter client is disabled");
     }
   }
+
+  /**
+   * Whether envoy has recently rejected a launch from the client IP address, in which case the
+   * launch is rejected without a network round trip. The decision is made per client: envoy
+   * rejects a launch both for its load shedding descriptor and for the per IP address limit, and a
+   * 429 does not say which, so a rejection of one client never sheds the launches of another.
+   */
+  private boolean isShedLocally(String ipAddress) {
+    if (ipAddress == null) {
+      return false;
+    }
+    Long until = localSheddingUntil.getIfPresent(ipAddress);
+    if (until == null) {
+      return false;
+    }
+    if (System.currentTimeMillis() >= until) {
+      localSheddingUntil.asMap().remove(ipAddress, until);
+      return false;
+    }
+    return true;
+  }
+
+  private void startLocalShedding(String ipAddress) {
+    Duration period = appConfig.getLoadshedding().getLocalSheddingPeriod();
+    if (ipAddress != null && period != null && !period.isZero()) {
+      localSheddingUntil.put(ipAddress, System.currentTimeMillis() + period.toMillis());
+      log.debug(
+          "Envoy rejected survey launch, shedding locally",
+          kv("ipAddress", ipAddress),
+          kv("period", period));
+    }
+  }
+
+  /** Finds an object by its id. */
+  @FunctionalInterface
+  private interface Lookup<T> {
+    Optional<T> find(String id) throws CTPException;
+  }
 }
@@ -0,0 +1,316 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static uk.gov.ons.ctp.common.log.ScopedStructuredArguments.kv;
+
+import com.google.common.util.concurrent.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.WebformQueueConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueryPage;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueuedWebform;
+import uk.gov.ons.ctp.integration.rhsvc.repository.WebformQueueRepository;
+import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
+
+/**
+ * Bounded queue of webforms waiting to be sent to GOV.UK Notify, so that a webform can be accepted
+ * without the caller waiting on Notify.
+ *
+ * <p>Each webform is stored before it is accepted, and removed once it has been sent, so that
+ * webforms held by an instance which stops are not lost. A single background thread sends the
+ * webforms no faster than the configured rate, retrying failures with exponential backoff up to
+ * the configured number of attempts. A webform which still fails is counted, and its reference
+ * logged, for investigation, but is removed from the store as it holds personal details.
+ *
+ * <p>Stored webforms which no instance holds are picked up periodically, once queued for longer
+ * than recoverAfter. The time queued is renewed on each retry, as a lease, so recoverAfter must be
+ * longer than maxBackoff for a webform waiting to be retried not to be picked up by another
+ * instance. As the pick up is not transactional, a webform may occasionally be sent twice if two
+ * instances recover it at once.
+ */
+@Slf4j
+@Component
+public class WebformQueue implements MeterBinder {
+  static final String SIZE_METRIC = "rhsvc.webform.queue.size";
+  static final String FAILED_METRIC = "rhsvc.webform.queue.failed";
+
+  private static final int RECOVERY_PAGE_SIZE = 100;
+
+  /** Sends a queued webform. */
+  @FunctionalInterface
+  public interface Delivery {
+    void deliver(QueuedWebform queuedWebform) throws Exception;
+  }
+
+  private final WebformQueueConfig config;
+  private final boolean enabled;
+  private final WebformQueueRepository repository;
+  private final Clock clock;
+  private final Semaphore capacity;
+  private final BlockingQueue<QueuedWebform> ready = new LinkedBlockingQueue<>();
+  private final Set<String> held = ConcurrentHashMap.newKeySet();
+  private final AtomicLong failures = new AtomicLong();
+  private final ScheduledExecutorService executor;
+  private final RateLimiter sendRate;
+
+  private Delivery delivery;
+  private volatile boolean running;
+
+  @Autowired
+  public WebformQueue(AppConfig appConfig, WebformQueueRepository repository) {
+    this(appConfig.getWebformQueue(), repository, Clock.systemUTC());
+  }
+
+  WebformQueue(WebformQueueConfig config, WebformQueueRepository repository, Clock clock) {
+    this.config = config;
+    this.enabled = config != null && config.isEnabled();
+    this.repository = repository;
+    this.clock = clock;
+    if (enabled) {
+      log.info("Webform queue enabled", kv("config", config));
+      this.capacity = new Semaphore(config.getCapacity());
+      this.sendRate = RateLimiter.create(config.getSendRate());
+      AtomicInteger threadCount = new AtomicInteger();
+      this.executor =
+          Executors.newScheduledThreadPool(
+              2,
+              r -> {
+                Thread thread = new Thread(r, "webform-queue-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+    } else {
+      this.capacity = null;
+      this.sendRate = null;
+      this.executor = null;
+    }
+  }
+
+  /**
+   * Whether webforms should be queued rather than sent while the caller waits.
+   *
+   * @return true if the queue is enabled.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set how queued webforms are sent. Must be called before the queue is started.
+   *
+   * @param delivery - sends a queued webform, throwing an exception if it fails.
+   */
+  public void deliverWith(Delivery delivery) {
+    this.delivery = delivery;
+  }
+
+  /** Start sending queued webforms, and periodically pick up those which no instance holds. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (enabled && !running) {
+      running = true;
+      executor.execute(this::sendQueued);
+      long recoverAfter = config.getRecoverAfter().toMillis();
+      executor.scheduleWithFixedDelay(this::recover, 0, recoverAfter, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Store a webform and queue it to be sent.
+   *
+   * @param webform - the webform.
+   * @return the reference of the queued webform.
+   * @throws CTPException - if the webform could not be stored.
+   * @throws ResponseStatusException - with status 503, if the queue is full.
+   */
+  public UUID enqueue(WebformDTO webform) throws CTPException {
+    if (!capacity.tryAcquire()) {
+      log.warn("Webform queue is full", kv("capacity", config.getCapacity()));
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Webform queue is full");
+    }
+    UUID reference = UUID.randomUUID();
+    QueuedWebform queuedWebform =
+        new QueuedWebform(reference.toString(), webform, clock.millis(), 0);
+    try {
+      repository.writeQueuedWebform(queuedWebform);
+    } catch (CTPException | RuntimeException e) {
+      capacity.release();
+      throw e;
+    }
+    hold(queuedWebform);
+    log.debug("Queued webform", kv("reference", reference));
+    return reference;
+  }
+
+  /**
+   * The number of webforms held by this instance, whether waiting to be sent or to be retried.
+   *
+   * @return the number of webforms held.
+   */
+  public int size() {
+    return held.size();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(SIZE_METRIC, held, Set::size)
+        .description("Webforms held waiting to be sent to GOV.UK Notify")
+        .register(registry);
+    FunctionCounter.builder(FAILED_METRIC, failures, AtomicLong::get)
+        .description("Webforms which could not be sent after the maximum number of attempts")
+        .register(registry);
+  }
+
+  private void hold(QueuedWebform queuedWebform) {
+    held.add(queuedWebform.getId());
+    ready.add(queuedWebform);
+  }
+
+  private void release(QueuedWebform queuedWebform) {
+    held.remove(queuedWebform.getId());
+    capacity.release();
+  }
+
+  private void sendQueued() {
+    while (running) {
+      try {
+        QueuedWebform queuedWebform = ready.poll(1, TimeUnit.SECONDS);
+        if (queuedWebform != null) {
+          sendRate.acquire();
+          send(queuedWebform);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        log.error("Unexpected failure sending queued webform", e);
+      }
+    }
+  }
+
+  private void send(QueuedWebform queuedWebform) {
+    String id = queuedWebform.getId();
+    try {
+      delivery.deliver(queuedWebform);
+    } catch (Exception e) {
+      retryOrGiveUp(queuedWebform, e);
+      return;
+    }
+    release(queuedWebform);
+    delete(id);
+  }
+
+  private void retryOrGiveUp(QueuedWebform queuedWebform, Exception cause) {
+    String id = queuedWebform.getId();
+    int attempts = queuedWebform.getAttempts() + 1;
+    queuedWebform.setAttempts(attempts);
+
+    if (attempts >= config.getMaxAttempts()) {
+      log.error(
+          "Giving up sending queued webform", kv("reference", id), kv("attempts", attempts), cause);
+      failures.incrementAndGet();
+      release(queuedWebform);
+      delete(id);
+      return;
+    }
+    // renew the lease, so that no other instance recovers the webform while it waits to be retried
+    queuedWebform.setQueuedAt(clock.millis());
+    store(queuedWebform);
+    long backoff =
+        Math.min(
+            config.getMaxBackoff().toMillis(),
+            config.getInitialBackoff().toMillis() << Math.min(attempts - 1, 20));
+    log.warn(
+        "Failed to send queued webform, will retry",
+        kv("reference", id),
+        kv("attempts", attempts),
+        kv("backoffMillis", backoff),
+        cause);
+    executor.schedule(() -> ready.add(queuedWebform), backoff, TimeUnit.MILLISECONDS);
+  }
+
+  private void store(QueuedWebform queuedWebform) {
+    try {
+      repository.writeQueuedWebform(queuedWebform);
+    } catch (CTPException | RuntimeException e) {
+      log.warn("Failed to update queued webform", kv("reference", queuedWebform.getId()), e);
+    }
+  }
+
+  private void delete(String id) {
+    try {
+      repository.deleteQueuedWebform(id);
+    } catch (CTPException | RuntimeException e) {
+      log.warn("Failed to remove webform from queue", kv("reference", id), e);
+    }
+  }
+
+  void recover() {
+    long recoverBefore = clock.millis() - config.getRecoverAfter().toMillis();
+    int recovered = 0;
+    try {
+      String startAfterId = null;
+      do {
+        QueryPage<QueuedWebform> page =
+            repository.readQueuedWebformPage(RECOVERY_PAGE_SIZE, startAfterId);
+        for (QueuedWebform queuedWebform : page.getResults()) {
+          if (queuedWebform.getQueuedAt() >= recoverBefore
+              || held.contains(queuedWebform.getId())) {
+            continue;
+          }
+          if (queuedWebform.getAttempts() >= config.getMaxAttempts()) {
+            // given up on by an instance which then failed to remove it
+            delete(queuedWebform.getId());
+            continue;
+          }
+          if (!capacity.tryAcquire()) {
+            log.warn("Webform queue is full, leaving remaining webforms to recover later");
+            return;
+          }
+          queuedWebform.setQueuedAt(clock.millis());
+          store(queuedWebform);
+          hold(queuedWebform);
+          recovered++;
+        }
+        startAfterId = page.getNextStartAfterKey();
+      } while (startAfterId != null);
+    } catch (CTPException | RuntimeException e) {
+      log.warn("Failed to recover queued webforms", e);
+    } finally {
+      if (recovered > 0) {
+        log.info("Recovered queued webforms", kv("recovered", recovered));
+      }
+    }
+  }
+}
@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeoutException;
+import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -15,6 +16,10 @@ import uk.gov.ons.ctp.common.error.CTPException;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient.Domain;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueuedWebform;
 import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.WebformService;
 import uk.gov.service.notify.NotificationClientApi;
@@ -33,10 +38,14 @@ public class WebformServiceImpl implements WebformService {
 
   private NotificationClientApi notificationClient;
   private CircuitBreaker webformCircuitBreaker;
+  private Bulkhead notifyBulkhead;
+  private Bulkhead envoyLimiterBulkhead;
+  private WebformQueue webformQueue;
 
   private AppConfig appConfig;
 
   @Autowired private RateLimiterClient rateLimiterClient;
+  @Autowired private LocalRateLimiter localRateLimiter;
 
   /**
    * Constructor for WebformServiceImpl
@@ -44,21 +53,66 @@ public class WebformServiceImpl implements WebformService {
    * @param notificationClient Gov.uk Notify service client
    * @param webformCircuitBreaker circuit breaker for calls to GOV.UK notify
    * @param appConfig centralised configuration properties
+   * @param notifyBulkhead bulkhead capping concurrent calls to GOV.UK notify
+   * @param envoyLimiterBulkhead bulkhead capping concurrent calls to the rate limiter
+   * @param webformQueue queue of webforms waiting to be sent to GOV.UK notify
    */
   @Autowired
   public WebformServiceImpl(
       final NotificationClientApi notificationClient,
       final @Qualifier("webformCb") CircuitBreaker webformCircuitBreaker,
-      final AppConfig appConfig) {
+      final AppConfig appConfig,
+      final @Qualifier("notifyBulkhead") Bulkhead notifyBulkhead,
+      final @Qualifier("envoyLimiterBulkhead") Bulkhead envoyLimiterBulkhead,
+      final WebformQueue webformQueue) {
     this.notificationClient = notificationClient;
     this.webformCircuitBreaker = webformCircuitBreaker;
     this.appConfig = appConfig;
+    this.notifyBulkhead = notifyBulkhead;
+    this.envoyLimiterBulkhead = envoyLimiterBulkhead;
+    this.webformQueue = webformQueue;
   }
 
+  @PostConstruct
+  public void init() {
+    webformQueue.deliverWith(this::sendQueuedWebformEmail);
+  }
+
+  /**
+   * Whether webforms are queued to be sent later, rather than sent while the caller waits.
+   *
+   * @return true if webforms are queued.
+   */
+  public boolean isQueued() {
+    return webformQueue.isEnabled();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If webforms are queued then the webform is stored to be sent in the background, and the
+   * reference it will be sent with is returned instead of the notification ID.
+   */
   @Override
   public UUID sendWebformEmail(WebformDTO webform) throws CTPException {
+    // once the rate limits are charged the webform is sent, so it is only abandoned before then
+    RequestDeadline.check("sending webform");
     checkWebformRateLimit(webform.getClientIP());
-    return doSendWebFormEmail(webform);
+    if (webformQueue.isEnabled()) {
+      return webformQueue.enqueue(webform);
+    }
+    String reference = UUID.randomUUID().toString();
+    return notifyBulkhead.execute(() -> doSendWebFormEmail(webform, reference));
+  }
+
+  private void sendQueuedWebformEmail(QueuedWebform queuedWebform) {
+    String reference = queuedWebform.getId();
+    UUID notificationId =
+        notifyBulkhead.execute(() -> doSendWebFormEmail(queuedWebform.getWebform(), reference));
+    log.info(
+        "Sent queued webform",
+        kv("reference", reference),
+        kv("notificationId", notificationId));
   }
 
   /**
@@ -71,14 +125,15 @@ public class WebformServiceImpl implements WebformService {
    * and for repeated failures the circuit breaker will do it's usual fail-fast mechanism.
    *
    * @param webform webform DTO
+   * @param reference reference to send to GOV.UK notify with the email
    * @return the notification ID returned by the GOV.UK notify service.
    * @throws RuntimeException a wrapper around any error response exception, which could typically
    *     be a failure from GOV.UK Notify, or a circuit breaker timeout or fail-fast.
    */
-  private UUID doSendWebFormEmail(WebformDTO webform) {
+  private UUID doSendWebFormEmail(WebformDTO webform, String reference) {
     return this.webformCircuitBreaker.run(
         () -> {
-          SendEmailResponse response = send(webform);
+          SendEmailResponse response = send(webform, reference);
           return response.getNotificationId();
         },
         throwable -> {
@@ -92,12 +147,11 @@ public class WebformServiceImpl implements WebformService {
         });
   }
 
-  private SendEmailResponse send(WebformDTO webform) {
+  private SendEmailResponse send(WebformDTO webform, String reference) {
     String emailToAddress =
         WebformDTO.WebformLanguage.CY.equals(webform.getLanguage())
             ? appConfig.getWebform().getEmailCy()
             : appConfig.getWebform().getEmailEn();
-    String reference = UUID.randomUUID().toString();
 
     try {
       SendEmailResponse response =
@@ -138,9 +192,10 @@ public class WebformServiceImpl implements WebformService {
 
   private void checkWebformRateLimit(String ipAddress) throws CTPException {
     if (appConfig.getRateLimiter().isEnabled()) {
+      localRateLimiter.checkWebform(ipAddress);
       log.debug("Invoking rate limiter for webform", kv("ipAddress", ipAddress));
       // Do rest call to rate limiter
-      rateLimiterClient.checkWebformRateLimit(Domain.RH, ipAddress);
+      envoyLimiterBulkhead.run(() -> rateLimiterClient.checkWebformRateLimit(Domain.RH, ipAddress));
     } else {
       log.info("Rate limiter client is disabled");
     }
@@ -2,12 +2,14 @@ package uk.gov.ons.ctp.integration.rhsvc;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 import ma.glasnost.orika.MapperFacade;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +24,7 @@ import uk.gov.ons.ctp.common.event.model.UacUpdate;
 import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.CollectionExerciseDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.ProductDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.SurveyLiteDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
 
@@ -29,6 +32,8 @@ import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
 public class RHSvcBeanMapperTest {
 
   private MapperFacade mapper = new RHSvcBeanMapper();
+  private DtoMapper orikaDtoMapper = new OrikaDtoMapper(mapper);
+  private DtoMapper directDtoMapper = new DirectDtoMapper();
 
   private CaseUpdate caseUpdate;
   private UacUpdate uacUpdate;
@@ -114,4 +119,49 @@ public class RHSvcBeanMapperTest {
     Date date = mapper.map(LocalDateTime.parse("2021-09-17T23:59:59.999"), Date.class);
     assertEquals(Date.from(Instant.parse("2021-09-17T23:59:59.999Z")), date);
   }
+
+  @Test
+  @DisplayName("Direct and Orika DTO mappers are equivalent for cases")
+  public void shouldMapCaseUpdateAsOrika() {
+    assertEquals(orikaDtoMapper.toCaseDTO(caseUpdate), directDtoMapper.toCaseDTO(caseUpdate));
+    assertEquals(
+        orikaDtoMapper.toCaseDTOs(List.of(caseUpdate)),
+        directDtoMapper.toCaseDTOs(List.of(caseUpdate)));
+    assertNotSame(caseUpdate.getSample(), directDtoMapper.toCaseDTO(caseUpdate).getSample());
+  }
+
+  @Test
+  @DisplayName("Direct and Orika DTO mappers are equivalent for UACs")
+  public void shouldMapUacUpdateAsOrika() {
+    assertEquals(
+        orikaDtoMapper.toUACContextDTO(uacUpdate), directDtoMapper.toUACContextDTO(uacUpdate));
+  }
+
+  @Test
+  @DisplayName("Direct and Orika DTO mappers are equivalent for collection exercises")
+  public void shouldMapCollectionExerciseAsOrika() {
+    assertEquals(
+        orikaDtoMapper.toCollectionExerciseDTO(collectionExercise),
+        directDtoMapper.toCollectionExerciseDTO(collectionExercise));
+  }
+
+  @Test
+  @DisplayName("Direct and Orika DTO mappers are equivalent for surveys")
+  public void shouldMapSurveyUpdateAsOrika() {
+    assertEquals(
+        orikaDtoMapper.toSurveyLiteDTO(surveyUpdate),
+        directDtoMapper.toSurveyLiteDTO(surveyUpdate));
+    SurveyDTO orika = orikaDtoMapper.toSurveyDTO(surveyUpdate);
+    SurveyDTO direct = directDtoMapper.toSurveyDTO(surveyUpdate);
+    assertEquals(orika.getSurveyId(), direct.getSurveyId());
+    assertEquals(orika.getName(), direct.getName());
+  }
+
+  @Test
+  @DisplayName("Direct and Orika DTO mappers are equivalent for survey fulfilments")
+  public void shouldMapSurveyFulfilmentAsOrika() {
+    SurveyFulfilment fulfilment = FixtureHelper.loadClassFixtures(SurveyFulfilment[].class).get(0);
+    assertEquals(
+        orikaDtoMapper.toProductDTO(fulfilment), directDtoMapper.toProductDTO(fulfilment));
+  }
 }
@@ -0,0 +1,59 @@
+package uk.gov.ons.ctp.integration.rhsvc.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.ConcurrencyLimitInterceptor;
+
+public class WebMvcConfigTest {
+  private AppConfig appConfig = new AppConfig();
+  private TestInterceptorRegistry registry = new TestInterceptorRegistry();
+
+  @BeforeEach
+  public void setUp() {
+    ConcurrencyLimitConfig limitConfig = new ConcurrencyLimitConfig();
+    limitConfig.setEnabled(true);
+    appConfig.setConcurrencyLimit(limitConfig);
+    WebMvcConfig webMvcConfig = new WebMvcConfig();
+    ReflectionTestUtils.setField(webMvcConfig, "appConfig", appConfig);
+    ReflectionTestUtils.setField(webMvcConfig, "meterRegistry", new SimpleMeterRegistry());
+    webMvcConfig.addInterceptors(registry);
+  }
+
+  @Test
+  public void shouldLimitEachEndpointInItsGroup() {
+    assertEquals(List.of("claim"), groupsOf("/uacs/abc123"));
+    assertEquals(List.of("claim-batch"), groupsOf("/uacs/batch"));
+    assertEquals(List.of("launch"), groupsOf("/uacs/abc123/launch"));
+    assertEquals(List.of("fulfilment"), groupsOf("/cases/c1/fulfilment/post"));
+    assertEquals(List.of("webform"), groupsOf("/webform"));
+    assertEquals(List.of("surveys"), groupsOf("/surveys"));
+    assertEquals(List.of("surveys"), groupsOf("/surveys/s1"));
+    assertEquals(List.of(), groupsOf("/info"));
+  }
+
+  private List<String> groupsOf(String path) {
+    AntPathMatcher pathMatcher = new AntPathMatcher();
+    return registry.interceptors().stream()
+        .filter(MappedInterceptor.class::isInstance)
+        .map(MappedInterceptor.class::cast)
+        .filter(mapped -> mapped.getInterceptor() instanceof ConcurrencyLimitInterceptor)
+        .filter(mapped -> mapped.matches(path, pathMatcher))
+        .map(mapped -> ((ConcurrencyLimitInterceptor) mapped.getInterceptor()).getGroupName())
+        .collect(Collectors.toList());
+  }
+
+  private static class TestInterceptorRegistry extends InterceptorRegistry {
+    List<Object> interceptors() {
+      return getInterceptors();
+    }
+  }
+}
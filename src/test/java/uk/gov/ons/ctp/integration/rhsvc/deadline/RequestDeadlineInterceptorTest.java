@@ -0,0 +1,76 @@
+package uk.gov.ons.ctp.integration.rhsvc.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+public class RequestDeadlineInterceptorTest {
+  private RequestDeadlineInterceptor interceptor =
+      new RequestDeadlineInterceptor(Duration.ofSeconds(3));
+  private MockHttpServletRequest request = new MockHttpServletRequest();
+  private MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @AfterEach
+  public void tearDown() {
+    RequestDeadline.clear();
+  }
+
+  @Test
+  public void shouldStartConfiguredDeadline() {
+    interceptor.preHandle(request, response, null);
+    assertRemainingBetween(2500, 3000);
+  }
+
+  @Test
+  public void shouldShortenDeadlineToCallerTimeout() {
+    request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "500");
+    interceptor.preHandle(request, response, null);
+    assertRemainingBetween(0, 500);
+  }
+
+  @Test
+  public void shouldNotExtendDeadlineToCallerTimeout() {
+    request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "60000");
+    interceptor.preHandle(request, response, null);
+    assertRemainingBetween(2500, 3000);
+  }
+
+  @Test
+  public void shouldIgnoreInvalidCallerTimeout() {
+    request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "soon");
+    interceptor.preHandle(request, response, null);
+    assertRemainingBetween(2500, 3000);
+  }
+
+  @Test
+  public void shouldClearDeadlineAfterCompletion() {
+    interceptor.preHandle(request, response, null);
+    interceptor.afterCompletion(request, response, null, null);
+    assertFalse(RequestDeadline.isSet());
+  }
+
+  @Test
+  public void shouldAbandonWorkOnceDeadlinePassed() {
+    assertDoesNotThrow(() -> RequestDeadline.check("work"));
+
+    RequestDeadline.start(Duration.ZERO);
+    ResponseStatusException e =
+        assertThrows(ResponseStatusException.class, () -> RequestDeadline.check("work"));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+  }
+
+  private void assertRemainingBetween(long minMillis, long maxMillis) {
+    long remaining = RequestDeadline.remaining().orElseThrow().toMillis();
+    assertTrue(remaining > minMillis && remaining <= maxMillis, "remaining " + remaining);
+  }
+}
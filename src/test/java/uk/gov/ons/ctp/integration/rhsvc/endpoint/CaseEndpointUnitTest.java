@@ -1,18 +1,24 @@
 package uk.gov.ons.ctp.integration.rhsvc.endpoint;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static uk.gov.ons.ctp.common.MvcHelper.postJson;
 import static uk.gov.ons.ctp.common.utility.MockMvcControllerAdviceHelper.mockAdviceFor;
 import static uk.gov.ons.ctp.integration.rhsvc.RespondentHomeFixture.EXPECTED_JSON_CONTENT_TYPE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,15 +28,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import uk.gov.ons.ctp.common.FixtureHelper;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
 import uk.gov.ons.ctp.common.error.RestExceptionHandler;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.IdempotencyConfig;
+import uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore;
 import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseSearchPageDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.NewCaseDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.PrintFulfilmentRequestDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.impl.CaseServiceImpl;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.CaseServiceImpl.CasePageHandler;
 
 // ** Unit Tests on endpoint for Case resources */
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +59,10 @@ public class CaseEndpointUnitTest {
 
   @Mock CaseServiceImpl caseService;
 
+  @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
+  @Spy private IdempotencyStore idempotencyStore = new IdempotencyStore(idempotencyEnabled());
+
   private MockMvc mockMvc;
 
   /** Setup tests */
@@ -93,6 +113,64 @@ public class CaseEndpointUnitTest {
         .andExpect(jsonPath("$.length()", is(0)));
   }
 
+  @Test
+  public void shouldFindPageOfCases() throws Exception {
+    List<CaseDTO> caseDTO = FixtureHelper.loadClassFixtures(CaseDTO[].class);
+    when(caseService.findCasesBySampleAttribute("uprn", UPRN, 2, "abc"))
+        .thenReturn(new CaseSearchPageDTO(caseDTO, "def"));
+
+    mockMvc
+        .perform(get("/cases/attribute/uprn/{uprn}/page?limit=2&pageToken=abc", UPRN))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(EXPECTED_JSON_CONTENT_TYPE))
+        .andExpect(jsonPath("$.cases.length()", is(2)))
+        .andExpect(jsonPath("$.cases[0].caseId", is(caseDTO.get(0).getCaseId().toString())))
+        .andExpect(jsonPath("$.nextPageToken", is("def")));
+  }
+
+  @Test
+  public void shouldRejectInvalidPageRequest() throws Exception {
+    when(caseService.findCasesBySampleAttribute("uprn", UPRN, 0, null))
+        .thenThrow(new CTPException(Fault.BAD_REQUEST, "The limit must be between 1 and 500"));
+
+    mockMvc
+        .perform(get("/cases/attribute/uprn/{uprn}/page?limit=0", UPRN))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void shouldStreamCasesAsNdjson() throws Exception {
+    List<CaseDTO> caseDTO = FixtureHelper.loadClassFixtures(CaseDTO[].class);
+    doAnswer(
+            invocation -> {
+              CasePageHandler handler = invocation.getArgument(2);
+              handler.accept(caseDTO.subList(0, 1));
+              handler.accept(caseDTO.subList(1, 2));
+              return null;
+            })
+        .when(caseService)
+        .streamCasesBySampleAttribute(eq("uprn"), eq(UPRN), any());
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/cases/attribute/uprn/{uprn}/stream", UPRN))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    String body =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String[] lines = body.split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(caseDTO.get(0), objectMapper.readValue(lines[0], CaseDTO.class));
+    assertEquals(caseDTO.get(1), objectMapper.readValue(lines[1], CaseDTO.class));
+  }
+
   @Test
   public void shouldFulfilByPost() throws Exception {
     ObjectNode json = getPostFulfilmentFixture();
@@ -119,6 +197,32 @@ public class CaseEndpointUnitTest {
     verify(caseService).fulfilmentRequestByPost(any(PrintFulfilmentRequestDTO.class));
   }
 
+  @Test
+  public void shouldFulfilByPostOnceForRepeatedIdempotencyKey() throws Exception {
+    ObjectNode json = getPostFulfilmentFixture();
+    String url = "/cases/" + json.get("caseId").asText() + "/fulfilment/post";
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(postJson(url, json.toString()).header(IdempotencyStore.HEADER, "abc123"))
+          .andExpect(status().isOk());
+    }
+    verify(caseService).fulfilmentRequestByPost(any(PrintFulfilmentRequestDTO.class));
+  }
+
+  @Test
+  public void shouldRejectIdempotencyKeyReusedForDifferentFulfilment() throws Exception {
+    ObjectNode json = getPostFulfilmentFixture();
+    String url = "/cases/" + json.get("caseId").asText() + "/fulfilment/post";
+    mockMvc
+        .perform(postJson(url, json.toString()).header(IdempotencyStore.HEADER, "abc123"))
+        .andExpect(status().isOk());
+    json.put("clientIP", "1.2.3.4");
+    mockMvc
+        .perform(postJson(url, json.toString()).header(IdempotencyStore.HEADER, "abc123"))
+        .andExpect(status().isBadRequest());
+    verify(caseService).fulfilmentRequestByPost(any(PrintFulfilmentRequestDTO.class));
+  }
+
   //  @Test
   //  public void shouldFulfilBySms() throws Exception {
   //    ObjectNode json = getSmsFulfilmentFixture();
@@ -296,6 +400,17 @@ public class CaseEndpointUnitTest {
     verify(caseService).sendNewCaseEvent(any(NewCaseDTO.class));
   }
 
+  @Test
+  public void shouldCreateNewCaseOnceForRepeatedIdempotencyKey() throws Exception {
+    ObjectNode json = getNewCaseEventFixture();
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(postJson("/cases/new", json.toString()).header(IdempotencyStore.HEADER, "k1"))
+          .andExpect(status().isOk());
+    }
+    verify(caseService).sendNewCaseEvent(any(NewCaseDTO.class));
+  }
+
   @Test
   public void shouldRejectNewCaseIfConsentNotGiven() throws Exception {
     ObjectNode json = getNewCaseEventFixture();
@@ -446,4 +561,12 @@ public class CaseEndpointUnitTest {
     mockMvc.perform(postJson(url, json)).andExpect(status().isBadRequest());
     verify(caseService, never()).fulfilmentRequestByPost(any(PrintFulfilmentRequestDTO.class));
   }
+
+  private static AppConfig idempotencyEnabled() {
+    IdempotencyConfig config = new IdempotencyConfig();
+    config.setEnabled(true);
+    AppConfig appConfig = new AppConfig();
+    appConfig.setIdempotency(config);
+    return appConfig;
+  }
 }
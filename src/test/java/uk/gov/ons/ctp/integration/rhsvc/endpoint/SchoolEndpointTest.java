@@ -0,0 +1,74 @@
+package uk.gov.ons.ctp.integration.rhsvc.endpoint;
+
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static uk.gov.ons.ctp.common.utility.MockMvcControllerAdviceHelper.mockAdviceFor;
+import static uk.gov.ons.ctp.integration.rhsvc.RespondentHomeFixture.EXPECTED_JSON_CONTENT_TYPE;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.common.error.RestExceptionHandler;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SchoolDTO;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SchoolServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+public class SchoolEndpointTest {
+
+  @Mock SchoolServiceImpl service;
+  @InjectMocks private SchoolEndpoint endpoint;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  public void setUp() {
+    this.mockMvc =
+        MockMvcBuilders.standaloneSetup(endpoint)
+            .setHandlerExceptionResolvers(mockAdviceFor(RestExceptionHandler.class))
+            .build();
+  }
+
+  @Test
+  public void shouldReturnMatchingSchools() throws Exception {
+    when(service.findSchools("abb", 5))
+        .thenReturn(List.of(new SchoolDTO("abc123", "Abbey Primary School")));
+    mockMvc
+        .perform(get("/schools?prefix=abb&limit=5"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(EXPECTED_JSON_CONTENT_TYPE))
+        .andExpect(jsonPath("$.length()", is(1)))
+        .andExpect(jsonPath("$[0].schoolId", is("abc123")))
+        .andExpect(jsonPath("$[0].schoolName", is("Abbey Primary School")));
+  }
+
+  @Test
+  public void shouldRejectShortPrefix() throws Exception {
+    when(service.findSchools("a", null))
+        .thenThrow(new CTPException(Fault.BAD_REQUEST, "The prefix must be at least 2"));
+    mockMvc.perform(get("/schools?prefix=a")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void shouldReturnNotFoundWhenSchoolSearchNotEnabled() throws Exception {
+    when(service.findSchools("abb", null))
+        .thenThrow(new CTPException(Fault.RESOURCE_NOT_FOUND, "School search is not enabled"));
+    mockMvc.perform(get("/schools?prefix=abb")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  public void shouldRequirePrefix() throws Exception {
+    mockMvc.perform(get("/schools")).andExpect(status().isBadRequest());
+  }
+}
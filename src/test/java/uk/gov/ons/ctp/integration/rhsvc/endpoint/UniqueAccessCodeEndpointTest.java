@@ -3,11 +3,14 @@ package uk.gov.ons.ctp.integration.rhsvc.endpoint;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static uk.gov.ons.ctp.common.MvcHelper.postJson;
 import static uk.gov.ons.ctp.common.utility.MockMvcControllerAdviceHelper.mockAdviceFor;
 import static uk.gov.ons.ctp.integration.rhsvc.RespondentHomeFixture.EXPECTED_JSON_CONTENT_TYPE;
 
@@ -23,6 +26,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import uk.gov.ons.ctp.common.FixtureHelper;
 import uk.gov.ons.ctp.common.error.CTPException;
 import uk.gov.ons.ctp.common.error.RestExceptionHandler;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextBatchItemDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.impl.UniqueAccessCodeServiceImpl;
 
@@ -170,4 +174,32 @@ public class UniqueAccessCodeEndpointTest {
                 UAC_HASH))
         .andExpect(status().isBadRequest());
   }
+
+  @Test
+  public void getUACClaimContexts_resultsInRequestedOrder() throws Exception {
+    List<UACContextBatchItemDTO> results =
+        List.of(
+            new UACContextBatchItemDTO(UAC_HASH, uacDTO.get(0), null, null),
+            new UACContextBatchItemDTO("unknown", null, ERROR_CODE, ERROR_MESSAGE));
+    when(uacService.getUACClaimContexts(List.of(UAC_HASH, "unknown"))).thenReturn(results);
+
+    mockMvc
+        .perform(
+            postJson("/uacs/batch", "{\"uacHashes\": [\"" + UAC_HASH + "\", \"unknown\"]}"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(EXPECTED_JSON_CONTENT_TYPE))
+        .andExpect(jsonPath("$[0].uacHash", is(UAC_HASH)))
+        .andExpect(jsonPath("$[0].uacContext.qid", is(QID)))
+        .andExpect(jsonPath("$[1].uacHash", is("unknown")))
+        .andExpect(jsonPath("$[1].errorCode", is(ERROR_CODE)))
+        .andExpect(jsonPath("$[1].errorMessage", is(ERROR_MESSAGE)));
+  }
+
+  @Test
+  public void getUACClaimContexts_emptyBatch() throws Exception {
+    mockMvc
+        .perform(postJson("/uacs/batch", "{\"uacHashes\": []}"))
+        .andExpect(status().isBadRequest());
+    verify(uacService, never()).getUACClaimContexts(any());
+  }
 }
@@ -1,16 +1,23 @@
 package uk.gov.ons.ctp.integration.rhsvc.endpoint;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static uk.gov.ons.ctp.common.MvcHelper.postJson;
 import static uk.gov.ons.ctp.common.utility.MockMvcControllerAdviceHelper.mockAdviceFor;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -20,6 +27,9 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import uk.gov.ons.ctp.common.FixtureHelper;
 import uk.gov.ons.ctp.common.error.RestExceptionHandler;
 import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.IdempotencyConfig;
+import uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore;
 import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.impl.WebformServiceImpl;
 
@@ -30,6 +40,8 @@ public final class WebformEndpointTest {
 
   @Mock WebformServiceImpl webformService;
 
+  @Spy private IdempotencyStore idempotencyStore = new IdempotencyStore(idempotencyEnabled());
+
   private MockMvc mockMvc;
   private ObjectMapper mapper = new ObjectMapper();
 
@@ -64,6 +76,34 @@ public final class WebformEndpointTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  public void webform_queuedRequest() throws Exception {
+    UUID reference = UUID.randomUUID();
+    when(webformService.sendWebformEmail(any())).thenReturn(reference);
+    when(webformService.isQueued()).thenReturn(true);
+
+    mockMvc
+        .perform(postJson("/webform", webformRequestJson))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.reference", is(reference.toString())));
+  }
+
+  @Test
+  public void webform_repeatedIdempotencyKey() throws Exception {
+    UUID reference = UUID.randomUUID();
+    when(webformService.sendWebformEmail(any())).thenReturn(reference);
+    when(webformService.isQueued()).thenReturn(true);
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(
+              postJson("/webform", webformRequestJson).header(IdempotencyStore.HEADER, "abc123"))
+          .andExpect(status().isAccepted())
+          .andExpect(jsonPath("$.reference", is(reference.toString())));
+    }
+    verify(webformService).sendWebformEmail(any());
+  }
+
   @Test
   public void webform_nullCategory() throws Exception {
     webformRequest.setCategory(null);
@@ -133,4 +173,12 @@ public final class WebformEndpointTest {
     String replacement = fieldName + "\":\"" + newValue + "\",";
     return webformRequestJson.replaceFirst(regex, replacement);
   }
+
+  private static AppConfig idempotencyEnabled() {
+    IdempotencyConfig config = new IdempotencyConfig();
+    config.setEnabled(true);
+    AppConfig appConfig = new AppConfig();
+    appConfig.setIdempotency(config);
+    return appConfig;
+  }
 }
@@ -39,6 +39,9 @@ import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CollectionExerciseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.UacRepository;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.LaunchDataCache;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SampleAttributeIndex;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SchoolIndex;
 
 /** Spring Integration test of flow received from Response Management */
 @SpringBootTest
@@ -57,6 +60,9 @@ public class CaseEventReceiverImplSpringTest {
   @MockBean private UacRepository respondentUacRepo;
   @MockBean private PubSubTemplate pubSubTemplate;
   @MockBean private EventFilter eventFilter;
+  @MockBean private LaunchDataCache launchDataCache;
+  @MockBean private SampleAttributeIndex sampleAttributeIndex;
+  @MockBean private SchoolIndex schoolIndex;
 
   @BeforeEach
   public void initMocks() {
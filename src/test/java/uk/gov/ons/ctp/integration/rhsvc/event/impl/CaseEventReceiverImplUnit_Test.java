@@ -17,6 +17,9 @@ import uk.gov.ons.ctp.common.FixtureHelper;
 import uk.gov.ons.ctp.common.error.CTPException;
 import uk.gov.ons.ctp.common.event.model.CaseEvent;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.LaunchDataCache;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SampleAttributeIndex;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SchoolIndex;
 
 @ExtendWith(MockitoExtension.class)
 public class CaseEventReceiverImplUnit_Test {
@@ -25,6 +28,12 @@ public class CaseEventReceiverImplUnit_Test {
 
   @Mock private EventFilter eventFilter;
 
+  @Mock private LaunchDataCache launchDataCache;
+
+  @Mock private SampleAttributeIndex sampleAttributeIndex;
+
+  @Mock private SchoolIndex schoolIndex;
+
   @InjectMocks private CaseEventReceiverImpl target;
 
   @Test
@@ -35,6 +44,9 @@ public class CaseEventReceiverImplUnit_Test {
     target.acceptCaseEvent(caseEvent);
 
     verify(mockRespondentCaseRepo).writeCaseUpdate(caseEvent.getPayload().getCaseUpdate());
+    verify(launchDataCache).evictCase(caseEvent.getPayload().getCaseUpdate().getCaseId());
+    verify(sampleAttributeIndex).index(caseEvent.getPayload().getCaseUpdate());
+    verify(schoolIndex).index(caseEvent.getPayload().getCaseUpdate());
   }
 
   @Test
@@ -3,19 +3,33 @@ package uk.gov.ons.ctp.integration.rhsvc.event.impl;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.ons.ctp.common.cloud.RetryableCloudDataStore;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
 import uk.gov.ons.ctp.common.event.model.CollectionExerciseUpdate;
 import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.ReadRetryConfig;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CollectionExerciseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.DeadlineAwareReader;
+import uk.gov.ons.ctp.integration.rhsvc.repository.FirestoreReader;
+import uk.gov.ons.ctp.integration.rhsvc.repository.ReferenceDataCaches;
+import uk.gov.ons.ctp.integration.rhsvc.repository.RepositoryMetrics;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,4 +84,74 @@ public class EventFilterUnitTest {
     when(mockRespondentSurveyRepo.readSurvey(any())).thenReturn(Optional.empty());
     assertFalse(eventFilter.isValidEvent(SURVEY_ID, COLLEX_ID, CASE_ID, MESSAGE_ID));
   }
+
+  @Test
+  public void shouldKeepCloudStorageRetriesForReferenceDataOfEvents() throws Exception {
+    when(appConfig.getSurveys()).thenReturn(ACCEPTED_SURVEYS);
+    SurveyUpdate surveyUpdate = new SurveyUpdate();
+    surveyUpdate.setSurveyId(SURVEY_ID);
+    surveyUpdate.setSampleDefinitionUrl("test/social.json");
+    CollectionExerciseUpdate collectionExercise = new CollectionExerciseUpdate();
+    collectionExercise.setCollectionExerciseId(COLLEX_ID);
+
+    // Firestore fails more reads than the bounded retries of a request would make
+    FlakyFirestore firestore = new FlakyFirestore(new ReadRetryConfig().getMaxAttempts());
+    FirestoreReader firestoreReader = mock(FirestoreReader.class);
+    lenient()
+        .when(firestoreReader.retrieveObject(eq(SurveyUpdate.class), any(), any()))
+        .thenAnswer(invocation -> firestore.read(surveyUpdate));
+    lenient()
+        .when(firestoreReader.retrieveObject(eq(CollectionExerciseUpdate.class), any(), any()))
+        .thenAnswer(invocation -> firestore.read(collectionExercise));
+    RetryableCloudDataStore cloudDataStore = mock(RetryableCloudDataStore.class);
+    when(cloudDataStore.retrieveObject(eq(SurveyUpdate.class), any(), eq(SURVEY_ID)))
+        .thenAnswer(invocation -> firestore.readUntilSuccess(surveyUpdate));
+    when(cloudDataStore.retrieveObject(eq(CollectionExerciseUpdate.class), any(), eq(COLLEX_ID)))
+        .thenAnswer(invocation -> firestore.readUntilSuccess(collectionExercise));
+
+    AppConfig config = new AppConfig();
+    DeadlineAwareReader reader = new DeadlineAwareReader(config, cloudDataStore, firestoreReader);
+    ReferenceDataCaches caches = new ReferenceDataCaches(config, new SimpleMeterRegistry());
+    RepositoryMetrics metrics = new RepositoryMetrics(new SimpleMeterRegistry());
+    SurveyRepository surveyRepo =
+        new SurveyRepository(cloudDataStore, firestoreReader, reader, caches, metrics);
+    ReflectionTestUtils.setField(surveyRepo, "gcpProject", "test");
+    ReflectionTestUtils.setField(surveyRepo, "surveySchemaName", "survey");
+    surveyRepo.init();
+    CollectionExerciseRepository collExRepo =
+        new CollectionExerciseRepository(cloudDataStore, firestoreReader, reader, caches, metrics);
+    ReflectionTestUtils.setField(collExRepo, "gcpProject", "test");
+    ReflectionTestUtils.setField(collExRepo, "collectionExerciseSchemaName", "collex");
+    collExRepo.init();
+
+    EventFilter filter = new EventFilter(appConfig, surveyRepo, collExRepo);
+    assertTrue(filter.isValidEvent(SURVEY_ID, COLLEX_ID, CASE_ID, MESSAGE_ID));
+  }
+
+  /** Firestore which fails a number of reads before it recovers. */
+  private static class FlakyFirestore {
+    private final AtomicInteger failuresLeft;
+
+    FlakyFirestore(int failures) {
+      this.failuresLeft = new AtomicInteger(failures);
+    }
+
+    <T> Optional<T> read(T value) throws CTPException {
+      if (failuresLeft.getAndDecrement() > 0) {
+        throw new CTPException(Fault.SYSTEM_ERROR, "Firestore unavailable");
+      }
+      return Optional.of(value);
+    }
+
+    // as RetryableCloudDataStore does with the cloud-storage backoff
+    <T> Optional<T> readUntilSuccess(T value) {
+      while (true) {
+        try {
+          return read(value);
+        } catch (CTPException e) {
+          // retry
+        }
+      }
+    }
+  }
 }
@@ -41,6 +41,9 @@ import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CollectionExerciseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.UacRepository;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.LaunchDataCache;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SampleAttributeIndex;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.SchoolIndex;
 
 /** Spring Integration test of flow received from Response Management */
 @SpringBootTest
@@ -60,6 +63,9 @@ public class UacEventReceiverImplSpringTest {
   @MockBean private CaseRepository respondentCaseRepo;
   @MockBean private UacRepository respondentUacRepo;
   @MockBean private EventFilter eventFilter;
+  @MockBean private LaunchDataCache launchDataCache;
+  @MockBean private SampleAttributeIndex sampleAttributeIndex;
+  @MockBean private SchoolIndex schoolIndex;
 
   @BeforeEach
   public void initMocks() {
@@ -29,12 +29,14 @@ import uk.gov.ons.ctp.integration.rhsvc.RespondentHomeFixture;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.QueueConfig;
 import uk.gov.ons.ctp.integration.rhsvc.repository.UacRepository;
+import uk.gov.ons.ctp.integration.rhsvc.service.impl.LaunchDataCache;
 
 @ExtendWith(MockitoExtension.class)
 public class UacEventReceiverImplUnit_Test {
 
   private UacRepository mockRespondentUacRepo;
   private EventFilter eventFilter;
+  private LaunchDataCache launchDataCache;
   private UACEventReceiverImpl target;
   private UacEvent UacEventFixture;
   private UacUpdate uacFixture;
@@ -51,6 +53,8 @@ public class UacEventReceiverImplUnit_Test {
     eventFilter = mock(EventFilter.class);
     target.setRespondentUacRepo(mockRespondentUacRepo);
     target.setEventFilter(eventFilter);
+    launchDataCache = mock(LaunchDataCache.class);
+    target.setLaunchDataCache(launchDataCache);
   }
 
   @SneakyThrows
@@ -80,6 +84,7 @@ public class UacEventReceiverImplUnit_Test {
     when(eventFilter.isValidEvent(any(), any(), any(), any())).thenReturn(true);
     prepareAndAcceptEvent(qid, topic);
     verify(mockRespondentUacRepo).writeUAC(uacFixture);
+    verify(launchDataCache).evictUac(uacFixture.getUacHash());
   }
 
   @SneakyThrows
@@ -0,0 +1,156 @@
+package uk.gov.ons.ctp.integration.rhsvc.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore.DUPLICATES_METRIC;
+import static uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore.NEW_CASE;
+import static uk.gov.ons.ctp.integration.rhsvc.idempotency.IdempotencyStore.WEBFORM;
+
+import com.google.common.base.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.IdempotencyConfig;
+
+public class IdempotencyStoreTest {
+  private IdempotencyConfig config = new IdempotencyConfig();
+  private AtomicLong nanos = new AtomicLong();
+  private Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+  private AtomicInteger calls = new AtomicInteger();
+
+  @BeforeEach
+  public void setup() {
+    config.setEnabled(true);
+    config.setTimeToLive(Duration.ofMinutes(10));
+  }
+
+  @Test
+  public void shouldReturnEarlierOutcomeForRepeat() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    assertEquals(1, (int) store.execute(WEBFORM, "k", "body", calls::incrementAndGet));
+    assertEquals(1, (int) store.execute(WEBFORM, "k", "body", calls::incrementAndGet));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void shouldKeepKeysPerEndpoint() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+    store.execute(NEW_CASE, "k", "body", calls::incrementAndGet);
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void shouldProcessRequestsWithoutKey() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    store.execute(WEBFORM, null, "body", calls::incrementAndGet);
+    store.execute(WEBFORM, null, "body", calls::incrementAndGet);
+    store.execute(WEBFORM, " ", "body", calls::incrementAndGet);
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  public void shouldProcessAgainOnceKeyHasExpired() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+    nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+    store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void shouldNotKeepFailures() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    assertThrows(
+        CTPException.class,
+        () ->
+            store.execute(
+                WEBFORM,
+                "k",
+                "body",
+                () -> {
+                  throw new CTPException(Fault.SYSTEM_ERROR);
+                }));
+    assertEquals(1, (int) store.execute(WEBFORM, "k", "body", calls::incrementAndGet));
+  }
+
+  @Test
+  public void shouldRejectKeyReusedForDifferentRequest() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+    CTPException e =
+        assertThrows(
+            CTPException.class,
+            () -> store.execute(WEBFORM, "k", "other", calls::incrementAndGet));
+    assertEquals(Fault.BAD_REQUEST, e.getFault());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void shouldWaitForRequestInProgress() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<Void> release = new CompletableFuture<>();
+    CompletableFuture<Integer> first =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return store.execute(
+                    WEBFORM,
+                    "k",
+                    "body",
+                    () -> {
+                      started.countDown();
+                      release.join();
+                      return calls.incrementAndGet();
+                    });
+              } catch (CTPException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    started.await(5, TimeUnit.SECONDS);
+    CompletableFuture<Integer> repeat =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+              } catch (CTPException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    release.complete(null);
+
+    assertEquals(1, (int) first.get(5, TimeUnit.SECONDS));
+    assertEquals(1, (int) repeat.get(5, TimeUnit.SECONDS));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void shouldCountDuplicatesPerEndpoint() throws Exception {
+    IdempotencyStore store = new IdempotencyStore(config, ticker);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    store.bindTo(registry);
+    store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+    store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+    store.execute(WEBFORM, "k", "body", calls::incrementAndGet);
+
+    assertEquals(
+        2.0, registry.get(DUPLICATES_METRIC).tag("endpoint", WEBFORM).functionCounter().count());
+    assertEquals(
+        0.0, registry.get(DUPLICATES_METRIC).tag("endpoint", NEW_CASE).functionCounter().count());
+  }
+}
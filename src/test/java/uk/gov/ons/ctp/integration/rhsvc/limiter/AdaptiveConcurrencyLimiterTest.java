@@ -0,0 +1,82 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.integration.rhsvc.config.AdaptiveLimitConfig;
+
+public class AdaptiveConcurrencyLimiterTest {
+  private static final long FAST = Duration.ofMillis(10).toNanos();
+  private static final long SLOW = Duration.ofMillis(2000).toNanos();
+
+  private AdaptiveLimitConfig config;
+
+  @BeforeEach
+  public void setup() {
+    config = new AdaptiveLimitConfig();
+    config.setInitialLimit(4);
+    config.setMinLimit(2);
+    config.setMaxLimit(6);
+    config.setLatencyThreshold(Duration.ofMillis(1000));
+    config.setBackoffRatio(0.5);
+  }
+
+  @Test
+  public void shouldRejectOnceLimitReached() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("claim", config);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    assertFalse(limiter.tryAcquire());
+    assertEquals(4, limiter.getInFlight());
+  }
+
+  @Test
+  public void shouldIncreaseLimitWhenFastAndBusy() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("claim", config);
+    acquire(limiter, 3);
+    limiter.release(FAST);
+    assertEquals(5, limiter.getLimit());
+  }
+
+  @Test
+  public void shouldNotIncreaseLimitWhenUnderused() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("claim", config);
+    acquire(limiter, 1);
+    limiter.release(FAST);
+    assertEquals(4, limiter.getLimit());
+  }
+
+  @Test
+  public void shouldBackOffWhenSlow() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("claim", config);
+    acquire(limiter, 1);
+    limiter.release(SLOW);
+    assertEquals(2, limiter.getLimit());
+    acquire(limiter, 1);
+    limiter.release(SLOW);
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  public void shouldNotExceedMaxLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("claim", config);
+    for (int i = 0; i < 10; i++) {
+      acquire(limiter, limiter.getLimit());
+      while (limiter.getInFlight() > 0) {
+        limiter.release(FAST);
+      }
+    }
+    assertEquals(6, limiter.getLimit());
+  }
+
+  private void acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+    for (int i = 0; i < count; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.BulkheadConfig;
+
+public class BulkheadTest {
+  private BulkheadConfig config;
+  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  public void setup() {
+    config = new BulkheadConfig();
+    config.setMaxConcurrentCalls(2);
+  }
+
+  @Test
+  public void shouldRejectCallOnceFull() {
+    Bulkhead bulkhead = new Bulkhead("notify", config);
+    bulkhead.bindTo(meterRegistry);
+
+    ResponseStatusException e =
+        assertThrows(
+            ResponseStatusException.class,
+            () -> bulkhead.run(() -> bulkhead.run(() -> bulkhead.run(() -> {}))));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    assertEquals(1.0, meterRegistry.get("rhsvc.bulkhead.rejected").functionCounter().count());
+    assertEquals(0, bulkhead.getInFlight());
+  }
+
+  @Test
+  public void shouldPublishSaturation() {
+    Bulkhead bulkhead = new Bulkhead("notify", config);
+    bulkhead.bindTo(meterRegistry);
+
+    double saturation =
+        bulkhead.execute(
+            () ->
+                meterRegistry
+                    .get("rhsvc.bulkhead.saturation")
+                    .tag("bulkhead", "notify")
+                    .gauge()
+                    .value());
+
+    assertEquals(0.5, saturation);
+    assertEquals(0.0, bulkhead.getSaturation());
+  }
+
+  @Test
+  public void shouldReleasePermitWhenCallFails() {
+    Bulkhead bulkhead = new Bulkhead("firestore", config);
+
+    assertThrows(
+        CTPException.class,
+        () ->
+            bulkhead.execute(
+                () -> {
+                  throw new CTPException(Fault.SYSTEM_ERROR);
+                }));
+
+    assertEquals(0, bulkhead.getInFlight());
+  }
+
+  @Test
+  public void shouldNotLimitWhenDisabled() throws Exception {
+    config.setEnabled(false);
+    config.setMaxConcurrentCalls(1);
+    Bulkhead bulkhead = new Bulkhead("firestore", config);
+
+    assertEquals("ok", bulkhead.execute(() -> bulkhead.execute(() -> "ok")));
+  }
+}
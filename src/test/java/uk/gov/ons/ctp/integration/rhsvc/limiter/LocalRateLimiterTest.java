@@ -0,0 +1,125 @@
+package uk.gov.ons.ctp.integration.rhsvc.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter.FULFILMENT_IP;
+import static uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter.FULFILMENT_UPRN;
+import static uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter.REJECTED_METRIC;
+import static uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter.WEBFORM_IP;
+
+import com.google.common.base.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.domain.Product;
+import uk.gov.ons.ctp.common.domain.UniquePropertyReferenceNumber;
+import uk.gov.ons.ctp.integration.rhsvc.config.LocalRateLimitConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.TokenBucketConfig;
+
+public class LocalRateLimiterTest {
+  private static final String IP = "123.123.123.123";
+  private static final UniquePropertyReferenceNumber UPRN =
+      UniquePropertyReferenceNumber.create("100040226442");
+
+  private LocalRateLimitConfig config = new LocalRateLimitConfig();
+  private AtomicLong nanos = new AtomicLong();
+  private Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @BeforeEach
+  public void setup() {
+    config.setEnabled(true);
+    config.getLimits().put(WEBFORM_IP, bucket(2, Duration.ofMinutes(1)));
+    config.getLimits().put(FULFILMENT_IP, bucket(10, Duration.ofHours(1)));
+    config.getLimits().put(FULFILMENT_UPRN, bucket(1, Duration.ofHours(1)));
+  }
+
+  @Test
+  public void shouldRejectOnceBucketIsEmpty() {
+    LocalRateLimiter limiter = new LocalRateLimiter(config, ticker);
+    limiter.checkWebform(IP);
+    limiter.checkWebform(IP);
+
+    ResponseStatusException e =
+        assertThrows(ResponseStatusException.class, () -> limiter.checkWebform(IP));
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+    limiter.checkWebform("1.1.1.1");
+  }
+
+  @Test
+  public void shouldRefillOverRefillPeriod() {
+    LocalRateLimiter limiter = new LocalRateLimiter(config, ticker);
+    limiter.checkWebform(IP);
+    limiter.checkWebform(IP);
+
+    nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+    limiter.checkWebform(IP);
+    assertThrows(ResponseStatusException.class, () -> limiter.checkWebform(IP));
+  }
+
+  @Test
+  public void shouldLimitFulfilmentsByUprnAndProduct() {
+    LocalRateLimiter limiter = new LocalRateLimiter(config, ticker);
+    limiter.checkFulfilment(product("P_OR_H1"), IP, UPRN);
+    limiter.checkFulfilment(product("P_OR_H2"), IP, UPRN);
+
+    assertThrows(
+        ResponseStatusException.class,
+        () -> limiter.checkFulfilment(product("P_OR_H1"), "1.1.1.1", UPRN));
+  }
+
+  @Test
+  public void shouldNotCheckUnconfiguredLimits() {
+    LocalRateLimiter limiter = new LocalRateLimiter(config, ticker);
+    for (int i = 0; i < 100; i++) {
+      limiter.checkEqLaunch(IP);
+    }
+  }
+
+  @Test
+  public void shouldNotCheckWhenDisabled() {
+    config.setEnabled(false);
+    LocalRateLimiter limiter = new LocalRateLimiter(config, ticker);
+    for (int i = 0; i < 100; i++) {
+      limiter.checkWebform(IP);
+    }
+  }
+
+  @Test
+  public void shouldCountRejections() {
+    LocalRateLimiter limiter = new LocalRateLimiter(config, ticker);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    limiter.bindTo(registry);
+    limiter.checkFulfilment(product("P_OR_H1"), IP, UPRN);
+    assertThrows(
+        ResponseStatusException.class,
+        () -> limiter.checkFulfilment(product("P_OR_H1"), IP, UPRN));
+
+    assertEquals(
+        1.0, registry.get(REJECTED_METRIC).tag("limit", FULFILMENT_UPRN).functionCounter().count());
+    assertEquals(
+        0.0, registry.get(REJECTED_METRIC).tag("limit", FULFILMENT_IP).functionCounter().count());
+  }
+
+  private TokenBucketConfig bucket(int capacity, Duration refillPeriod) {
+    TokenBucketConfig bucket = new TokenBucketConfig();
+    bucket.setCapacity(capacity);
+    bucket.setRefillPeriod(refillPeriod);
+    return bucket;
+  }
+
+  private Product product(String fulfilmentCode) {
+    Product product = new Product();
+    product.setFulfilmentCode(fulfilmentCode);
+    return product;
+  }
+}
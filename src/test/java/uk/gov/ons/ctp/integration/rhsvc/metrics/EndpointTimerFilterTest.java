@@ -0,0 +1,74 @@
+package uk.gov.ons.ctp.integration.rhsvc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.integration.rhsvc.config.EndpointMetricsConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.EndpointTimerConfig;
+
+public class EndpointTimerFilterTest {
+  private static final double MILLIS = Duration.ofMillis(1).toNanos();
+
+  private EndpointMetricsConfig config = new EndpointMetricsConfig();
+
+  @Test
+  public void shouldPublishDefaultStatisticsForEndpoint() {
+    DistributionStatisticConfig configured =
+        configure(EndpointTimerFilter.REQUESTS_METRIC, "/uacs/{uacHash}");
+
+    assertTrue(configured.isPercentileHistogram());
+    assertArrayEquals(new double[] {0.5, 0.95, 0.99}, configured.getPercentiles());
+    assertArrayEquals(
+        new double[] {100 * MILLIS, 250 * MILLIS, 500 * MILLIS, 1000 * MILLIS, 3000 * MILLIS},
+        configured.getServiceLevelObjectiveBoundaries());
+    assertEquals(MILLIS, configured.getMinimumExpectedValueAsDouble());
+    assertEquals(10000 * MILLIS, configured.getMaximumExpectedValueAsDouble());
+  }
+
+  @Test
+  public void shouldOverrideStatisticsForSingleEndpoint() {
+    EndpointTimerConfig surveys = new EndpointTimerConfig();
+    surveys.setSlo(List.of(Duration.ofMillis(50)));
+    surveys.setPercentileHistogram(false);
+    config.setUris(Map.of("/surveys", surveys));
+
+    DistributionStatisticConfig configured =
+        configure(EndpointTimerFilter.REQUESTS_METRIC, "/surveys");
+
+    assertFalse(configured.isPercentileHistogram());
+    assertArrayEquals(new double[] {50 * MILLIS}, configured.getServiceLevelObjectiveBoundaries());
+    assertArrayEquals(new double[] {0.5, 0.95, 0.99}, configured.getPercentiles());
+  }
+
+  @Test
+  public void shouldLeaveOtherMetersAlone() {
+    assertSame(
+        DistributionStatisticConfig.DEFAULT, configure("rhsvc.repository.operation", "/surveys"));
+    assertSame(
+        DistributionStatisticConfig.DEFAULT,
+        configure(EndpointTimerFilter.REQUESTS_METRIC, "/health"));
+  }
+
+  @Test
+  public void shouldLeaveEndpointsAloneWhenDisabled() {
+    config.setEnabled(false);
+    assertSame(
+        DistributionStatisticConfig.DEFAULT,
+        configure(EndpointTimerFilter.REQUESTS_METRIC, "/uacs/{uacHash}"));
+  }
+
+  private DistributionStatisticConfig configure(String name, String uri) {
+    Meter.Id id = new Meter.Id(name, Tags.of("uri", uri), null, null, Meter.Type.TIMER);
+    return new EndpointTimerFilter(config).configure(id, DistributionStatisticConfig.DEFAULT);
+  }
+}
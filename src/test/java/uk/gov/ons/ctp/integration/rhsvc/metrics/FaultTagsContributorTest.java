@@ -0,0 +1,59 @@
+package uk.gov.ons.ctp.integration.rhsvc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+
+public class FaultTagsContributorTest {
+  private FaultTagsContributor contributor = new FaultTagsContributor();
+  private MockHttpServletRequest request = new MockHttpServletRequest();
+  private MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @Test
+  public void shouldTagSuccessWithNoFault() {
+    assertEquals(FaultTagsContributor.NONE, fault(null));
+  }
+
+  @Test
+  public void shouldTagFaultOfExceptionPassed() {
+    assertEquals(
+        Fault.RESOURCE_NOT_FOUND.name(),
+        fault(new CTPException(Fault.RESOURCE_NOT_FOUND, "Failed to retrieve UAC")));
+  }
+
+  @Test
+  public void shouldTagFaultOfExceptionResolvedByHandler() {
+    assertNull(
+        contributor.resolveException(
+            request, response, null, new CTPException(Fault.BAD_REQUEST, "Invalid request")));
+
+    assertEquals(Fault.BAD_REQUEST.name(), fault(null));
+  }
+
+  @Test
+  public void shouldTagFaultOfWrappedException() {
+    CTPException cause = new CTPException(Fault.SYSTEM_ERROR, "Firestore unavailable");
+    assertEquals(Fault.SYSTEM_ERROR.name(), fault(new IllegalStateException(cause)));
+  }
+
+  @Test
+  public void shouldTagOtherExceptions() {
+    assertEquals(FaultTagsContributor.OTHER, fault(new IllegalArgumentException()));
+  }
+
+  private String fault(Throwable exception) {
+    Iterable<Tag> tags = contributor.getTags(request, response, null, exception);
+    return Tags.of(tags).stream()
+        .filter(t -> t.getKey().equals(FaultTagsContributor.FAULT_TAG))
+        .findFirst()
+        .get()
+        .getValue();
+  }
+}
@@ -1,8 +1,11 @@
 package uk.gov.ons.ctp.integration.rhsvc.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -57,6 +60,53 @@ public class CaseRepositoryIT extends FirestoreTestBase {
     assertEquals(cohortCases, foundByCohort);
   }
 
+  @Test
+  public void shouldFindOnlyValidCasesByAttribute() throws Exception {
+    List<CaseUpdate> cases = FixtureHelper.loadPackageFixtures(CaseUpdate[].class);
+    for (CaseUpdate caze : cases) {
+      setCaseData(caze, "SO145AA", "CC1");
+      caze.setInvalid(false);
+    }
+    cases.get(1).setInvalid(true);
+    for (CaseUpdate caze : cases) {
+      caseRepo.writeCaseUpdate(caze);
+    }
+
+    List<CaseUpdate> foundValid =
+        caseRepo.findCaseUpdatesBySampleAttribute("postcode", "SO145AA", true);
+    List<CaseUpdate> expected = new ArrayList<>(List.of(cases.get(0), cases.get(2)));
+    expected.sort(Comparator.comparing(CaseUpdate::getCaseId));
+    assertEquals(expected, foundValid);
+
+    List<CaseUpdate> foundLimited =
+        caseRepo.findCaseUpdatesBySampleAttribute("postcode", "SO145AA", true, 1);
+    assertEquals(expected.subList(0, 1), foundLimited);
+  }
+
+  @Test
+  public void shouldFindPagesOfCasesByAttribute() throws Exception {
+    List<CaseUpdate> cases = FixtureHelper.loadPackageFixtures(CaseUpdate[].class);
+    for (CaseUpdate caze : cases) {
+      setCaseData(caze, "SO145AA", "CC1");
+      caseRepo.writeCaseUpdate(caze);
+    }
+
+    QueryPage<CaseUpdate> firstPage =
+        caseRepo.findCaseUpdatesBySampleAttribute("postcode", "SO145AA", false, 2, null);
+    assertEquals(2, firstPage.getResults().size());
+
+    QueryPage<CaseUpdate> secondPage =
+        caseRepo.findCaseUpdatesBySampleAttribute(
+            "postcode", "SO145AA", false, 2, firstPage.getNextStartAfterKey());
+    assertNull(secondPage.getNextStartAfterKey());
+
+    List<CaseUpdate> found = new ArrayList<>(firstPage.getResults());
+    found.addAll(secondPage.getResults());
+    List<CaseUpdate> expected = new ArrayList<>(cases);
+    expected.sort(Comparator.comparing(CaseUpdate::getCaseId));
+    assertEquals(expected, found);
+  }
+
   @Test
   public void shouldFindZeroCasesByAttribute() throws Exception {
     List<CaseUpdate> cases = FixtureHelper.loadPackageFixtures(CaseUpdate[].class);
@@ -3,19 +3,25 @@ package uk.gov.ons.ctp.integration.rhsvc.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
+import com.google.cloud.firestore.FieldPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.ons.ctp.common.FixtureHelper;
 import uk.gov.ons.ctp.common.cloud.RetryableCloudDataStore;
 import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
 
 @ExtendWith(MockitoExtension.class)
 public class CaseRepositoryTest {
@@ -23,19 +29,35 @@ public class CaseRepositoryTest {
   private static final String UPRN = "123456";
   private static final String POSTCODE = "UP103UP";
 
-  @Spy private RetryableCloudDataStore mockCloudDataStore;
+  @Mock private RetryableCloudDataStore mockCloudDataStore;
+
+  @Mock private FirestoreReader mockFirestoreReader;
+
+  @Spy
+  private RepositoryMetrics repositoryMetrics = new RepositoryMetrics(new SimpleMeterRegistry());
 
   @InjectMocks private CaseRepository caseRepo;
 
   private List<CaseUpdate> collectionCase;
-  private final String[] searchByUprnPath = new String[] {"sample", "uprn"};
-  private final String[] searchByPostcodePath = new String[] {"sample", "postcode"};
+  private Map<FieldPath, Object> searchValidByUprn;
+  private Map<FieldPath, Object> searchAllByPostcode;
 
   /** Setup tests */
   @BeforeEach
   public void setUp() throws Exception {
     this.collectionCase = FixtureHelper.loadPackageFixtures(CaseUpdate[].class);
     ReflectionTestUtils.setField(caseRepo, "caseSchema", "SCHEMA");
+    ReflectionTestUtils.setField(
+        caseRepo,
+        "deadlineAwareReader",
+        new DeadlineAwareReader(new AppConfig(), mockCloudDataStore, mockFirestoreReader));
+
+    searchValidByUprn = new LinkedHashMap<>();
+    searchValidByUprn.put(FieldPath.of("sample", "uprn"), UPRN);
+    searchValidByUprn.put(FieldPath.of("invalid"), false);
+
+    searchAllByPostcode = new LinkedHashMap<>();
+    searchAllByPostcode.put(FieldPath.of("sample", "postcode"), POSTCODE);
   }
 
   /** Returns Empty List where no valid Address cases are returned from repository */
@@ -43,7 +65,8 @@ public class CaseRepositoryTest {
   public void getInvalidAddressCaseByUPRNOnly() throws Exception {
 
     final List<CaseUpdate> emptyList = new ArrayList<>();
-    when(mockCloudDataStore.search(CaseUpdate.class, caseRepo.caseSchema, searchByUprnPath, UPRN))
+    when(mockFirestoreReader.search(
+            CaseUpdate.class, caseRepo.caseSchema, searchValidByUprn, null))
         .thenReturn(emptyList);
 
     assertEquals(
@@ -52,34 +75,32 @@ public class CaseRepositoryTest {
         "Expects Empty Optional");
   }
 
-  /** Returns Empty List where no valid Address cases are returned from repository */
+  /** Test asks the datastore for only valid cases */
   @Test
-  public void getInvalidCasesByUPRNOnly() throws Exception {
+  public void getOnlyValidCases() throws Exception {
 
-    collectionCase.forEach(cc -> cc.setInvalid(Boolean.TRUE));
-    when(mockCloudDataStore.search(CaseUpdate.class, caseRepo.caseSchema, searchByUprnPath, UPRN))
-        .thenReturn(collectionCase);
+    collectionCase.get(1).setInvalid(false); // ie, it's valid
+    when(mockFirestoreReader.search(
+            CaseUpdate.class, caseRepo.caseSchema, searchValidByUprn, null))
+        .thenReturn(Arrays.asList(collectionCase.get(1)));
 
     assertEquals(
-        new ArrayList<>(),
+        Arrays.asList(collectionCase.get(1)),
         caseRepo.findCaseUpdatesBySampleAttribute("uprn", UPRN, true),
-        "Expects Empty Optional");
+        "Expects only 1 valid case");
   }
 
-  /** Test retrieves only valid cases */
+  /** Test passes the result limit down to the datastore */
   @Test
-  public void getOnlyValidCases() throws Exception {
+  public void getLimitedValidCases() throws Exception {
 
-    collectionCase.get(0).setInvalid(true);
-    collectionCase.get(1).setInvalid(false); // ie, it's valid
-    collectionCase.get(2).setInvalid(true);
-    when(mockCloudDataStore.search(CaseUpdate.class, caseRepo.caseSchema, searchByUprnPath, UPRN))
-        .thenReturn(collectionCase);
+    when(mockFirestoreReader.search(CaseUpdate.class, caseRepo.caseSchema, searchValidByUprn, 2))
+        .thenReturn(collectionCase.subList(0, 2));
 
     assertEquals(
-        Arrays.asList(collectionCase.get(1)),
-        caseRepo.findCaseUpdatesBySampleAttribute("uprn", UPRN, true),
-        "Expects only 1 valid case");
+        collectionCase.subList(0, 2),
+        caseRepo.findCaseUpdatesBySampleAttribute("uprn", UPRN, true, 2),
+        "Expects the limited cases");
   }
 
   /** Test retrieves invalid Address case */
@@ -89,8 +110,8 @@ public class CaseRepositoryTest {
     collectionCase.get(0).setInvalid(true);
     collectionCase.get(1).setInvalid(false);
     collectionCase.get(2).setInvalid(true);
-    when(mockCloudDataStore.search(
-            CaseUpdate.class, caseRepo.caseSchema, searchByPostcodePath, POSTCODE))
+    when(mockFirestoreReader.search(
+            CaseUpdate.class, caseRepo.caseSchema, searchAllByPostcode, null))
         .thenReturn(collectionCase);
 
     assertEquals(
@@ -98,4 +119,16 @@ public class CaseRepositoryTest {
         caseRepo.findCaseUpdatesBySampleAttribute("postcode", POSTCODE, false),
         "Expects all cases, valid or not");
   }
+
+  /** Test asks the datastore for a page of only valid cases */
+  @Test
+  public void getPageOfValidCases() throws Exception {
+
+    QueryPage<CaseUpdate> page = new QueryPage<>(collectionCase.subList(0, 2), "abc");
+    when(mockFirestoreReader.searchPage(
+            CaseUpdate.class, caseRepo.caseSchema, searchValidByUprn, 2, "xyz"))
+        .thenReturn(page);
+
+    assertEquals(page, caseRepo.findCaseUpdatesBySampleAttribute("uprn", UPRN, true, 2, "xyz"));
+  }
 }
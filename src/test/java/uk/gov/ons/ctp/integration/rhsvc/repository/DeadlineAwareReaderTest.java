@@ -0,0 +1,135 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.firestore.FieldPath;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.ons.ctp.common.cloud.RetryableCloudDataStore;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.ReadRetryConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineAwareReaderTest {
+  private static final String SCHEMA = "uac";
+  private static final String KEY = "abc";
+
+  @Mock private RetryableCloudDataStore retryableCloudDataStore;
+  @Mock private FirestoreReader firestoreReader;
+
+  private ReadRetryConfig config = new ReadRetryConfig();
+  private DeadlineAwareReader reader;
+  private UacUpdate uac = new UacUpdate();
+
+  @BeforeEach
+  public void setup() {
+    config.setInitialBackoff(Duration.ofMillis(1));
+    config.setMaxBackoff(Duration.ofMillis(2));
+    config.setMaxAttempts(3);
+    AppConfig appConfig = new AppConfig();
+    appConfig.setReadRetry(config);
+    reader = new DeadlineAwareReader(appConfig, retryableCloudDataStore, firestoreReader);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    RequestDeadline.clear();
+  }
+
+  @Test
+  public void shouldUseRetryableStoreWithoutDeadline() throws Exception {
+    when(retryableCloudDataStore.retrieveObject(UacUpdate.class, SCHEMA, KEY))
+        .thenReturn(Optional.of(uac));
+
+    assertEquals(Optional.of(uac), reader.retrieveObject(UacUpdate.class, SCHEMA, KEY));
+    verifyNoInteractions(firestoreReader);
+  }
+
+  @Test
+  public void shouldRetryFailedReadWithinDeadline() throws Exception {
+    RequestDeadline.start(Duration.ofSeconds(5));
+    when(firestoreReader.retrieveObject(UacUpdate.class, SCHEMA, KEY))
+        .thenThrow(new CTPException(Fault.SYSTEM_ERROR))
+        .thenThrow(new CTPException(Fault.SYSTEM_ERROR))
+        .thenReturn(Optional.of(uac));
+
+    assertEquals(Optional.of(uac), reader.retrieveObject(UacUpdate.class, SCHEMA, KEY));
+    verify(firestoreReader, times(3)).retrieveObject(UacUpdate.class, SCHEMA, KEY);
+    verifyNoInteractions(retryableCloudDataStore);
+  }
+
+  @Test
+  public void shouldRetryFailedSearchWithoutDeadline() throws Exception {
+    Map<FieldPath, Object> conditions = Map.of(FieldPath.of("caseId"), "c1");
+    when(firestoreReader.search(UacUpdate.class, SCHEMA, conditions, null))
+        .thenThrow(new CTPException(Fault.SYSTEM_ERROR))
+        .thenReturn(List.of(uac));
+
+    assertEquals(List.of(uac), reader.search(UacUpdate.class, SCHEMA, conditions, null));
+    verify(firestoreReader, times(2)).search(UacUpdate.class, SCHEMA, conditions, null);
+  }
+
+  @Test
+  public void shouldStopSearchAfterMaxAttemptsWithoutDeadline() throws Exception {
+    Map<FieldPath, Object> conditions = Map.of(FieldPath.of("caseId"), "c1");
+    when(firestoreReader.searchPage(UacUpdate.class, SCHEMA, conditions, 10, null))
+        .thenThrow(new CTPException(Fault.SYSTEM_ERROR));
+
+    assertThrows(
+        CTPException.class,
+        () -> reader.searchPage(UacUpdate.class, SCHEMA, conditions, 10, null));
+    verify(firestoreReader, times(3)).searchPage(UacUpdate.class, SCHEMA, conditions, 10, null);
+  }
+
+  @Test
+  public void shouldStopAfterMaxAttempts() throws Exception {
+    RequestDeadline.start(Duration.ofSeconds(5));
+    when(firestoreReader.retrieveObject(UacUpdate.class, SCHEMA, KEY))
+        .thenThrow(new CTPException(Fault.SYSTEM_ERROR));
+
+    assertThrows(CTPException.class, () -> reader.retrieveObject(UacUpdate.class, SCHEMA, KEY));
+    verify(firestoreReader, times(3)).retrieveObject(UacUpdate.class, SCHEMA, KEY);
+  }
+
+  @Test
+  public void shouldNotRetryOnceDeadlinePassed() throws Exception {
+    RequestDeadline.start(Duration.ofMillis(20));
+    when(firestoreReader.retrieveObject(UacUpdate.class, SCHEMA, KEY))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(25);
+              throw new CTPException(Fault.SYSTEM_ERROR);
+            });
+
+    assertThrows(CTPException.class, () -> reader.retrieveObject(UacUpdate.class, SCHEMA, KEY));
+    verify(firestoreReader, times(1)).retrieveObject(UacUpdate.class, SCHEMA, KEY);
+  }
+
+  @Test
+  public void shouldNotReadWhenDeadlineAlreadyPassed() {
+    RequestDeadline.start(Duration.ZERO);
+
+    CTPException e =
+        assertThrows(
+            CTPException.class, () -> reader.retrieveObject(UacUpdate.class, SCHEMA, KEY));
+    assertEquals(Fault.SYSTEM_ERROR, e.getFault());
+    verifyNoInteractions(firestoreReader, retryableCloudDataStore);
+  }
+}
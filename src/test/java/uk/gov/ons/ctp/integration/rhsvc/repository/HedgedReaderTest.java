@@ -0,0 +1,187 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.HedgedReadConfig;
+
+public class HedgedReaderTest {
+  private static final String SCHEMA = "uac";
+
+  private HedgedReadConfig config = new HedgedReadConfig();
+  private AppConfig appConfig = new AppConfig();
+  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private Deque<ApiFuture<String>> reads = new ArrayDeque<>();
+  private int readCount;
+
+  @BeforeEach
+  public void setup() {
+    config.setEnabled(true);
+    config.setInitialDelay(Duration.ofMillis(1));
+    config.setMinDelay(Duration.ofMillis(1));
+    appConfig.setHedgedRead(config);
+  }
+
+  @Test
+  public void shouldNotHedgeWhenDisabled() {
+    config.setEnabled(false);
+    SettableApiFuture<String> slow = SettableApiFuture.create();
+    reads.add(slow);
+
+    assertSame(slow, new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader()));
+    assertEquals(1, readCount);
+  }
+
+  @Test
+  public void shouldNotHedgeFastRead() throws Exception {
+    reads.add(ApiFutures.immediateFuture("primary"));
+
+    ApiFuture<String> result = new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader());
+
+    assertEquals("primary", result.get());
+    assertEquals(1, readCount);
+    assertEquals(0.0, count(HedgedReader.HEDGES_METRIC));
+  }
+
+  @Test
+  public void shouldUseHedgeWhenItWins() throws Exception {
+    reads.add(SettableApiFuture.create());
+    reads.add(ApiFutures.immediateFuture("hedge"));
+
+    ApiFuture<String> result = new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader());
+
+    assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+    assertEquals(2, readCount);
+    assertEquals(1.0, count(HedgedReader.HEDGES_METRIC));
+    assertEquals(1.0, count(HedgedReader.WINS_METRIC));
+  }
+
+  @Test
+  public void shouldUsePrimaryWhenItWins() throws Exception {
+    SettableApiFuture<String> primary = SettableApiFuture.create();
+    SettableApiFuture<String> hedge = SettableApiFuture.create();
+    reads.add(primary);
+    reads.add(hedge);
+
+    ApiFuture<String> result = new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader());
+    primary.set("primary");
+    hedge.set("hedge");
+
+    assertEquals("primary", result.get(1, TimeUnit.SECONDS));
+    assertEquals(1.0, count(HedgedReader.HEDGES_METRIC));
+    assertEquals(0.0, count(HedgedReader.WINS_METRIC));
+  }
+
+  @Test
+  public void shouldCancelPrimaryWhenHedgeWins() throws Exception {
+    SettableApiFuture<String> primary = SettableApiFuture.create();
+    SettableApiFuture<String> hedge = SettableApiFuture.create();
+    reads.add(primary);
+    reads.add(hedge);
+
+    ApiFuture<String> result = new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader());
+    hedge.set("hedge");
+
+    assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+    assertTrue(primary.isCancelled());
+  }
+
+  @Test
+  public void shouldCancelHedgeWhenPrimaryWins() throws Exception {
+    SettableApiFuture<String> primary = SettableApiFuture.create();
+    SettableApiFuture<String> hedge = SettableApiFuture.create();
+    reads.add(primary);
+    reads.add(hedge);
+
+    ApiFuture<String> result = new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader());
+    primary.set("primary");
+
+    assertEquals("primary", result.get(1, TimeUnit.SECONDS));
+    assertTrue(hedge.isCancelled());
+    assertEquals(0.0, count(HedgedReader.WINS_METRIC));
+  }
+
+  @Test
+  public void shouldCancelBothReadsWhenResultAbandoned() {
+    SettableApiFuture<String> primary = SettableApiFuture.create();
+    SettableApiFuture<String> hedge = SettableApiFuture.create();
+    reads.add(primary);
+    reads.add(hedge);
+
+    ApiFuture<String> result = new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader());
+    result.cancel(true);
+
+    assertTrue(primary.isCancelled());
+    assertTrue(hedge.isCancelled());
+  }
+
+  @Test
+  public void shouldWaitForHedgeWhenPrimaryFails() throws Exception {
+    SettableApiFuture<String> primary = SettableApiFuture.create();
+    SettableApiFuture<String> hedge = SettableApiFuture.create();
+    reads.add(primary);
+    reads.add(hedge);
+
+    ApiFuture<String> result = new HedgedReader(appConfig, meterRegistry).read(SCHEMA, reader());
+    primary.setException(new IllegalStateException("unavailable"));
+    hedge.set("hedge");
+
+    assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldStopHedgingWhenBudgetSpent() {
+    config.setMaxHedgeBurst(1);
+    config.setMaxHedgeRatio(0);
+    HedgedReader hedgedReader = new HedgedReader(appConfig, meterRegistry);
+    for (int i = 0; i < 4; i++) {
+      reads.add(SettableApiFuture.create());
+    }
+
+    hedgedReader.read(SCHEMA, reader());
+    hedgedReader.read(SCHEMA, reader());
+
+    assertEquals(3, readCount);
+    assertEquals(1.0, count(HedgedReader.HEDGES_METRIC));
+    assertEquals(1.0, count(HedgedReader.THROTTLED_METRIC));
+  }
+
+  @Test
+  public void shouldDelayHedgeByPercentileOfRecentReads() {
+    config.setWindowSize(10);
+    config.setDelayPercentile(0.9);
+    HedgedReader.LatencyWindow window = new HedgedReader.LatencyWindow(config);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(1), window.delayNanos());
+
+    for (int millis = 10; millis > 0; millis--) {
+      window.record(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(9), window.delayNanos());
+  }
+
+  private Supplier<ApiFuture<String>> reader() {
+    return () -> {
+      readCount++;
+      return reads.removeFirst();
+    };
+  }
+
+  private double count(String metric) {
+    var counter = meterRegistry.find(metric).tag("schema", SCHEMA).counter();
+    return counter == null ? 0.0 : counter.count();
+  }
+}
@@ -0,0 +1,215 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.cloud.firestore.FieldPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+import uk.gov.ons.ctp.integration.rhsvc.config.InMemoryDataStoreConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.InjectedFaultConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.InjectedFaultConfig.Distribution;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+public class InMemoryCloudDataStoreTest {
+  private static final String SCHEMA = "case";
+
+  private InMemoryDataStoreConfig config = new InMemoryDataStoreConfig();
+
+  @AfterEach
+  public void tearDown() {
+    RequestDeadline.clear();
+  }
+
+  @Test
+  public void shouldStoreRetrieveAndDeleteCopies() throws Exception {
+    InMemoryCloudDataStore store = store();
+    CaseUpdate caseUpdate = caseUpdate("1", "100", false);
+    store.storeObject(SCHEMA, "1", caseUpdate);
+
+    CaseUpdate retrieved = store.retrieveObject(CaseUpdate.class, SCHEMA, "1").get();
+    assertEquals(caseUpdate, retrieved);
+    assertNotSame(caseUpdate, retrieved);
+
+    store.deleteObject(SCHEMA, "1");
+    assertEquals(Optional.empty(), store.retrieveObject(CaseUpdate.class, SCHEMA, "1"));
+  }
+
+  @Test
+  public void shouldListAndSearchInKeyOrder() throws Exception {
+    InMemoryCloudDataStore store = store();
+    store.storeObject(SCHEMA, "3", caseUpdate("3", "100", false));
+    store.storeObject(SCHEMA, "1", caseUpdate("1", "100", false));
+    store.storeObject(SCHEMA, "2", caseUpdate("2", "200", false));
+
+    assertEquals(List.of("1", "2", "3"), ids(store.list(CaseUpdate.class, SCHEMA)));
+    assertEquals(
+        List.of("1", "3"),
+        ids(store.search(CaseUpdate.class, SCHEMA, new String[] {"sample", "uprn"}, "100")));
+  }
+
+  @Test
+  public void shouldReadSeveralObjectsThroughReader() throws Exception {
+    InMemoryCloudDataStore store = store();
+    store.storeObject(SCHEMA, "1", caseUpdate("1", "100", false));
+    store.storeObject(SCHEMA, "2", caseUpdate("2", "200", false));
+    FirestoreReader reader = new InMemoryFirestoreReader(store);
+
+    Map<String, CaseUpdate> results =
+        reader.retrieveObjects(CaseUpdate.class, SCHEMA, List.of("1", "2", "4"));
+    assertEquals(2, results.size());
+    assertEquals("200", results.get("2").getSample().get("uprn"));
+  }
+
+  @Test
+  public void shouldSearchPagesOfValidCasesThroughReader() throws Exception {
+    InMemoryCloudDataStore store = store();
+    store.storeObject(SCHEMA, "1", caseUpdate("1", "100", false));
+    store.storeObject(SCHEMA, "2", caseUpdate("2", "100", true));
+    store.storeObject(SCHEMA, "3", caseUpdate("3", "100", false));
+    store.storeObject(SCHEMA, "4", caseUpdate("4", "100", false));
+    store.storeObject(SCHEMA, "5", caseUpdate("5", "200", false));
+    FirestoreReader reader = new InMemoryFirestoreReader(store);
+    Map<FieldPath, Object> conditions = CaseRepository.searchConditions("uprn", "100", true);
+
+    QueryPage<CaseUpdate> first = reader.searchPage(CaseUpdate.class, SCHEMA, conditions, 2, null);
+    assertEquals(List.of("1", "3"), ids(first.getResults()));
+    assertEquals("3", first.getNextStartAfterKey());
+
+    QueryPage<CaseUpdate> last = reader.searchPage(CaseUpdate.class, SCHEMA, conditions, 2, "3");
+    assertEquals(List.of("4"), ids(last.getResults()));
+    assertNull(last.getNextStartAfterKey());
+
+    assertEquals(List.of("1"), ids(reader.search(CaseUpdate.class, SCHEMA, conditions, 1)));
+  }
+
+  @Test
+  public void shouldInjectErrors() throws Exception {
+    config.getWrite().setErrorRate(1.0);
+    InMemoryCloudDataStore store = store();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    store.bindTo(registry);
+
+    assertThrows(
+        CTPException.class, () -> store.storeObject(SCHEMA, "1", caseUpdate("1", "100", false)));
+    assertEquals(Optional.empty(), store.retrieveObject(CaseUpdate.class, SCHEMA, "1"));
+    assertEquals(
+        1.0,
+        registry
+            .get(InMemoryCloudDataStore.INJECTED_ERRORS_METRIC)
+            .tag("operation", "write")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  public void shouldCountOperations() throws Exception {
+    InMemoryCloudDataStore store = store();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    store.bindTo(registry);
+
+    store.storeObject(SCHEMA, "1", caseUpdate("1", "100", false));
+    store.storeObject(SCHEMA, "1", caseUpdate("1", "200", false));
+    store.retrieveObject(CaseUpdate.class, SCHEMA, "1");
+    store.list(CaseUpdate.class, SCHEMA);
+
+    assertEquals(2.0, operations(registry, "write"));
+    assertEquals(1.0, operations(registry, "read"));
+    assertEquals(1.0, operations(registry, "query"));
+  }
+
+  @Test
+  public void shouldFailOnceRequestDeadlineHasPassed() throws Exception {
+    config.getRead().setDistribution(Distribution.FIXED);
+    config.getRead().setLatency(Duration.ofSeconds(5));
+    InMemoryCloudDataStore store = store();
+    RequestDeadline.start(Duration.ofMillis(20));
+
+    long start = System.nanoTime();
+    assertThrows(CTPException.class, () -> store.retrieveObject(CaseUpdate.class, SCHEMA, "1"));
+    assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+  }
+
+  @Test
+  public void shouldDrawLatenciesWithinMaximum() {
+    InjectedFaultConfig faultConfig = new InjectedFaultConfig();
+    faultConfig.setDistribution(Distribution.LOG_NORMAL);
+    faultConfig.setLatency(Duration.ofMillis(10));
+    faultConfig.setSigma(2.0);
+    faultConfig.setMaxLatency(Duration.ofMillis(50));
+    InjectedFaults faults = new InjectedFaults(faultConfig, "read", 1L);
+
+    for (int i = 0; i < 1000; i++) {
+      long latency = faults.latencyNanos(faults.random(SCHEMA, "1"));
+      assertTrue(latency >= 0 && latency <= Duration.ofMillis(50).toNanos());
+    }
+  }
+
+  @Test
+  public void shouldDrawSameLatenciesForEachKeyWhateverTheOrder() {
+    InjectedFaultConfig faultConfig = new InjectedFaultConfig();
+    faultConfig.setDistribution(Distribution.EXPONENTIAL);
+    faultConfig.setLatency(Duration.ofMillis(10));
+    faultConfig.setMaxLatency(Duration.ofSeconds(1));
+    InjectedFaults first = new InjectedFaults(faultConfig, "read", 42L);
+    InjectedFaults second = new InjectedFaults(faultConfig, "read", 42L);
+
+    List<Long> firstOne = new ArrayList<>();
+    List<Long> firstTwo = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      firstOne.add(first.latencyNanos(first.random(SCHEMA, "1")));
+      firstTwo.add(first.latencyNanos(first.random(SCHEMA, "2")));
+    }
+    List<Long> secondTwo = new ArrayList<>();
+    List<Long> secondOne = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      secondTwo.add(second.latencyNanos(second.random(SCHEMA, "2")));
+    }
+    for (int i = 0; i < 3; i++) {
+      secondOne.add(second.latencyNanos(second.random(SCHEMA, "1")));
+    }
+
+    assertEquals(firstOne, secondOne);
+    assertEquals(firstTwo, secondTwo);
+    assertNotEquals(firstOne, firstTwo);
+  }
+
+  private InMemoryCloudDataStore store() {
+    config.setSeed(1L);
+    return new InMemoryCloudDataStore(config, new CustomObjectMapper());
+  }
+
+  private double operations(SimpleMeterRegistry registry, String operation) {
+    return registry
+        .get(InMemoryCloudDataStore.OPERATIONS_METRIC)
+        .tag("operation", operation)
+        .functionCounter()
+        .count();
+  }
+
+  private CaseUpdate caseUpdate(String caseId, String uprn, boolean invalid) {
+    CaseUpdate caseUpdate = new CaseUpdate();
+    caseUpdate.setCaseId(caseId);
+    caseUpdate.setSample(Map.of("uprn", uprn));
+    caseUpdate.setInvalid(invalid);
+    return caseUpdate;
+  }
+
+  private List<String> ids(List<CaseUpdate> caseUpdates) {
+    return caseUpdates.stream().map(CaseUpdate::getCaseId).collect(Collectors.toList());
+  }
+}
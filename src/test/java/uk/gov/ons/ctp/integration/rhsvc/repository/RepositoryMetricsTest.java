@@ -0,0 +1,134 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.jackson.CustomObjectMapper;
+
+public class RepositoryMetricsTest {
+  private static final String SCHEMA = "test-case";
+
+  private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private RepositoryMetrics metrics = new RepositoryMetrics(registry);
+
+  @Test
+  public void shouldTimeOperationsByOutcome() throws Exception {
+    metrics.read(SCHEMA, "read", () -> Optional.of("found"));
+    metrics.read(SCHEMA, "read", Optional::empty);
+    metrics.read(SCHEMA, "read", Optional::empty);
+    assertThrows(
+        CTPException.class,
+        () ->
+            metrics.read(
+                SCHEMA,
+                "read",
+                () -> {
+                  throw new CTPException(Fault.SYSTEM_ERROR, "failed");
+                }));
+
+    assertEquals(1, timed("read", RepositoryMetrics.SUCCESS));
+    assertEquals(2, timed("read", RepositoryMetrics.NOT_FOUND));
+    assertEquals(1, timed("read", RepositoryMetrics.ERROR));
+  }
+
+  @Test
+  public void shouldRecordDocumentSizeOfWrites() throws Exception {
+    CaseUpdate caseUpdate = new CaseUpdate();
+    caseUpdate.setCaseId("c1");
+    caseUpdate.setSample(Map.of("uprn", "100"));
+
+    metrics.write(SCHEMA, "write", caseUpdate, () -> {});
+
+    assertEquals(1, timed("write", RepositoryMetrics.SUCCESS));
+    double size =
+        registry
+            .get(RepositoryMetrics.DOCUMENT_SIZE_METRIC)
+            .tag("schema", SCHEMA)
+            .summary()
+            .totalAmount();
+    assertEquals(new CustomObjectMapper().writeValueAsBytes(caseUpdate).length, size);
+  }
+
+  @Test
+  public void shouldRecordResultCounts() throws Exception {
+    metrics.readMany(SCHEMA, "search", () -> List.of("a", "b", "c"));
+    metrics.readMany(SCHEMA, "readMany", () -> Map.of("a", "b"));
+    metrics.readMany(SCHEMA, "searchPage", () -> new QueryPage<>(List.of("a", "b"), "b"));
+
+    assertEquals(3, results("search"));
+    assertEquals(1, results("readMany"));
+    assertEquals(2, results("searchPage"));
+  }
+
+  @Test
+  public void shouldCountRetriesOfSuccessfulOperation() throws Exception {
+    metrics.read(
+        SCHEMA,
+        "read",
+        () -> {
+          metrics.onError(null, null, new RuntimeException());
+          RepositoryMetrics.attemptFailed();
+          return Optional.of("found");
+        });
+
+    assertEquals(2, retries("read").count());
+  }
+
+  @Test
+  public void shouldNotCountLastAttemptOfFailedOperationAsRetry() {
+    assertThrows(
+        CTPException.class,
+        () ->
+            metrics.readMany(
+                SCHEMA,
+                "readMany",
+                () -> {
+                  RepositoryMetrics.attemptFailed();
+                  RepositoryMetrics.attemptFailed();
+                  throw new CTPException(Fault.SYSTEM_ERROR, "failed");
+                }));
+
+    assertEquals(1, retries("readMany").count());
+  }
+
+  @Test
+  public void shouldIgnoreFailedAttemptsOutsideOperations() throws Exception {
+    RepositoryMetrics.attemptFailed();
+    metrics.read(SCHEMA, "read", () -> Optional.of("found"));
+
+    assertNull(registry.find(RepositoryMetrics.RETRIES_METRIC).counter());
+  }
+
+  private long timed(String operation, String outcome) {
+    return registry
+        .get(RepositoryMetrics.OPERATION_METRIC)
+        .tags("schema", SCHEMA, "operation", operation, "outcome", outcome)
+        .timer()
+        .count();
+  }
+
+  private double results(String operation) {
+    return registry
+        .get(RepositoryMetrics.RESULTS_METRIC)
+        .tags("schema", SCHEMA, "operation", operation)
+        .summary()
+        .totalAmount();
+  }
+
+  private Counter retries(String operation) {
+    return registry
+        .get(RepositoryMetrics.RETRIES_METRIC)
+        .tags("schema", SCHEMA, "operation", operation)
+        .counter();
+  }
+}
@@ -0,0 +1,238 @@
+package uk.gov.ons.ctp.integration.rhsvc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.ReferenceDataCacheConfig;
+
+public class StaleWhileRevalidateCacheTest {
+  private static final String KEY = "k1";
+
+  private ReferenceDataCacheConfig config = new ReferenceDataCacheConfig();
+  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private TestClock clock = new TestClock();
+  private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  private Map<String, String> datastore = new HashMap<>();
+  private AtomicInteger loads = new AtomicInteger();
+  private volatile boolean failing;
+  private volatile CountDownLatch slow;
+
+  private StaleWhileRevalidateCache<String> cache;
+
+  @BeforeEach
+  public void setup() {
+    config.setEnabled(true);
+    config.setFreshFor(Duration.ofSeconds(60));
+    config.setStaleFor(Duration.ofMinutes(10));
+    config.setLoadTimeout(Duration.ofMillis(100));
+    datastore.put(KEY, "v1");
+    cache =
+        new StaleWhileRevalidateCache<>("test", config, this::load, executor, meterRegistry, clock);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldServeFreshCopyWithoutReading() throws Exception {
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    datastore.put(KEY, "v2");
+    clock.advance(Duration.ofSeconds(59));
+
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void shouldServeStaleCopyAndRefreshInBackground() throws Exception {
+    cache.get(KEY);
+    datastore.put(KEY, "v2");
+    clock.advance(Duration.ofMinutes(2));
+
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    awaitBackgroundWork();
+    assertEquals(Optional.of("v2"), cache.get(KEY));
+    assertEquals(1.0, staleCount("revalidate"));
+  }
+
+  @Test
+  public void shouldServeOldCopyWhenReadFails() throws Exception {
+    cache.get(KEY);
+    clock.advance(Duration.ofHours(1));
+    failing = true;
+
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    assertEquals(1.0, staleCount("error"));
+  }
+
+  @Test
+  public void shouldServeOldCopyWhenReadIsSlow() throws Exception {
+    cache.get(KEY);
+    clock.advance(Duration.ofHours(1));
+    datastore.put(KEY, "v2");
+    slow = new CountDownLatch(1);
+
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    assertEquals(1.0, staleCount("timeout"));
+
+    // the slow read still completes, and updates the cache
+    slow.countDown();
+    awaitBackgroundWork();
+    assertEquals(Optional.of("v2"), cache.get(KEY));
+  }
+
+  @Test
+  public void shouldShareReadInFlight() throws Exception {
+    cache.get(KEY);
+    clock.advance(Duration.ofHours(1));
+    slow = new CountDownLatch(1);
+
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    assertEquals(Optional.of("v1"), cache.get(KEY));
+    assertEquals(3.0, staleCount("timeout"));
+
+    slow.countDown();
+    awaitBackgroundWork();
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void shouldFailWithoutAnyCopy() {
+    failing = true;
+    assertThrows(CTPException.class, () -> cache.get(KEY));
+  }
+
+  @Test
+  public void shouldReadWhenMarkedStale() throws Exception {
+    cache.get(KEY);
+    datastore.put(KEY, "v2");
+    cache.markStale(KEY);
+
+    assertEquals(Optional.of("v2"), cache.get(KEY));
+  }
+
+  @Test
+  public void shouldReadOnlyMissingCopiesInBatch() throws Exception {
+    datastore.put("k2", "v2");
+    cache.get(KEY);
+
+    List<List<String>> batches = new ArrayList<>();
+    Map<String, String> found =
+        cache.getAll(
+            List.of(KEY, "k2", "k3"),
+            keys -> {
+              batches.add(List.copyOf(keys));
+              Map<String, String> results = new HashMap<>();
+              keys.stream()
+                  .filter(datastore::containsKey)
+                  .forEach(k -> results.put(k, datastore.get(k)));
+              return results;
+            });
+
+    assertEquals(Map.of(KEY, "v1", "k2", "v2"), found);
+    assertEquals(List.of(List.of("k2", "k3")), batches);
+  }
+
+  @Test
+  public void shouldServeOldCopiesWhenBatchReadFails() throws Exception {
+    cache.get(KEY);
+    clock.advance(Duration.ofHours(1));
+
+    Map<String, String> found =
+        cache.getAll(
+            List.of(KEY),
+            keys -> {
+              throw new CTPException(Fault.SYSTEM_ERROR);
+            });
+
+    assertEquals(Map.of(KEY, "v1"), found);
+    assertEquals(1.0, staleCount("error"));
+  }
+
+  @Test
+  public void shouldAlwaysReadWhenDisabled() throws Exception {
+    config.setEnabled(false);
+    cache =
+        new StaleWhileRevalidateCache<>("test", config, this::load, executor, meterRegistry, clock);
+
+    cache.get(KEY);
+    cache.get(KEY);
+    assertEquals(2, loads.get());
+  }
+
+  private Optional<String> load(String key) throws CTPException {
+    loads.incrementAndGet();
+    CountDownLatch latch = slow;
+    if (latch != null) {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (failing) {
+      throw new CTPException(Fault.SYSTEM_ERROR, "datastore unavailable");
+    }
+    return Optional.ofNullable(datastore.get(key));
+  }
+
+  private void awaitBackgroundWork() throws Exception {
+    executor.submit(() -> {}).get();
+  }
+
+  private double staleCount(String reason) {
+    return meterRegistry
+        .get(StaleWhileRevalidateCache.STALE_METRIC)
+        .tag("reason", reason)
+        .counter()
+        .count();
+  }
+
+  /** A clock which only moves when told to. */
+  private static class TestClock extends Clock {
+    private Instant now = Instant.parse("2022-01-01T10:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -3,24 +3,61 @@ package uk.gov.ons.ctp.integration.rhsvc.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.ons.ctp.common.FixtureHelper;
 import uk.gov.ons.ctp.common.cloud.RetryableCloudDataStore;
 import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
 
 @ExtendWith(MockitoExtension.class)
 public class SurveyRepositoryTest {
 
   @Spy private RetryableCloudDataStore mockCloudDataStore;
 
+  @Mock private FirestoreReader mockFirestoreReader;
+
+  @Spy
+  private ReferenceDataCaches referenceDataCaches =
+      new ReferenceDataCaches(new AppConfig(), new SimpleMeterRegistry());
+
+  @Spy
+  private RepositoryMetrics repositoryMetrics = new RepositoryMetrics(new SimpleMeterRegistry());
+
   @InjectMocks private SurveyRepository surveyRepo;
 
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(surveyRepo, "gcpProject", "test");
+    ReflectionTestUtils.setField(surveyRepo, "surveySchemaName", "survey");
+    ReflectionTestUtils.setField(
+        surveyRepo,
+        "deadlineAwareReader",
+        new DeadlineAwareReader(new AppConfig(), mockCloudDataStore, mockFirestoreReader));
+    surveyRepo.init();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    RequestDeadline.clear();
+  }
+
   @Test
   public void shouldListSurveys() throws Exception {
     var surveys = FixtureHelper.loadClassFixtures(SurveyUpdate[].class);
@@ -28,4 +65,15 @@ public class SurveyRepositoryTest {
     var listedSurveys = surveyRepo.listSurveys();
     assertEquals(3, listedSurveys.size());
   }
+
+  @Test
+  public void shouldListSurveysWithinRequestDeadline() throws Exception {
+    RequestDeadline.start(Duration.ofSeconds(10));
+    var surveys = FixtureHelper.loadClassFixtures(SurveyUpdate[].class);
+    when(mockFirestoreReader.search(eq(SurveyUpdate.class), any(), eq(Map.of()), isNull()))
+        .thenReturn(surveys);
+    var listedSurveys = surveyRepo.listSurveys();
+    assertEquals(3, listedSurveys.size());
+    verify(mockCloudDataStore, never()).list(any(), any());
+  }
 }
@@ -3,6 +3,8 @@ package uk.gov.ons.ctp.integration.rhsvc.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,4 +35,13 @@ public class UacRepositoryIT extends FirestoreTestBase {
     assertTrue(retrieved.isPresent());
     assertEquals(uacUpdate, retrieved.get());
   }
+
+  @Test
+  public void shouldReadSeveralUacUpdates() throws Exception {
+    UacUpdate uacUpdate = FixtureHelper.loadPackageFixtures(UacUpdate[].class).get(0);
+    uacRepo.writeUAC(uacUpdate);
+
+    Map<String, UacUpdate> retrieved = uacRepo.readUACs(List.of(UAC_HASH, "unknown", UAC_HASH));
+    assertEquals(Map.of(UAC_HASH, uacUpdate), retrieved);
+  }
 }
@@ -10,13 +10,16 @@ import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import ma.glasnost.orika.MapperFacade;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -49,9 +52,14 @@ import uk.gov.ons.ctp.common.event.model.FulfilmentRequest;
 import uk.gov.ons.ctp.common.event.model.SurveyUpdate;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient.Domain;
-import uk.gov.ons.ctp.integration.rhsvc.RHSvcBeanMapper;
+import uk.gov.ons.ctp.integration.rhsvc.DirectDtoMapper;
+import uk.gov.ons.ctp.integration.rhsvc.DtoMapper;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.BulkheadConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.RateLimiterConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 import uk.gov.ons.ctp.integration.rhsvc.representation.PrintFulfilmentRequestDTO;
@@ -72,8 +80,17 @@ public class CaseServiceImplFulfilmentTest {
   @Mock private EventPublisher eventPublisher;
 
   @Mock private RateLimiterClient rateLimiterClient;
+  @Mock private LocalRateLimiter localRateLimiter;
 
-  @Spy private MapperFacade mapperFacade = new RHSvcBeanMapper();
+  @Spy private DtoMapper dtoMapper = new DirectDtoMapper();
+
+  @Spy private FanOut fanOut = new FanOut(MoreExecutors.newDirectExecutorService());
+
+  @Spy
+  private Bulkhead envoyLimiterBulkhead = new Bulkhead("envoyLimiter", new BulkheadConfig());
+
+  @Spy
+  private Bulkhead eventPublisherBulkhead = new Bulkhead("eventPublisher", new BulkheadConfig());
 
   @Captor private ArgumentCaptor<Product> productCaptor;
 
@@ -111,6 +128,11 @@ public class CaseServiceImplFulfilmentTest {
     lenient().when(appConfig.getRateLimiter()).thenReturn(rateLimiterConfig(true));
   }
 
+  @AfterEach
+  public void tearDown() {
+    RequestDeadline.clear();
+  }
+
   private RateLimiterConfig rateLimiterConfig(boolean enabled) {
     RateLimiterConfig rateLimiterConfig = new RateLimiterConfig();
     rateLimiterConfig.setEnabled(enabled);
@@ -218,14 +240,14 @@ public class CaseServiceImplFulfilmentTest {
   private void assertRejectPostalFulfilmentForIndividualWithoutContactName() throws Exception {
     String caseId = caseDetails.getCaseId();
     printRequest.setCaseId(UUID.fromString(caseId));
-    when(dataRepo.readCaseUpdate(eq(caseId))).thenReturn(Optional.of(caseDetails));
-    when(surveyRepository.readSurvey(any())).thenReturn(Optional.of(surveyUpdate));
     CTPException e =
         assertThrows(CTPException.class, () -> caseSvc.fulfilmentRequestByPost(printRequest));
     assertTrue(
         e.getMessage()
             .contains(
                 "The fulfilment is for an individual so none of the following fields can be empty"));
+    // the request is rejected before any remote call is made
+    verifyNoInteractions(dataRepo, surveyRepository);
     verifyRateLimiterNotCalled();
   }
 
@@ -272,6 +294,21 @@ public class CaseServiceImplFulfilmentTest {
     verifyRateLimiterNotCalled();
   }
 
+  @Test
+  public void shouldNotChargeRateLimiterForFulfilmentOnceDeadlinePassed() throws Exception {
+    when(dataRepo.readCaseUpdate(any())).thenReturn(Optional.of(caseDetails));
+    when(surveyRepository.readSurvey(any())).thenReturn(Optional.of(surveyUpdate));
+    RequestDeadline.start(Duration.ZERO);
+
+    ResponseStatusException e =
+        assertThrows(
+            ResponseStatusException.class, () -> caseSvc.fulfilmentRequestByPost(printRequest));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    verifyNoInteractions(localRateLimiter, eventPublisher);
+    verifyRateLimiterNotCalled();
+  }
+
   // --- multi postal fulfilment tests
 
   @Test
@@ -403,6 +440,7 @@ public class CaseServiceImplFulfilmentTest {
 
     caseSvc.fulfilmentRequestByPost(printRequest);
     verifyRateLimiterNotCalled();
+    verifyNoInteractions(localRateLimiter);
   }
 
   //  @Test
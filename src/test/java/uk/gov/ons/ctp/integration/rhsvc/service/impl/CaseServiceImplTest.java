@@ -2,17 +2,22 @@ package uk.gov.ons.ctp.integration.rhsvc.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import ma.glasnost.orika.MapperFacade;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +28,7 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
 import uk.gov.ons.ctp.common.FixtureHelper;
 import uk.gov.ons.ctp.common.domain.Channel;
 import uk.gov.ons.ctp.common.domain.Source;
@@ -31,11 +37,17 @@ import uk.gov.ons.ctp.common.event.EventPublisher;
 import uk.gov.ons.ctp.common.event.TopicType;
 import uk.gov.ons.ctp.common.event.model.CaseUpdate;
 import uk.gov.ons.ctp.common.event.model.NewCasePayloadContent;
-import uk.gov.ons.ctp.integration.rhsvc.RHSvcBeanMapper;
+import uk.gov.ons.ctp.integration.rhsvc.DirectDtoMapper;
+import uk.gov.ons.ctp.integration.rhsvc.DtoMapper;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.BulkheadConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.CaseSearchConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.Sis;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueryPage;
 import uk.gov.ons.ctp.integration.rhsvc.representation.CaseDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.CaseSearchPageDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.NewCaseDTO;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,7 +64,15 @@ public class CaseServiceImplTest {
 
   @Mock private EventPublisher eventPublisher;
 
-  @Spy private MapperFacade mapperFacade = new RHSvcBeanMapper();
+  @Mock private SampleAttributeIndex sampleAttributeIndex;
+
+  @Spy private DtoMapper dtoMapper = new DirectDtoMapper();
+
+  @Spy
+  private Bulkhead envoyLimiterBulkhead = new Bulkhead("envoyLimiter", new BulkheadConfig());
+
+  @Spy
+  private Bulkhead eventPublisherBulkhead = new Bulkhead("eventPublisher", new BulkheadConfig());
 
   @Spy private AppConfig appConfig = new AppConfig();
 
@@ -70,6 +90,7 @@ public class CaseServiceImplTest {
     Sis sis = new Sis();
     sis.setCollectionExerciseId(COLLECTION_EXERCISE_ID);
     appConfig.setSis(sis);
+    appConfig.setCaseSearch(new CaseSearchConfig());
     ReflectionTestUtils.setField(caseSvc, "appConfig", appConfig);
   }
 
@@ -113,6 +134,63 @@ public class CaseServiceImplTest {
     assertEquals(expectedCase.getSampleSensitive(), actualCase.getSampleSensitive());
   }
 
+  /** Test verifies that cases found in the index are read back rather than searched for */
+  @Test
+  public void getCaseFoundByIndex() throws Exception {
+    CaseUpdate caze = caseUpdates.get(0);
+    caze.getSample().put("uprn", UPRN);
+    caze.setInvalid(false);
+    Set<String> caseIds = Set.of(caze.getCaseId());
+    when(sampleAttributeIndex.findCaseIds("uprn", UPRN)).thenReturn(Optional.of(caseIds));
+    when(dataRepo.readCaseUpdates(caseIds)).thenReturn(Map.of(caze.getCaseId(), caze));
+
+    List<CaseDTO> rmCase = caseSvc.findCasesBySampleAttribute("uprn", UPRN);
+
+    assertEquals(1, rmCase.size());
+    verifyCase(caze, rmCase.get(0));
+    verify(dataRepo, never()).findCaseUpdatesBySampleAttribute("uprn", UPRN, true);
+  }
+
+  /** Test verifies that a stale index entry is checked against the stored case */
+  @Test
+  public void getNoCaseWhenIndexStale() throws Exception {
+    CaseUpdate caze = caseUpdates.get(0);
+    caze.getSample().put("uprn", "999999");
+    Set<String> caseIds = Set.of(caze.getCaseId());
+    when(sampleAttributeIndex.findCaseIds("uprn", UPRN)).thenReturn(Optional.of(caseIds));
+    when(dataRepo.readCaseUpdates(caseIds)).thenReturn(Map.of(caze.getCaseId(), caze));
+
+    List<CaseDTO> rmCase = caseSvc.findCasesBySampleAttribute("uprn", UPRN);
+
+    assertTrue(rmCase.isEmpty());
+    verify(dataRepo, never()).findCaseUpdatesBySampleAttribute("uprn", UPRN, true);
+  }
+
+  /** Test verifies that no cases held by the index is answered without searching */
+  @Test
+  public void getNoCaseWhenIndexHoldsNone() throws Exception {
+    when(sampleAttributeIndex.findCaseIds("uprn", UPRN)).thenReturn(Optional.of(Set.of()));
+
+    List<CaseDTO> rmCase = caseSvc.findCasesBySampleAttribute("uprn", UPRN);
+
+    assertTrue(rmCase.isEmpty());
+    verify(dataRepo, never()).readCaseUpdates(any());
+    verify(dataRepo, never()).findCaseUpdatesBySampleAttribute("uprn", UPRN, true);
+  }
+
+  /** Test verifies that the cases are searched for when the index cannot answer */
+  @Test
+  public void getCaseSearchedForWhenIndexCannotAnswer() throws Exception {
+    when(sampleAttributeIndex.findCaseIds("uprn", UPRN)).thenReturn(Optional.empty());
+    when(dataRepo.findCaseUpdatesBySampleAttribute("uprn", UPRN, true))
+        .thenReturn(caseUpdates.subList(1, 2));
+
+    List<CaseDTO> rmCase = caseSvc.findCasesBySampleAttribute("uprn", UPRN);
+
+    assertEquals(1, rmCase.size());
+    verifyCase(caseUpdates.get(1), rmCase.get(0));
+  }
+
   /** Test throws a CTPException where no valid Address cases are returned from repository */
   @Test
   public void getInvalidAddressCaseByUPRNOnly() throws Exception {
@@ -132,6 +210,77 @@ public class CaseServiceImplTest {
     assertTrue(foundCases.isEmpty());
   }
 
+  @Test
+  public void shouldFindFirstPageOfCases() throws Exception {
+    String lastCaseId = caseUpdates.get(0).getCaseId();
+    when(dataRepo.findCaseUpdatesBySampleAttribute("townName", "Upton", true, 1, null))
+        .thenReturn(new QueryPage<>(caseUpdates.subList(0, 1), lastCaseId));
+
+    CaseSearchPageDTO page = caseSvc.findCasesBySampleAttribute("townName", "Upton", 1, null);
+
+    assertEquals(1, page.getCases().size());
+    verifyCase(caseUpdates.get(0), page.getCases().get(0));
+    assertNotNull(page.getNextPageToken());
+
+    when(dataRepo.findCaseUpdatesBySampleAttribute("townName", "Upton", true, 1, lastCaseId))
+        .thenReturn(new QueryPage<>(caseUpdates.subList(1, 2), null));
+
+    CaseSearchPageDTO nextPage =
+        caseSvc.findCasesBySampleAttribute("townName", "Upton", 1, page.getNextPageToken());
+
+    assertEquals(1, nextPage.getCases().size());
+    verifyCase(caseUpdates.get(1), nextPage.getCases().get(0));
+    assertNull(nextPage.getNextPageToken());
+  }
+
+  @Test
+  public void shouldUseDefaultPageSize() throws Exception {
+    when(dataRepo.findCaseUpdatesBySampleAttribute("townName", "Upton", true, 50, null))
+        .thenReturn(new QueryPage<>(caseUpdates, null));
+
+    CaseSearchPageDTO page = caseSvc.findCasesBySampleAttribute("townName", "Upton", null, null);
+
+    assertEquals(2, page.getCases().size());
+    assertNull(page.getNextPageToken());
+  }
+
+  @Test
+  public void shouldRejectPageLimitAboveMaximum() throws Exception {
+    CTPException e =
+        assertThrows(
+            CTPException.class,
+            () -> caseSvc.findCasesBySampleAttribute("townName", "Upton", 501, null));
+    assertEquals(Fault.BAD_REQUEST, e.getFault());
+    verify(dataRepo, never())
+        .findCaseUpdatesBySampleAttribute("townName", "Upton", true, 501, null);
+  }
+
+  @Test
+  public void shouldRejectInvalidPageToken() throws Exception {
+    CTPException e =
+        assertThrows(
+            CTPException.class,
+            () -> caseSvc.findCasesBySampleAttribute("townName", "Upton", 10, "not*a*token"));
+    assertEquals(Fault.BAD_REQUEST, e.getFault());
+  }
+
+  @Test
+  public void shouldStreamCasesPageByPage() throws Exception {
+    appConfig.getCaseSearch().setStreamPageSize(1);
+    String lastCaseId = caseUpdates.get(0).getCaseId();
+    when(dataRepo.findCaseUpdatesBySampleAttribute("townName", "Upton", true, 1, null))
+        .thenReturn(new QueryPage<>(caseUpdates.subList(0, 1), lastCaseId));
+    when(dataRepo.findCaseUpdatesBySampleAttribute("townName", "Upton", true, 1, lastCaseId))
+        .thenReturn(new QueryPage<>(caseUpdates.subList(1, 2), null));
+
+    List<List<CaseDTO>> pages = new ArrayList<>();
+    caseSvc.streamCasesBySampleAttribute("townName", "Upton", pages::add);
+
+    assertEquals(2, pages.size());
+    verifyCase(caseUpdates.get(0), pages.get(0).get(0));
+    verifyCase(caseUpdates.get(1), pages.get(1).get(0));
+  }
+
   @Test
   public void shouldCreateNewCaseRequestPayload() throws Exception {
     callAndVerifyNewCaseCreated();
@@ -0,0 +1,113 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+
+public class FanOutTest {
+  private FanOut fanOut = new FanOut(new AppConfig());
+
+  @AfterEach
+  public void tearDown() {
+    fanOut.shutdown();
+    RequestDeadline.clear();
+  }
+
+  @Test
+  public void shouldRunCallsConcurrently() throws Exception {
+    CountDownLatch allStarted = new CountDownLatch(3);
+    FanOut.Call call =
+        () -> {
+          allStarted.countDown();
+          try {
+            assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+          } catch (InterruptedException e) {
+            throw new CTPException(Fault.SYSTEM_ERROR, e, "Interrupted");
+          }
+        };
+
+    fanOut.runAll(List.of(call, call, call));
+  }
+
+  @Test
+  public void shouldWaitForAllCallsBeforeRethrowingFailure() throws Exception {
+    Set<String> finished = ConcurrentHashMap.newKeySet();
+    CTPException failure = new CTPException(Fault.SYSTEM_ERROR, "failed");
+    List<FanOut.Call> calls =
+        List.of(
+            () -> {
+              throw failure;
+            },
+            () -> {
+              sleep(100);
+              finished.add("slow");
+            });
+
+    CTPException e = assertThrows(CTPException.class, () -> fanOut.runAll(calls));
+
+    assertSame(failure, e);
+    assertEquals(Set.of("slow"), finished);
+  }
+
+  @Test
+  public void shouldRethrowRuntimeException() {
+    List<FanOut.Call> calls =
+        List.of(
+            () -> {},
+            () -> {
+              throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS);
+            });
+
+    ResponseStatusException e =
+        assertThrows(ResponseStatusException.class, () -> fanOut.runAll(calls));
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+  }
+
+  @Test
+  public void shouldRunCallsWithRequestDeadline() throws Exception {
+    RequestDeadline.start(Duration.ofSeconds(10));
+    Set<Boolean> deadlineSet = ConcurrentHashMap.newKeySet();
+    FanOut.Call call = () -> deadlineSet.add(RequestDeadline.isSet());
+
+    fanOut.runAll(List.of(call, call));
+
+    assertEquals(Set.of(true), deadlineSet);
+    assertTrue(RequestDeadline.isSet());
+  }
+
+  @Test
+  public void shouldRunSingleCallOnRequestThread() throws Exception {
+    Thread requestThread = Thread.currentThread();
+    Set<Boolean> onRequestThread = ConcurrentHashMap.newKeySet();
+
+    fanOut.runAll(List.of(() -> onRequestThread.add(Thread.currentThread() == requestThread)));
+
+    assertEquals(Set.of(true), onRequestThread);
+    assertFalse(RequestDeadline.isSet());
+  }
+
+  private void sleep(long millis) throws CTPException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new CTPException(Fault.SYSTEM_ERROR, e, "Interrupted");
+    }
+  }
+}
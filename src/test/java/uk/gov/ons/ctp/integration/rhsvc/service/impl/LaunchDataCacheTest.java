@@ -0,0 +1,107 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.UacUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.LaunchDataCacheConfig;
+import uk.gov.ons.ctp.integration.rhsvc.representation.LaunchDataDTO;
+
+public class LaunchDataCacheTest {
+  private static final String CASE_ID = "bfb5cdca-3119-4d2c-a807-51ae55443b33";
+
+  private AppConfig appConfig = new AppConfig();
+  private LaunchDataCache cache;
+
+  @BeforeEach
+  public void setup() {
+    LaunchDataCacheConfig config = new LaunchDataCacheConfig();
+    config.setEnabled(true);
+    config.setMaximumSize(2);
+    appConfig.setLaunchDataCache(config);
+    cache = new LaunchDataCache(appConfig);
+  }
+
+  @Test
+  public void shouldTakeParkedDataOnce() {
+    LaunchDataDTO launchData = launchData(CASE_ID);
+    cache.put("uac1", launchData, System.nanoTime());
+    assertSame(launchData, cache.take("uac1"));
+    assertNull(cache.take("uac1"));
+  }
+
+  @Test
+  public void shouldEvictOnUacUpdate() {
+    cache.put("uac1", launchData(CASE_ID), System.nanoTime());
+    cache.evictUac("uac1");
+    assertNull(cache.take("uac1"));
+  }
+
+  @Test
+  public void shouldEvictAllUacsOfUpdatedCase() {
+    cache.put("uac1", launchData(CASE_ID), System.nanoTime());
+    cache.put("uac2", launchData(CASE_ID), System.nanoTime());
+    cache.evictCase(CASE_ID);
+    assertNull(cache.take("uac1"));
+    assertNull(cache.take("uac2"));
+  }
+
+  @Test
+  public void shouldNotParkDataGatheredBeforeUacEviction() {
+    long gatheredFrom = System.nanoTime();
+    cache.evictUac("uac1");
+    cache.put("uac1", launchData(CASE_ID), gatheredFrom);
+    assertNull(cache.take("uac1"));
+  }
+
+  @Test
+  public void shouldNotParkDataGatheredBeforeCaseEviction() {
+    long gatheredFrom = System.nanoTime();
+    cache.evictCase(CASE_ID);
+    cache.put("uac1", launchData(CASE_ID), gatheredFrom);
+    assertNull(cache.take("uac1"));
+  }
+
+  @Test
+  public void shouldParkDataGatheredAfterEviction() {
+    cache.evictUac("uac1");
+    LaunchDataDTO launchData = launchData(CASE_ID);
+    cache.put("uac1", launchData, System.nanoTime());
+    assertSame(launchData, cache.take("uac1"));
+  }
+
+  @Test
+  public void shouldNotEvictOtherCases() {
+    cache.put("uac1", launchData(CASE_ID), System.nanoTime());
+    cache.evictCase("another-case");
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void shouldBeBoundedBySize() {
+    cache.put("uac1", launchData(CASE_ID), System.nanoTime());
+    cache.put("uac2", launchData(CASE_ID), System.nanoTime());
+    cache.put("uac3", launchData(CASE_ID), System.nanoTime());
+    assertTrue(cache.size() <= 2);
+  }
+
+  @Test
+  public void shouldDoNothingWhenDisabled() {
+    appConfig.getLaunchDataCache().setEnabled(false);
+    cache = new LaunchDataCache(appConfig);
+    cache.put("uac1", launchData(CASE_ID), System.nanoTime());
+    assertNull(cache.take("uac1"));
+  }
+
+  private LaunchDataDTO launchData(String caseId) {
+    CaseUpdate caseUpdate = new CaseUpdate();
+    caseUpdate.setCaseId(caseId);
+    return LaunchDataDTO.builder().uacUpdate(new UacUpdate()).caseUpdate(caseUpdate).build();
+  }
+}
@@ -0,0 +1,141 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.SampleIndexConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueryPage;
+
+@ExtendWith(MockitoExtension.class)
+public class SampleAttributeIndexTest {
+  private static final String CASE_ID_1 = "dc4477d1-dd3f-4c69-b181-7ff725dc9fa4";
+  private static final String CASE_ID_2 = "dc4477d1-dd3f-4c69-b182-7ff725dc9fa5";
+
+  @Mock private CaseRepository caseRepository;
+
+  private AppConfig appConfig = new AppConfig();
+  private SampleIndexConfig config = new SampleIndexConfig();
+
+  @BeforeEach
+  public void setup() {
+    config.setEnabled(true);
+    config.setCompleteEventFeed(true);
+    config.setAttributes(Set.of("uprn", "schoolId"));
+    appConfig.setSampleIndex(config);
+  }
+
+  @Test
+  public void shouldNotAnswerWhenDisabled() {
+    config.setEnabled(false);
+    SampleAttributeIndex index = new SampleAttributeIndex(appConfig, caseRepository);
+    index.index(caseUpdate(CASE_ID_1, "uprn", "123"));
+    assertEquals(Optional.empty(), index.findCaseIds("uprn", "123"));
+    verifyNoInteractions(caseRepository);
+  }
+
+  @Test
+  public void shouldNotAnswerUntilBuilt() {
+    SampleAttributeIndex index = new SampleAttributeIndex(appConfig, caseRepository);
+    index.index(caseUpdate(CASE_ID_1, "uprn", "123"));
+    assertFalse(index.isReady());
+    assertEquals(Optional.empty(), index.findCaseIds("uprn", "123"));
+  }
+
+  @Test
+  public void shouldRebuildFromPagesOfCases() throws Exception {
+    config.setRebuildPageSize(1);
+    when(caseRepository.readCaseUpdatePage(1, null))
+        .thenReturn(new QueryPage<>(List.of(caseUpdate(CASE_ID_1, "uprn", "123")), CASE_ID_1));
+    when(caseRepository.readCaseUpdatePage(1, CASE_ID_1))
+        .thenReturn(new QueryPage<>(List.of(caseUpdate(CASE_ID_2, "uprn", "123")), null));
+
+    SampleAttributeIndex index = new SampleAttributeIndex(appConfig, caseRepository);
+    index.rebuild();
+
+    assertTrue(index.isReady());
+    assertEquals(Optional.of(Set.of(CASE_ID_1, CASE_ID_2)), index.findCaseIds("uprn", "123"));
+    assertEquals(Optional.of(Set.of()), index.findCaseIds("uprn", "456"));
+    assertEquals(Optional.empty(), index.findCaseIds("postcode", "123"));
+  }
+
+  @Test
+  public void shouldNotAnswerWithoutCompleteEventFeed() throws Exception {
+    config.setCompleteEventFeed(false);
+    when(caseRepository.readCaseUpdatePage(anyInt(), isNull()))
+        .thenReturn(new QueryPage<>(List.of(caseUpdate(CASE_ID_1, "uprn", "123")), null));
+    SampleAttributeIndex index = new SampleAttributeIndex(appConfig, caseRepository);
+
+    index.rebuild();
+
+    assertTrue(index.isReady());
+    assertEquals(Optional.empty(), index.findCaseIds("uprn", "123"));
+  }
+
+  @Test
+  public void shouldReindexChangedCase() throws Exception {
+    when(caseRepository.readCaseUpdatePage(anyInt(), isNull()))
+        .thenReturn(new QueryPage<>(List.of(caseUpdate(CASE_ID_1, "schoolId", "ab1")), null));
+    SampleAttributeIndex index = new SampleAttributeIndex(appConfig, caseRepository);
+    index.rebuild();
+
+    index.index(caseUpdate(CASE_ID_1, "schoolId", "cd2"));
+
+    assertEquals(Optional.of(Set.of()), index.findCaseIds("schoolId", "ab1"));
+    assertEquals(Optional.of(Set.of(CASE_ID_1)), index.findCaseIds("schoolId", "cd2"));
+  }
+
+  @Test
+  public void shouldPreferCaseReceivedDuringRebuild() throws Exception {
+    SampleAttributeIndex index = new SampleAttributeIndex(appConfig, caseRepository);
+    when(caseRepository.readCaseUpdatePage(anyInt(), isNull()))
+        .thenAnswer(
+            invocation -> {
+              index.index(caseUpdate(CASE_ID_1, "uprn", "456"));
+              return new QueryPage<>(List.of(caseUpdate(CASE_ID_1, "uprn", "123")), null);
+            });
+
+    index.rebuild();
+
+    assertEquals(Optional.of(Set.of()), index.findCaseIds("uprn", "123"));
+    assertEquals(Optional.of(Set.of(CASE_ID_1)), index.findCaseIds("uprn", "456"));
+  }
+
+  @Test
+  public void shouldStayNotReadyWhenRebuildFails() throws Exception {
+    when(caseRepository.readCaseUpdatePage(anyInt(), isNull()))
+        .thenThrow(new CTPException(CTPException.Fault.SYSTEM_ERROR));
+    SampleAttributeIndex index = new SampleAttributeIndex(appConfig, caseRepository);
+
+    index.rebuild();
+
+    assertFalse(index.isReady());
+  }
+
+  private CaseUpdate caseUpdate(String caseId, String attributeKey, String attributeValue) {
+    Map<String, String> sample = new HashMap<>();
+    sample.put(attributeKey, attributeValue);
+    CaseUpdate caseUpdate = new CaseUpdate();
+    caseUpdate.setCaseId(caseId);
+    caseUpdate.setSample(sample);
+    return caseUpdate;
+  }
+}
@@ -0,0 +1,111 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.ons.ctp.common.event.model.CaseUpdate;
+import uk.gov.ons.ctp.common.event.model.NewCasePayloadContent;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.SchoolIndexConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueryPage;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SchoolDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class SchoolIndexTest {
+  private static final SchoolDTO ABBEY = new SchoolDTO("abc123", "Abbey Primary School");
+  private static final SchoolDTO ST_MARYS = new SchoolDTO("abd456", "St Mary's C of E Primary");
+  private static final SchoolDTO UPTON = new SchoolDTO("xyz789", "Upton Academy");
+
+  @Mock private CaseRepository caseRepository;
+
+  private SchoolIndex index;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    SchoolIndexConfig config = new SchoolIndexConfig();
+    config.setEnabled(true);
+    AppConfig appConfig = new AppConfig();
+    appConfig.setSchoolIndex(config);
+
+    when(caseRepository.readCaseUpdatePage(anyInt(), isNull()))
+        .thenReturn(
+            new QueryPage<>(
+                List.of(
+                    caseUpdate("1", ABBEY),
+                    caseUpdate("2", ST_MARYS),
+                    caseUpdate("3", ST_MARYS),
+                    caseUpdate("4", UPTON)),
+                null));
+    index = new SchoolIndex(appConfig, caseRepository);
+    index.rebuild();
+  }
+
+  @Test
+  public void shouldFindByStartOfName() {
+    assertEquals(List.of(ABBEY), index.findSchools("abb", 10));
+    assertEquals(List.of(UPTON), index.findSchools("UPTON ac", 10));
+  }
+
+  @Test
+  public void shouldFindByStartOfAnyWord() {
+    assertEquals(List.of(ST_MARYS), index.findSchools("marys", 10));
+    assertEquals(List.of(ST_MARYS), index.findSchools("Mary's C", 10));
+  }
+
+  @Test
+  public void shouldFindByStartOfId() {
+    assertEquals(List.of(ABBEY, ST_MARYS), index.findSchools("AB", 10));
+  }
+
+  @Test
+  public void shouldListEachSchoolOnce() {
+    List<SchoolDTO> schools = index.findSchools("primary", 10);
+    assertEquals(2, schools.size());
+    assertTrue(schools.containsAll(List.of(ABBEY, ST_MARYS)));
+  }
+
+  @Test
+  public void shouldCapResults() {
+    assertEquals(1, index.findSchools("primary", 1).size());
+  }
+
+  @Test
+  public void shouldRenameSchool() {
+    SchoolDTO renamed = new SchoolDTO(UPTON.getSchoolId(), "Upton Grammar");
+    index.index(caseUpdate("5", renamed));
+
+    assertEquals(List.of(), index.findSchools("academy", 10));
+    assertEquals(List.of(renamed), index.findSchools("gram", 10));
+  }
+
+  @Test
+  public void shouldIgnoreCasesWithoutSchool() {
+    CaseUpdate caseUpdate = new CaseUpdate();
+    caseUpdate.setCaseId("6");
+    caseUpdate.setSample(new HashMap<>());
+    index.index(caseUpdate);
+    assertEquals(List.of(), index.findSchools("6", 10));
+  }
+
+  private CaseUpdate caseUpdate(String caseId, SchoolDTO school) {
+    Map<String, String> sample = new HashMap<>();
+    sample.put(NewCasePayloadContent.ATTRIBUTE_SCHOOL_ID, school.getSchoolId());
+    sample.put(NewCasePayloadContent.ATTRIBUTE_SCHOOL_NAME, school.getSchoolName());
+    CaseUpdate caseUpdate = new CaseUpdate();
+    caseUpdate.setCaseId(caseId);
+    caseUpdate.setSample(sample);
+    return caseUpdate;
+  }
+}
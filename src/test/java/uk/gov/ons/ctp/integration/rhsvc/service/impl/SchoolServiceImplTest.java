@@ -0,0 +1,88 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.common.error.CTPException.Fault;
+import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.SchoolIndexConfig;
+import uk.gov.ons.ctp.integration.rhsvc.representation.SchoolDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class SchoolServiceImplTest {
+  private static final List<SchoolDTO> SCHOOLS =
+      List.of(new SchoolDTO("abc123", "Abbey Primary School"));
+
+  @Mock private SchoolIndex schoolIndex;
+  @Spy private AppConfig appConfig = new AppConfig();
+
+  @InjectMocks private SchoolServiceImpl schoolService;
+
+  private SchoolIndexConfig config = new SchoolIndexConfig();
+
+  @BeforeEach
+  public void setup() {
+    config.setEnabled(true);
+    appConfig.setSchoolIndex(config);
+  }
+
+  @Test
+  public void shouldUseDefaultLimit() throws Exception {
+    when(schoolIndex.isReady()).thenReturn(true);
+    when(schoolIndex.findSchools("abb", 10)).thenReturn(SCHOOLS);
+    assertEquals(SCHOOLS, schoolService.findSchools("abb", null));
+  }
+
+  @Test
+  public void shouldCapLimit() throws Exception {
+    when(schoolIndex.isReady()).thenReturn(true);
+    when(schoolIndex.findSchools("abb", 50)).thenReturn(SCHOOLS);
+    assertEquals(SCHOOLS, schoolService.findSchools("abb", 1000));
+  }
+
+  @Test
+  public void shouldRejectWhenIndexDisabled() {
+    config.setEnabled(false);
+    CTPException e = assertThrows(CTPException.class, () -> schoolService.findSchools("abb", 5));
+    assertEquals(Fault.RESOURCE_NOT_FOUND, e.getFault());
+    verify(schoolIndex, never()).findSchools(anyString(), anyInt());
+  }
+
+  @Test
+  public void shouldBeUnavailableUntilIndexBuilt() {
+    when(schoolIndex.isReady()).thenReturn(false);
+    ResponseStatusException e =
+        assertThrows(ResponseStatusException.class, () -> schoolService.findSchools("abb", 5));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    verify(schoolIndex, never()).findSchools(anyString(), anyInt());
+  }
+
+  @Test
+  public void shouldRejectShortPrefix() {
+    CTPException e = assertThrows(CTPException.class, () -> schoolService.findSchools(" a ", 5));
+    assertEquals(Fault.BAD_REQUEST, e.getFault());
+    verify(schoolIndex, never()).findSchools(anyString(), anyInt());
+  }
+
+  @Test
+  public void shouldRejectZeroLimit() {
+    CTPException e = assertThrows(CTPException.class, () -> schoolService.findSchools("abb", 0));
+    assertEquals(Fault.BAD_REQUEST, e.getFault());
+  }
+}
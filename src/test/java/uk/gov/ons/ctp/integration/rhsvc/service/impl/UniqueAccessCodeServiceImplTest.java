@@ -1,22 +1,28 @@
 package uk.gov.ons.ctp.integration.rhsvc.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import ma.glasnost.orika.MapperFacade;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -25,6 +31,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import uk.gov.ons.ctp.common.FixtureHelper;
 import uk.gov.ons.ctp.common.domain.Channel;
 import uk.gov.ons.ctp.common.domain.Language;
@@ -41,15 +49,21 @@ import uk.gov.ons.ctp.common.event.model.UacAuthentication;
 import uk.gov.ons.ctp.common.event.model.UacUpdate;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient.Domain;
-import uk.gov.ons.ctp.integration.rhsvc.RHSvcBeanMapper;
+import uk.gov.ons.ctp.integration.rhsvc.DirectDtoMapper;
+import uk.gov.ons.ctp.integration.rhsvc.DtoMapper;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.BulkheadConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.LoadsheddingConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.RateLimiterConfig;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CaseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.CollectionExerciseRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.SurveyRepository;
 import uk.gov.ons.ctp.integration.rhsvc.repository.UacRepository;
 import uk.gov.ons.ctp.integration.rhsvc.representation.EqLaunchRequestDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.LaunchDataDTO;
+import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextBatchItemDTO;
 import uk.gov.ons.ctp.integration.rhsvc.representation.UACContextDTO;
 
 // ** Unit tests of the Unique Access Code Service */
@@ -73,13 +87,21 @@ public class UniqueAccessCodeServiceImplTest {
 
   @Mock private EventPublisher eventPublisher;
 
-  @Spy private MapperFacade mapperFacade = new RHSvcBeanMapper();
+  @Spy private DtoMapper dtoMapper = new DirectDtoMapper();
+
+  @Spy
+  private Bulkhead envoyLimiterBulkhead = new Bulkhead("envoyLimiter", new BulkheadConfig());
+
+  @Spy
+  private Bulkhead eventPublisherBulkhead = new Bulkhead("eventPublisher", new BulkheadConfig());
 
   @Captor private ArgumentCaptor<UacAuthentication> uacAuthenticationCaptor;
   @Captor ArgumentCaptor<EqLaunch> sendEventCaptor;
 
   @Mock private RateLimiterClient rateLimiterClient;
+  @Mock private LocalRateLimiter localRateLimiter;
   @Mock private EqLaunchServiceImpl eqLaunchedService;
+  @Mock private LaunchDataCache launchDataCache;
 
   @Test
   public void getUAC_LinkedToExistingCase() throws Exception {
@@ -101,6 +123,7 @@ public class UniqueAccessCodeServiceImplTest {
     verify(caseDataRepo, times(1)).readCaseUpdate(CASE_ID);
     verify(surveyDataRepo, times(1)).readSurvey(SURVEY_ID);
     verify(collExDataRepo, times(1)).readCollectionExercise(COLLECTION_EXERCISE_ID);
+    verify(launchDataCache).put(eq(UAC_HASH), any(LaunchDataDTO.class), anyLong());
     verify(eventPublisher, times(1))
         .sendEvent(
             eq(TopicType.UAC_AUTHENTICATION),
@@ -258,6 +281,48 @@ public class UniqueAccessCodeServiceImplTest {
     verify(eventPublisher, times(0)).sendEvent(any(), any(), any(), any(EventPayload.class));
   }
 
+  @Test
+  public void getUACs_InRequestedOrderWithErrors() throws Exception {
+    UacUpdate uacTest = getUAC("linkedHousehold");
+    CaseUpdate caseTest = getCase("household");
+    SurveyUpdate surveyTest = getSurvey();
+    CollectionExerciseUpdate collexTest = getCollex();
+    List<String> uacHashes = List.of("unknown", UAC_HASH);
+
+    when(uacDataRepo.readUACs(uacHashes)).thenReturn(Map.of(UAC_HASH, uacTest));
+    when(caseDataRepo.readCaseUpdates(Set.of(CASE_ID))).thenReturn(Map.of(CASE_ID, caseTest));
+    when(surveyDataRepo.readSurveys(Set.of(SURVEY_ID))).thenReturn(Map.of(SURVEY_ID, surveyTest));
+    when(collExDataRepo.readCollectionExercises(Set.of(COLLECTION_EXERCISE_ID)))
+        .thenReturn(Map.of(COLLECTION_EXERCISE_ID, collexTest));
+
+    List<UACContextBatchItemDTO> results = uacSvc.getUACClaimContexts(uacHashes);
+
+    assertEquals(2, results.size());
+    assertEquals("unknown", results.get(0).getUacHash());
+    assertNull(results.get(0).getUacContext());
+    assertEquals("RESOURCE_NOT_FOUND", results.get(0).getErrorCode());
+    assertEquals(UAC_HASH, results.get(1).getUacHash());
+    assertNull(results.get(1).getErrorCode());
+    assertEquals(uacTest.getQid(), results.get(1).getUacContext().getQid());
+    assertEquals(
+        UUID.fromString(CASE_ID), results.get(1).getUacContext().getCollectionCase().getCaseId());
+    verify(eventPublisher, never()).sendEvent(any(), any(), any(), any(EventPayload.class));
+  }
+
+  @Test
+  public void getUACs_CaseNotFound() throws Exception {
+    UacUpdate uacTest = getUAC("linkedHousehold");
+    List<String> uacHashes = List.of(UAC_HASH);
+
+    when(uacDataRepo.readUACs(uacHashes)).thenReturn(Map.of(UAC_HASH, uacTest));
+    when(caseDataRepo.readCaseUpdates(Set.of(CASE_ID))).thenReturn(Map.of());
+
+    List<UACContextBatchItemDTO> results = uacSvc.getUACClaimContexts(uacHashes);
+
+    assertEquals("SYSTEM_ERROR", results.get(0).getErrorCode());
+    assertEquals("Case Not Found", results.get(0).getErrorMessage());
+  }
+
   @Test
   public void generateEqLaunchToken() throws Exception {
     mockEnableRateLimiter(true, MODULUS);
@@ -265,6 +330,116 @@ public class UniqueAccessCodeServiceImplTest {
     verifyRateLimiterCalled("11.22.33.44", MODULUS);
   }
 
+  @Test
+  public void generateEqLaunchTokenUsesDataGatheredAtClaim() throws Exception {
+    mockEnableRateLimiter(true, MODULUS);
+    UacUpdate uacTest = getUAC("linkedHousehold");
+    LaunchDataDTO launchData =
+        LaunchDataDTO.builder()
+            .uacUpdate(uacTest)
+            .caseUpdate(getCase("household"))
+            .surveyUpdate(getSurvey())
+            .collectionExerciseUpdate(getCollex())
+            .build();
+    when(launchDataCache.take(UAC_HASH)).thenReturn(launchData);
+    when(uacDataRepo.readUAC(UAC_HASH)).thenReturn(Optional.of(getUAC("linkedHousehold")));
+    when(eqLaunchedService.createLaunchToken(eq(launchData), any())).thenReturn("http:eq-lpmb");
+
+    EqLaunchRequestDTO eqLaunchDTO = EqLaunchRequestDTO.builder().clientIP("11.22.33.44").build();
+    uacSvc.generateEqLaunchToken(UAC_HASH, eqLaunchDTO);
+
+    verify(uacDataRepo, times(1)).readUAC(UAC_HASH);
+    verify(caseDataRepo, never()).readCaseUpdate(any());
+    verify(surveyDataRepo, never()).readSurvey(any());
+    verify(collExDataRepo, never()).readCollectionExercise(any());
+    verifyLaunchEventPublished(uacTest.getQid());
+  }
+
+  @Test
+  public void generateEqLaunchTokenGathersDataAgainWhenUacChangedSinceClaim() throws Exception {
+    mockEnableRateLimiter(true, MODULUS);
+    UacUpdate claimedUac = getUAC("linkedHousehold");
+    claimedUac.setActive(true);
+    LaunchDataDTO launchData =
+        LaunchDataDTO.builder()
+            .uacUpdate(claimedUac)
+            .caseUpdate(getCase("household"))
+            .surveyUpdate(getSurvey())
+            .collectionExerciseUpdate(getCollex())
+            .build();
+    when(launchDataCache.take(UAC_HASH)).thenReturn(launchData);
+    UacUpdate currentUac = getUAC("linkedHousehold");
+    currentUac.setActive(false);
+    when(uacDataRepo.readUAC(UAC_HASH)).thenReturn(Optional.of(currentUac));
+    when(caseDataRepo.readCaseUpdate(CASE_ID)).thenReturn(Optional.of(getCase("household")));
+    when(surveyDataRepo.readSurvey(SURVEY_ID)).thenReturn(Optional.of(getSurvey()));
+    when(collExDataRepo.readCollectionExercise(COLLECTION_EXERCISE_ID))
+        .thenReturn(Optional.of(getCollex()));
+    when(eqLaunchedService.createLaunchToken(any(), any())).thenReturn("http:eq-lpmb");
+
+    EqLaunchRequestDTO eqLaunchDTO = EqLaunchRequestDTO.builder().clientIP("11.22.33.44").build();
+    uacSvc.generateEqLaunchToken(UAC_HASH, eqLaunchDTO);
+
+    ArgumentCaptor<LaunchDataDTO> launchDataCaptor = ArgumentCaptor.forClass(LaunchDataDTO.class);
+    verify(eqLaunchedService).createLaunchToken(launchDataCaptor.capture(), any());
+    assertEquals(currentUac, launchDataCaptor.getValue().getUacUpdate());
+    verify(caseDataRepo, times(1)).readCaseUpdate(CASE_ID);
+  }
+
+  @Test
+  public void shouldShedLaunchesOfRejectedClientLocally() throws Exception {
+    mockEnableRateLimiter(true, MODULUS);
+    doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+        .when(rateLimiterClient)
+        .checkEqLaunchLimit(eq(Domain.RH), any(), eq(MODULUS));
+
+    EqLaunchRequestDTO eqLaunchDTO = EqLaunchRequestDTO.builder().clientIP("11.22.33.44").build();
+    assertThrows(
+        ResponseStatusException.class, () -> uacSvc.generateEqLaunchToken(UAC_HASH, eqLaunchDTO));
+    ResponseStatusException ex =
+        assertThrows(
+            ResponseStatusException.class,
+            () -> uacSvc.generateEqLaunchToken(UAC_HASH, eqLaunchDTO));
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+    verify(rateLimiterClient, times(1))
+        .checkEqLaunchLimit(eq(Domain.RH), eq("11.22.33.44"), eq(MODULUS));
+    verify(uacDataRepo, never()).readUAC(any());
+  }
+
+  @Test
+  public void shouldNotShedLaunchesOfOtherClientsAfterRejection() throws Exception {
+    mockEnableRateLimiter(true, MODULUS);
+    doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+        .when(rateLimiterClient)
+        .checkEqLaunchLimit(eq(Domain.RH), eq("11.22.33.44"), eq(MODULUS));
+
+    EqLaunchRequestDTO eqLaunchDTO = EqLaunchRequestDTO.builder().clientIP("11.22.33.44").build();
+    assertThrows(
+        ResponseStatusException.class, () -> uacSvc.generateEqLaunchToken(UAC_HASH, eqLaunchDTO));
+
+    callAndVerifyEqLaunched("55.66.77.88");
+    verifyRateLimiterCalled("55.66.77.88", MODULUS);
+  }
+
+  @Test
+  public void shouldNotShedLaunchesLocallyWhenPeriodIsZero() throws Exception {
+    mockEnableRateLimiter(true, MODULUS);
+    appConfig.getLoadshedding().setLocalSheddingPeriod(Duration.ZERO);
+    doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+        .when(rateLimiterClient)
+        .checkEqLaunchLimit(eq(Domain.RH), any(), eq(MODULUS));
+
+    EqLaunchRequestDTO eqLaunchDTO = EqLaunchRequestDTO.builder().clientIP("11.22.33.44").build();
+    assertThrows(
+        ResponseStatusException.class, () -> uacSvc.generateEqLaunchToken(UAC_HASH, eqLaunchDTO));
+    assertThrows(
+        ResponseStatusException.class, () -> uacSvc.generateEqLaunchToken(UAC_HASH, eqLaunchDTO));
+
+    verify(rateLimiterClient, times(2))
+        .checkEqLaunchLimit(eq(Domain.RH), eq("11.22.33.44"), eq(MODULUS));
+  }
+
   @Test
   public void shouldNotCallRateLimterWhenNotEnabled() throws Exception {
     mockEnableRateLimiter(false, MODULUS);
@@ -0,0 +1,193 @@
+package uk.gov.ons.ctp.integration.rhsvc.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.ons.ctp.common.error.CTPException;
+import uk.gov.ons.ctp.integration.rhsvc.config.WebformQueueConfig;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueryPage;
+import uk.gov.ons.ctp.integration.rhsvc.repository.QueuedWebform;
+import uk.gov.ons.ctp.integration.rhsvc.repository.WebformQueueRepository;
+import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class WebformQueueTest {
+  private static final Instant NOW = Instant.parse("2026-10-01T12:00:00Z");
+
+  @Mock private WebformQueueRepository repository;
+
+  private WebformQueueConfig config = new WebformQueueConfig();
+  private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+  private BlockingQueue<QueuedWebform> delivered = new LinkedBlockingQueue<>();
+  private WebformQueue queue;
+
+  @BeforeEach
+  public void setup() {
+    config.setEnabled(true);
+    config.setCapacity(2);
+    config.setSendRate(1000);
+    config.setMaxAttempts(3);
+    config.setInitialBackoff(Duration.ofMillis(10));
+    config.setRecoverAfter(Duration.ofMinutes(10));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (queue != null) {
+      queue.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldStoreSendAndRemoveWebform() throws Exception {
+    queue = new WebformQueue(config, repository, clock);
+    queue.deliverWith(delivered::add);
+    queue.start();
+
+    UUID reference = queue.enqueue(new WebformDTO());
+
+    QueuedWebform sent = delivered.poll(5, TimeUnit.SECONDS);
+    assertEquals(reference.toString(), sent.getId());
+    verify(repository).writeQueuedWebform(sent);
+    verify(repository, timeout(5000)).deleteQueuedWebform(reference.toString());
+  }
+
+  @Test
+  public void shouldRejectWhenFull() throws Exception {
+    queue = new WebformQueue(config, repository, clock);
+    queue.enqueue(new WebformDTO());
+    queue.enqueue(new WebformDTO());
+
+    ResponseStatusException e =
+        assertThrows(ResponseStatusException.class, () -> queue.enqueue(new WebformDTO()));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    assertEquals(2, queue.size());
+  }
+
+  @Test
+  public void shouldNotHoldWebformWhichCouldNotBeStored() throws Exception {
+    queue = new WebformQueue(config, repository, clock);
+    doThrow(new CTPException(CTPException.Fault.SYSTEM_ERROR))
+        .when(repository)
+        .writeQueuedWebform(any());
+
+    assertThrows(CTPException.class, () -> queue.enqueue(new WebformDTO()));
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void shouldRetryFailedSend() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    queue = new WebformQueue(config, repository, clock);
+    queue.deliverWith(
+        queuedWebform -> {
+          if (calls.incrementAndGet() == 1) {
+            throw new RuntimeException("Notify unavailable");
+          }
+          delivered.add(queuedWebform);
+        });
+    queue.start();
+
+    UUID reference = queue.enqueue(new WebformDTO());
+
+    QueuedWebform sent = delivered.poll(5, TimeUnit.SECONDS);
+    assertEquals(reference.toString(), sent.getId());
+    assertEquals(1, sent.getAttempts());
+    verify(repository, timeout(5000)).deleteQueuedWebform(reference.toString());
+  }
+
+  @Test
+  public void shouldGiveUpAfterMaxAttempts() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    queue = new WebformQueue(config, repository, clock);
+    queue.deliverWith(
+        queuedWebform -> {
+          calls.incrementAndGet();
+          throw new RuntimeException("Notify unavailable");
+        });
+    queue.start();
+
+    UUID reference = queue.enqueue(new WebformDTO());
+
+    long giveUpBy = System.currentTimeMillis() + 5000;
+    while (queue.size() > 0 && System.currentTimeMillis() < giveUpBy) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, queue.size());
+    assertEquals(3, calls.get());
+    verify(repository, timeout(5000)).deleteQueuedWebform(reference.toString());
+  }
+
+  @Test
+  public void shouldRenewLeaseWhenRetrying() throws Exception {
+    AtomicLong now = new AtomicLong(NOW.toEpochMilli());
+    Clock movingClock = mock(Clock.class);
+    when(movingClock.millis()).thenAnswer(invocation -> now.get());
+    queue = new WebformQueue(config, repository, movingClock);
+    queue.deliverWith(
+        queuedWebform -> {
+          if (queuedWebform.getAttempts() == 0) {
+            now.addAndGet(Duration.ofMinutes(1).toMillis());
+            throw new RuntimeException("Notify unavailable");
+          }
+          delivered.add(queuedWebform);
+        });
+    queue.start();
+
+    queue.enqueue(new WebformDTO());
+
+    QueuedWebform sent = delivered.poll(5, TimeUnit.SECONDS);
+    assertEquals(1, sent.getAttempts());
+    assertEquals(NOW.plus(Duration.ofMinutes(1)).toEpochMilli(), sent.getQueuedAt());
+  }
+
+  @Test
+  public void shouldRecoverOldWebformsOnly() throws Exception {
+    long old = NOW.minus(Duration.ofMinutes(11)).toEpochMilli();
+    long recent = NOW.minus(Duration.ofMinutes(1)).toEpochMilli();
+    QueuedWebform abandoned = new QueuedWebform("a", new WebformDTO(), old, 0);
+    QueuedWebform inFlight = new QueuedWebform("b", new WebformDTO(), recent, 0);
+    QueuedWebform failed = new QueuedWebform("c", new WebformDTO(), old, 3);
+    when(repository.readQueuedWebformPage(eq(100), isNull()))
+        .thenReturn(new QueryPage<>(List.of(abandoned, inFlight, failed), null));
+
+    queue = new WebformQueue(config, repository, clock);
+    queue.recover();
+
+    assertEquals(1, queue.size());
+    assertEquals(NOW.toEpochMilli(), abandoned.getQueuedAt());
+    verify(repository).writeQueuedWebform(abandoned);
+    verify(repository).deleteQueuedWebform("c");
+    verify(repository, never()).deleteQueuedWebform("a");
+    assertTrue(delivered.isEmpty());
+  }
+}
@@ -12,12 +12,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.validation.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,10 +32,14 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
 import uk.gov.ons.ctp.common.config.CustomCircuitBreakerConfig;
 import uk.gov.ons.ctp.common.error.CTPException;
 import uk.gov.ons.ctp.common.event.EventPublisher;
@@ -41,16 +47,24 @@ import uk.gov.ons.ctp.common.utility.ParallelTestLocks;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient;
 import uk.gov.ons.ctp.integration.ratelimiter.client.RateLimiterClient.Domain;
 import uk.gov.ons.ctp.integration.rhsvc.config.AppConfig;
+import uk.gov.ons.ctp.integration.rhsvc.config.BulkheadConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.NotifyConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.RateLimiterConfig;
 import uk.gov.ons.ctp.integration.rhsvc.config.WebformConfig;
+import uk.gov.ons.ctp.integration.rhsvc.deadline.RequestDeadline;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.Bulkhead;
 import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.WebformService;
 import uk.gov.service.notify.NotificationClientException;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(
-    classes = {WebformServiceImpl.class, AppConfig.class, ValidationAutoConfiguration.class})
+    classes = {
+      WebformServiceImpl.class,
+      AppConfig.class,
+      ValidationAutoConfiguration.class,
+      WebformServiceImplTest.BulkheadTestConfig.class
+    })
 @ResourceLock(value = ParallelTestLocks.SPRING_TEST, mode = READ_WRITE)
 public class WebformServiceImplTest extends WebformServiceImplTestBase {
   private static final String TEMPLATE_FULL_NAME = "respondent_full_name";
@@ -62,6 +76,19 @@ public class WebformServiceImplTest extends WebformServiceImplTestBase {
   private static final UUID NOTIFICATION_ID =
       UUID.fromString("8db6313a-d4e3-47a1-8d0e-ddd30c86e878");
 
+  @TestConfiguration
+  static class BulkheadTestConfig {
+    @Bean("notifyBulkhead")
+    Bulkhead notifyBulkhead() {
+      return new Bulkhead("notify", new BulkheadConfig());
+    }
+
+    @Bean("envoyLimiterBulkhead")
+    Bulkhead envoyLimiterBulkhead() {
+      return new Bulkhead("envoyLimiter", new BulkheadConfig());
+    }
+  }
+
   @MockBean private EventPublisher eventPublisher;
 
   private UUID notificationId;
@@ -99,6 +126,11 @@ public class WebformServiceImplTest extends WebformServiceImplTestBase {
     appConfig.setRateLimiter(rateLimiterConfig(true));
   }
 
+  @AfterEach
+  public void tearDown() {
+    RequestDeadline.clear();
+  }
+
   private RateLimiterConfig rateLimiterConfig(boolean enabled) {
     RateLimiterConfig rateLimiterConfig = new RateLimiterConfig();
     rateLimiterConfig.setEnabled(enabled);
@@ -160,11 +192,54 @@ public class WebformServiceImplTest extends WebformServiceImplTestBase {
             any());
 
     verifyRateLimiterNotCalled();
+    verify(localRateLimiter, never()).checkWebform(any());
 
     assertTrue(validateTemplateValues(webform, templateValueCaptor.getValue()));
     assertEquals(NOTIFICATION_ID, notificationId);
   }
 
+  @Test
+  public void shouldQueueWebformWhenQueueEnabled() throws Exception {
+    UUID reference = UUID.randomUUID();
+    when(webformQueue.isEnabled()).thenReturn(true);
+    when(webformQueue.enqueue(webform)).thenReturn(reference);
+
+    assertEquals(reference, webformService.sendWebformEmail(webform));
+
+    verifyRateLimiterCall(1, webform.getClientIP());
+    verify(notificationClient, never()).sendEmail(any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotChargeRateLimiterOnceDeadlinePassed() throws Exception {
+    RequestDeadline.start(Duration.ZERO);
+
+    ResponseStatusException e =
+        assertThrows(
+            ResponseStatusException.class, () -> webformService.sendWebformEmail(webform));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    verifyRateLimiterNotCalled();
+    verify(notificationClient, never()).sendEmail(any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldSendWebformWhenDeadlinePassesAfterRateLimiterCharged() throws Exception {
+    mockSuccessfulSend();
+    RequestDeadline.start(Duration.ofMinutes(1));
+    doAnswer(
+            invocation -> {
+              RequestDeadline.start(Duration.ZERO);
+              return null;
+            })
+        .when(rateLimiterClient)
+        .checkWebformRateLimit(Domain.RH, webform.getClientIP());
+
+    assertEquals(NOTIFICATION_ID, webformService.sendWebformEmail(webform));
+
+    verifyRateLimiterCall(1, webform.getClientIP());
+  }
+
   public void sendWebformEmail_Error() throws Exception {
     mockFailedSend();
     RuntimeException e =
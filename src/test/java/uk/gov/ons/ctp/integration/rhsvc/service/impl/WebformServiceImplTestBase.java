@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import uk.gov.ons.ctp.common.FixtureHelper;
+import uk.gov.ons.ctp.integration.rhsvc.limiter.LocalRateLimiter;
 import uk.gov.ons.ctp.integration.rhsvc.representation.WebformDTO;
 import uk.gov.ons.ctp.integration.rhsvc.service.WebformService;
 import uk.gov.service.notify.NotificationClientApi;
@@ -33,6 +34,10 @@ public abstract class WebformServiceImplTestBase {
 
   @MockBean NotificationClientApi notificationClient;
 
+  @MockBean WebformQueue webformQueue;
+
+  @MockBean LocalRateLimiter localRateLimiter;
+
   WebformDTO webform;
 
   @BeforeEach